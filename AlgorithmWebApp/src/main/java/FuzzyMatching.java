@@ -1,16 +1,38 @@
 package AlgorithmWebApp.src.main.java;
 
+import UnitTestingMatchingAlgorithm.src.main.java.EditDistance;
+import UnitTestingMatchingAlgorithm.src.main.java.VocabularyIndex;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
-@WebServlet("/Fuzzy")
+/**
+ * FuzzyMatching compares strings by Levenshtein distance.
+ *
+ * POST /Fuzzy with the text1 and text2 form fields compares one pair and renders
+ * fuzzy_results.jsp. POST /Fuzzy/similarities compares in bulk, with a JSON body holding either
+ * one "query" or a list of "queries", the list of "candidates", and optionally "topK" (default 10,
+ * 0 for every candidate within the cutoff) and "maxDistance". The response lists, per query, the
+ * topK closest candidates by distance, ties by candidate index:
+ * {"results":[{"query":"Jon","matches":[{"index":0,"candidate":"John","distance":1,"similarity":0.75}]}]}
+ */
+@WebServlet({"/Fuzzy", "/Fuzzy/similarities"})
 public class FuzzyMatching extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    // largest queries x candidates product served by one bulk request
+    static final long MAX_PAIRS = 50_000_000L;
+    // from this many queries building a VocabularyIndex over the candidates beats scanning them
+    static final int INDEX_MIN_QUERIES = 32;
+
     public FuzzyMatching() {
         super();
     }
@@ -20,6 +42,10 @@ public class FuzzyMatching extends HttpServlet {
     }
 
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if ("/Fuzzy/similarities".equals(request.getServletPath())) {
+            bulkSimilarities(request, response);
+            return;
+        }
         String text1 = request.getParameter("text1");
         String text2 = request.getParameter("text2");
 
@@ -39,23 +65,12 @@ public class FuzzyMatching extends HttpServlet {
     }
 
     public static int levenshteinDistance(String text, String pattern) {
-        int[][] doubleArray = new int[text.length() + 1][pattern.length() + 1];
-
-        for (int i = 0; i <= text.length(); i++) {
-            for (int j = 0; j <= pattern.length(); j++) {
-                if (i == 0) {
-                    doubleArray[i][j] = j;
-                } else if (j == 0) {
-                    doubleArray[i][j] = i;
-                } else {
-                    doubleArray[i][j] = Math.min(Math.min(
-                            doubleArray[i - 1][j - 1] + (text.charAt(i - 1) == pattern.charAt(j - 1) ? 0 : 1),
-                            doubleArray[i - 1][j] + 1),
-                            doubleArray[i][j - 1] + 1);
-                }
-            }
-        }
-        return doubleArray[text.length()][pattern.length()];
+        return EditDistance.distance(text, pattern);
+    }
+
+    // Returns maxDistance + 1 as soon as the distance is known to exceed maxDistance.
+    public static int levenshteinDistance(String text, String pattern, int maxDistance) {
+        return EditDistance.distance(text, pattern, maxDistance);
     }
 
     public static double similarities(String text, String pattern) {
@@ -65,5 +80,143 @@ public class FuzzyMatching extends HttpServlet {
         }
         return 1.0 - (double) levenshteinDistance(text, pattern) / maximum;
     }
-}
 
+    private void bulkSimilarities(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        List<String> queries;
+        List<String> candidates;
+        int topK;
+        int maxDistance;
+        try {
+            Map<String, Object> body = Json.readObject(request.getReader());
+            queries = body.containsKey("query")
+                    ? Collections.singletonList(stringValue(body.get("query"), "query"))
+                    : strings(body.get("queries"), "queries");
+            candidates = strings(body.get("candidates"), "candidates");
+            topK = intValue(body.get("topK"), 10, "topK");
+            maxDistance = intValue(body.get("maxDistance"), Integer.MAX_VALUE - 1, "maxDistance");
+            if ((long) queries.size() * candidates.size() > MAX_PAIRS) {
+                throw new IllegalArgumentException("At most " + MAX_PAIRS + " pairs can be compared per request");
+            }
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        // convert every candidate once, the kernel then works on the char arrays directly
+        char[][] candidateChars = new char[candidates.size()][];
+        for (int i = 0; i < candidateChars.length; i++) {
+            candidateChars[i] = candidates.get(i).toCharArray();
+        }
+        // many queries share one trie walk per query instead of a scan of every candidate
+        VocabularyIndex candidateIndex = queries.size() >= INDEX_MIN_QUERIES ? new VocabularyIndex(candidates) : null;
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        out.print("{\"results\":[");
+        for (int q = 0; q < queries.size(); q++) {
+            String query = queries.get(q);
+            int[][] nearest = candidateIndex != null
+                    ? nearest(candidateIndex, query, topK, maxDistance)
+                    : nearest(query.toCharArray(), candidateChars, topK, maxDistance);
+            if (q > 0) out.print(',');
+            out.print("{\"query\":");
+            Json.writeString(out, query);
+            out.print(",\"matches\":[");
+            for (int i = 0; i < nearest[0].length; i++) {
+                int index = nearest[0][i];
+                int distance = nearest[1][i];
+                if (i > 0) out.print(',');
+                out.print("{\"index\":" + index + ",\"candidate\":");
+                Json.writeString(out, candidates.get(index));
+                int maximum = Math.max(query.length(), candidateChars[index].length);
+                double similarity = maximum == 0 ? 1.0 : 1.0 - (double) distance / maximum;
+                out.print(",\"distance\":" + distance + ",\"similarity\":" + similarity + "}");
+            }
+            out.print("]}");
+        }
+        out.print("]}");
+        out.flush();
+    }
+
+    /**
+     * Finds the candidates closest to a query. Once topK candidates are kept, the next one only
+     * needs to beat the worst of them, so the kernel is called with that distance minus one as its
+     * bound and gives up on a candidate as soon as it cannot get there.
+     *
+     * @param query chars of the query
+     * @param candidates chars of every candidate
+     * @param topK number of candidates to keep, or 0 for all within maxDistance
+     * @param maxDistance largest distance returned
+     * @return candidate indexes in [0] and their distances in [1], closest first, ties by index
+     */
+    static int[][] nearest(char[] query, char[][] candidates, int topK, int maxDistance) {
+        int capacity = topK > 0 ? topK : candidates.length;
+        int[] indexes = new int[Math.min(capacity, candidates.length)];
+        int[] distances = new int[indexes.length];
+        int size = 0;
+
+        for (int c = 0; c < candidates.length && indexes.length > 0; c++) {
+            int bound = size == indexes.length ? Math.min(maxDistance, distances[size - 1] - 1) : maxDistance;
+            if (bound < 0) break;
+            int distance = EditDistance.distance(query, 0, query.length, candidates[c], 0, candidates[c].length, bound);
+            if (distance > bound) continue;
+
+            // insert after every kept candidate at the same distance, they have lower indexes
+            int position = size == indexes.length ? size - 1 : size++;
+            while (position > 0 && distances[position - 1] > distance) {
+                indexes[position] = indexes[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            indexes[position] = c;
+            distances[position] = distance;
+        }
+        int[][] nearest = {new int[size], new int[size]};
+        System.arraycopy(indexes, 0, nearest[0], 0, size);
+        System.arraycopy(distances, 0, nearest[1], 0, size);
+        return nearest;
+    }
+
+    /**
+     * Same as the scan above, answered by an index over the candidates.
+     */
+    static int[][] nearest(VocabularyIndex index, String query, int topK, int maxDistance) {
+        List<VocabularyIndex.Match> matches = index.nearest(query, topK, maxDistance);
+        int[][] nearest = {new int[matches.size()], new int[matches.size()]};
+        for (int i = 0; i < matches.size(); i++) {
+            nearest[0][i] = matches.get(i).getIndex();
+            nearest[1][i] = matches.get(i).getDistance();
+        }
+        return nearest;
+    }
+
+    private static String stringValue(Object value, String name) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private static List<String> strings(Object value, String name) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(name + " must be a list of strings");
+        }
+        List<String> strings = new ArrayList<>();
+        for (Object element : (List<?>) value) {
+            strings.add(stringValue(element, name));
+        }
+        return strings;
+    }
+
+    private static int intValue(Object value, int defaultValue, String name) {
+        if (value == null) return defaultValue;
+        if (!(value instanceof Double) || (Double) value < 0 || (Double) value != Math.floor((Double) value)) {
+            throw new IllegalArgumentException(name + " must be a whole number of at least 0");
+        }
+        return (int) Math.min((Double) value, Integer.MAX_VALUE - 1);
+    }
+}
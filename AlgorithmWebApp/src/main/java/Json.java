@@ -0,0 +1,200 @@
+package AlgorithmWebApp.src.main.java;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Json reads and writes the small JSON documents exchanged by the servlets of this app.
+ *
+ * Reading covers one object whose values are strings, numbers, booleans, null or arrays of
+ * those; numbers are returned as Double and arrays as List. Malformed input fails with an
+ * IllegalArgumentException.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Writes a JSON string literal, or null.
+     */
+    static void writeString(PrintWriter out, String value) {
+        if (value == null) {
+            out.print("null");
+            return;
+        }
+        out.print('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.print('\\');
+                out.print(c);
+            } else if (c < 0x20) {
+                out.print(String.format("\\u%04x", (int) c));
+            } else {
+                out.print(c);
+            }
+        }
+        out.print('"');
+    }
+
+    /**
+     * @param in source holding one JSON object
+     * @return the members of the object, in document order
+     * @throws IOException if reading fails
+     */
+    static Map<String, Object> readObject(Reader in) throws IOException {
+        Parser parser = new Parser(in);
+        if (parser.skipWhitespace() != '{') {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) parser.value();
+        if (parser.skipWhitespace() != -1) {
+            throw new IllegalArgumentException("Unexpected content after the JSON object");
+        }
+        return object;
+    }
+
+    private static final class Parser {
+        private final Reader in;
+        private int next = -2;
+
+        private Parser(Reader in) {
+            this.in = in;
+        }
+
+        private int peek() throws IOException {
+            if (next == -2) next = in.read();
+            return next;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            next = -2;
+            return c;
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = peek();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                read();
+                c = peek();
+            }
+            return c;
+        }
+
+        private void expect(char expected) throws IOException {
+            if (skipWhitespace() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "'");
+            }
+            read();
+        }
+
+        private Object value() throws IOException {
+            int c = skipWhitespace();
+            if (c == '{') {
+                read();
+                Map<String, Object> object = new LinkedHashMap<>();
+                if (skipWhitespace() == '}') {
+                    read();
+                    return object;
+                }
+                do {
+                    skipWhitespace();
+                    String key = string();
+                    expect(':');
+                    object.put(key, value());
+                } while (separator('}'));
+                return object;
+            }
+            if (c == '[') {
+                read();
+                List<Object> array = new ArrayList<>();
+                if (skipWhitespace() == ']') {
+                    read();
+                    return array;
+                }
+                do {
+                    array.add(value());
+                } while (separator(']'));
+                return array;
+            }
+            if (c == '"') {
+                return string();
+            }
+            StringBuilder literal = new StringBuilder();
+            while (c >= 0 && c != ',' && c != '}' && c != ']' && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                literal.append((char) read());
+                c = peek();
+            }
+            String text = literal.toString();
+            switch (text) {
+                case "null": return null;
+                case "true": return Boolean.TRUE;
+                case "false": return Boolean.FALSE;
+                default:
+                    try {
+                        return Double.valueOf(text);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid JSON value " + text);
+                    }
+            }
+        }
+
+        /**
+         * @return true if another member follows, false at the closing char
+         */
+        private boolean separator(char close) throws IOException {
+            int c = skipWhitespace();
+            read();
+            if (c == ',') return true;
+            if (c == close) return false;
+            throw new IllegalArgumentException("Expected ',' or '" + close + "'");
+        }
+
+        private String string() throws IOException {
+            if (read() != '"') throw new IllegalArgumentException("Expected a string");
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0) throw new IllegalArgumentException("Unterminated string");
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append((char) c);
+                    continue;
+                }
+                c = read();
+                switch (c) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u': {
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) throw new IllegalArgumentException("Invalid unicode escape");
+                            code = code * 16 + digit;
+                        }
+                        value.append((char) code);
+                        break;
+                    }
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append((char) c);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid escape");
+                }
+            }
+        }
+    }
+}
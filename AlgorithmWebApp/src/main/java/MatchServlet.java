@@ -0,0 +1,297 @@
+package AlgorithmWebApp.src.main.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorSnapshot;
+import UnitTestingMatchingAlgorithm.src.main.java.RecordLoader;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * MatchServlet matches a whole cohort of students against a preloaded preceptor pool in one call.
+ *
+ * POST /match?pool=NAME&minimumScore=50&maxResults=10 with the students in the body, as JSON
+ * Lines or, with Content-Type text/csv, as CSV (see RecordLoader). The response is NDJSON, one
+ * line per student in input order:
+ * {"studentId":"ST001","studentName":"John Doe","matches":[{"preceptorId":"PR001","preceptorName":"Dr. Jane Smith","score":98.0}]}
+ *
+ * This class encapsulates:
+ * - Pools referenced by name, read on first use from the PreceptorSnapshot file NAME.snapshot
+ *   in the pool directory and kept for later requests until the file's last-modified time
+ *   changes, so a snapshot replaced by PreceptorSnapshot.write is picked up by the next request
+ * - Async processing: the container thread returns at once, and a bounded pool of worker threads
+ *   reads the body, scores it chunk by chunk and writes the results as they are ready
+ * - Overload handling: when every worker is busy and the queue is full the request gets a 503
+ *   instead of waiting
+ *
+ * Context parameters: matching.poolDirectory (default /WEB-INF/pools), matching.workers (default
+ * one per processor), matching.queueSize (default 64) and matching.timeoutMillis (default 600000).
+ * Input that fails to parse gets a 400 while nothing was written yet, and otherwise ends the
+ * stream with a final {"error":"..."} line. A snapshot that cannot be read, or was written for
+ * another schema, gets a 500 and is logged.
+ */
+@WebServlet(urlPatterns = "/match", asyncSupported = true)
+public class MatchServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(MatchServlet.class.getName());
+    private static final Pattern POOL_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final ConcurrentMap<String, LoadedPool> pools = new ConcurrentHashMap<>();
+    private transient ThreadPoolExecutor workers;
+    private Path poolDirectory;
+    private long timeoutMillis;
+
+    public MatchServlet() {
+        super();
+    }
+
+    @Override
+    public void init() throws ServletException {
+        String directory = parameter("matching.poolDirectory", "/WEB-INF/pools");
+        String realPath = directory.startsWith("/WEB-INF") ? getServletContext().getRealPath(directory) : directory;
+        poolDirectory = Paths.get(realPath != null ? realPath : directory);
+        timeoutMillis = Long.parseLong(parameter("matching.timeoutMillis", "600000"));
+
+        int threads = Integer.parseInt(parameter("matching.workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int queueSize = Integer.parseInt(parameter("matching.queueSize", "64"));
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "match-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private String parameter(String name, String defaultValue) {
+        String value = getServletContext().getInitParameter(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        String poolName = request.getParameter("pool");
+        double minimumScore;
+        int maxResults;
+        try {
+            minimumScore = Double.parseDouble(valueOrDefault(request.getParameter("minimumScore"), "50"));
+            maxResults = Integer.parseInt(valueOrDefault(request.getParameter("maxResults"), "0"));
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "minimumScore and maxResults must be numbers");
+            return;
+        }
+        if (poolName == null || !POOL_NAME.matcher(poolName).matches()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "pool must name a preceptor pool");
+            return;
+        }
+        PreceptorPool pool;
+        try {
+            pool = pool(poolName);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warning("Preceptor pool " + poolName + " cannot be read: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Preceptor pool " + poolName
+                    + " cannot be read");
+            return;
+        }
+        if (pool == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown preceptor pool " + poolName);
+            return;
+        }
+        RecordLoader.Format format = request.getContentType() != null && request.getContentType().startsWith("text/csv")
+                ? RecordLoader.Format.CSV
+                : RecordLoader.Format.JSONL;
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(timeoutMillis);
+        MatchTask task = new MatchTask(async, pool, format, minimumScore, maxResults);
+        async.addListener(task);
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Matching workers are busy");
+            async.complete();
+        }
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    /**
+     * @return the named pool, read from its snapshot on first use and again whenever the file
+     *         was modified since, or null if there is none
+     * @throws IOException if the snapshot cannot be read
+     * @throws IllegalArgumentException if the snapshot was written for another schema
+     */
+    private PreceptorPool pool(String name) throws IOException {
+        Path file = poolDirectory.resolve(name + ".snapshot");
+        if (!Files.isRegularFile(file)) {
+            pools.remove(name);
+            return null;
+        }
+        FileTime modified = Files.getLastModifiedTime(file);
+        LoadedPool loaded = pools.get(name);
+        if (loaded != null && loaded.modified.equals(modified)) return loaded.pool;
+        synchronized (pools) {
+            loaded = pools.get(name);
+            if (loaded == null || !loaded.modified.equals(modified)) {
+                loaded = new LoadedPool(PreceptorSnapshot.read(file), modified);
+                pools.put(name, loaded);
+            }
+        }
+        return loaded.pool;
+    }
+
+    /**
+     * A pool with the last-modified time of the snapshot it was read from.
+     */
+    private static final class LoadedPool {
+        private final PreceptorPool pool;
+        private final FileTime modified;
+
+        private LoadedPool(PreceptorPool pool, FileTime modified) {
+            this.pool = pool;
+            this.modified = modified;
+        }
+    }
+
+    /**
+     * Scores one request on a worker thread, writing each result as soon as its chunk is done.
+     */
+    private static final class MatchTask implements Runnable, AsyncListener {
+        private final AsyncContext async;
+        private final PreceptorPool pool;
+        private final RecordLoader.Format format;
+        private final double minimumScore;
+        private final int maxResults;
+        private volatile boolean finished;
+
+        private MatchTask(AsyncContext async, PreceptorPool pool, RecordLoader.Format format,
+                          double minimumScore, int maxResults) {
+            this.async = async;
+            this.pool = pool;
+            this.format = format;
+            this.minimumScore = minimumScore;
+            this.maxResults = maxResults;
+        }
+
+        @Override
+        public void run() {
+            HttpServletResponse response = (HttpServletResponse) async.getResponse();
+            try {
+                response.setContentType("application/x-ndjson");
+                response.setCharacterEncoding("UTF-8");
+                PrintWriter out = response.getWriter();
+                int[] written = {0};
+                try {
+                    RecordLoader.streamMatches(async.getRequest().getReader(), format, pool, minimumScore, maxResults,
+                            new MatchingConfig(), result -> {
+                                if (finished) {
+                                    throw new IllegalStateException("Request timed out");
+                                }
+                                writeResult(out, result);
+                                // push every chunk to the client as soon as it is scored
+                                if (++written[0] % RecordLoader.DEFAULT_CHUNK_SIZE == 0) {
+                                    out.flush();
+                                }
+                            });
+                } catch (IllegalArgumentException e) {
+                    if (written[0] == 0 && !response.isCommitted()) {
+                        response.reset();
+                        response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                        return;
+                    }
+                    out.print("{\"error\":");
+                    Json.writeString(out, e.getMessage());
+                    out.print("}\n");
+                }
+                out.flush();
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the request timed out, nothing left to answer
+                LOGGER.fine("Match request aborted: " + e.getMessage());
+            } finally {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (!finished) {
+                finished = true;
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finished = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    static void writeResult(PrintWriter out, FuzzyMatchingAlgorithm.MatchResult result) {
+        out.print("{\"studentId\":");
+        Json.writeString(out, result.getStudentId());
+        out.print(",\"studentName\":");
+        Json.writeString(out, result.getStudentName());
+        out.print(",\"matches\":[");
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches = result.getMatches();
+        for (int i = 0; i < matches.size(); i++) {
+            FuzzyMatchingAlgorithm.PreceptorMatch match = matches.get(i);
+            if (i > 0) out.print(',');
+            out.print("{\"preceptorId\":");
+            Json.writeString(out, match.getPreceptorId());
+            out.print(",\"preceptorName\":");
+            Json.writeString(out, match.getPreceptorName());
+            out.print(",\"score\":");
+            out.print(match.getScore());
+            out.print('}');
+        }
+        out.print("]}\n");
+    }
+}
@@ -2,6 +2,7 @@
  * How different data types of matching work on java. create a 
  * class that has some method and that can test those sample-matching responses.
  */
+import UnitTestingMatchingAlgorithm.src.main.java.VectorSimilarity;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -9,17 +10,11 @@ import java.util.Set;
 
 public class Algorithms {
 	
-	// This is a cosine similarity between arrays
+	// This is a cosine similarity between arrays. It runs on VectorSimilarity, which uses the
+	// JDK Vector API when available. A zero vector scores 0 rather than NaN, and arrays of
+	// different lengths are rejected with an IllegalArgumentException.
     public static double cosineSimilarity(double[] vectorA, double[] vectorB) {
-	    double dotProduct = 0.0;
-	    double normA = 0.0;
-	    double normB = 0.0;
-	    for (int i = 0; i < vectorA.length; i++) {
-	      dotProduct += vectorA[i] * vectorB[i];
-	      normA += Math.pow(vectorA[i], 2);
-	      normB += Math.pow(vectorB[i], 2);
-	    }
-	    return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+	    return VectorSimilarity.cosine(vectorA, vectorB);
 	  }
     
     // This is a cosine similarity between strings. 
@@ -0,0 +1,71 @@
+package UnitTestingMatchingAlgorithm.benchmarks.src.main.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full matching run over a whole cohort, the same way the org calls calculateMatches:
+ * one MatchRequest per student, every request sharing the same preceptor list.
+ *
+ * Each iteration starts with an empty similarity cache, so every run pays for its own text
+ * comparisons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CalculateMatchesBenchmark {
+
+    /**
+     * Students x preceptors.
+     */
+    @Param({"10x10", "1000x1000", "10000x5000"})
+    private String cohort;
+
+    private List<FuzzyMatchingAlgorithm.MatchRequest> requests;
+    private MatchingConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] size = cohort.split("x");
+        CohortGenerator generator = new CohortGenerator(2025L);
+        List<Student> students = generator.students(Integer.parseInt(size[0]));
+        List<Preceptor> preceptors = generator.preceptors(Integer.parseInt(size[1]));
+
+        requests = new ArrayList<>(students.size());
+        for (Student student : students) {
+            requests.add(new FuzzyMatchingAlgorithm.MatchRequest(student, preceptors, 50.0));
+        }
+        config = new MatchingConfig();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearCache() {
+        config.getSimilarityCache().clear();
+    }
+
+    @Benchmark
+    public List<FuzzyMatchingAlgorithm.MatchResult> calculateMatches() {
+        return FuzzyMatchingAlgorithm.calculateMatches(requests, config);
+    }
+}
@@ -0,0 +1,150 @@
+package UnitTestingMatchingAlgorithm.benchmarks.src.main.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CohortGenerator builds synthetic students and preceptors for the benchmarks.
+ *
+ * Records are modeled on Student.createSampleStudent and Preceptor.createSamplePreceptors, with
+ * each field drawn from a small vocabulary close to what a real intake form produces: a few
+ * picklist answers, a few dozen specialties, and start dates spread over one academic year.
+ * Free text answers get occasional typos so text similarity is not always an exact match.
+ *
+ * The generator is seeded, so every benchmark run scores the same cohort.
+ */
+public final class CohortGenerator {
+
+    static final String[] SPECIALTIES = {
+            "Nursing", "Medicine", "Pediatrics", "General", "Surgery", "Cardiology", "Oncology",
+            "Neurology", "Psychiatry", "Emergency Medicine", "Family Practice", "Internal Medicine",
+            "Obstetrics", "Gynecology", "Orthopedics", "Dermatology", "Radiology", "Anesthesiology",
+            "Geriatrics", "Neonatology", "Critical Care", "Infectious Disease", "Endocrinology",
+            "Nephrology", "Pulmonology", "Rheumatology", "Urology", "Gastroenterology",
+            "Palliative Care", "Public Health"
+    };
+    static final String[] AVAILABILITY = {"Full-time", "Part-time", "Weekends", "Evenings"};
+    static final String[] POPULATIONS = {"Children", "Adults", "Elderly", "Women", "Veterans", "other"};
+    static final String[] SKILLS = {
+            "CPR Certified", "First Aid", "Surgical Assistance", "Phlebotomy", "IV Therapy",
+            "Wound Care", "Bilingual", "other"
+    };
+    static final String[] ACADEMIC_YEARS = {"First Year", "Second Year", "Third Year", "Fourth Year"};
+    static final String[] EDUCATION_LEVELS = {"Undergraduate", "Graduate", "Doctoral", "Postdoctoral"};
+    static final String[] PROGRAMS = {"Nursing", "Medicine", "Physician Assistant", "Pharmacy", "other"};
+    static final String[] RESTRICTIONS = {"No", "No", "No", "Yes", "other"};
+    static final String[] OTHER_TEXT = {
+            "Requires supervision", "Telehealth only", "Rural clinic", "Spanish speaking patients",
+            "Sports medicine", "Community outreach", "Research focus"
+    };
+
+    private static final LocalDate FIRST_START = LocalDate.of(2025, 1, 1);
+
+    private final Random random;
+
+    /**
+     * @param seed seed of the generator, the same seed always produces the same cohort
+     */
+    public CohortGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param count number of students to create
+     * @return students with ids ST0, ST1, ...
+     */
+    public List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student("ST" + i, "Student " + i);
+            fill(student::setFieldValue);
+            students.add(student);
+        }
+        return students;
+    }
+
+    /**
+     * @param count number of preceptors to create
+     * @return preceptors with ids PR0, PR1, ...
+     */
+    public List<Preceptor> preceptors(int count) {
+        List<Preceptor> preceptors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Preceptor preceptor = new Preceptor("PR" + i, "Dr. Preceptor " + i);
+            fill(preceptor::setFieldValue);
+            preceptors.add(preceptor);
+        }
+        return preceptors;
+    }
+
+    /**
+     * @param length number of chars
+     * @return random lowercase words separated by spaces
+     */
+    public String text(int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * @param text text to change
+     * @param edits number of single char substitutions
+     * @return a copy of the text with a few chars replaced
+     */
+    public String typo(String text, int edits) {
+        if (text.isEmpty()) return text;
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < edits; i++) {
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private interface FieldSetter {
+        void set(String fieldName, Object value);
+    }
+
+    private void fill(FieldSetter record) {
+        LocalDate startDate = FIRST_START.plusDays(random.nextInt(365));
+
+        record.set("specialtyEntering", pick(SPECIALTIES));
+        record.set("specialtyInterest", sometimesMisspelled(pick(SPECIALTIES)));
+        record.set("startDate", startDate);
+        record.set("endDate", startDate.plusDays(60 + random.nextInt(60)));
+        record.set("availability", pick(AVAILABILITY));
+        String population = pick(POPULATIONS);
+        record.set("interestPopulations", population);
+        String skill = pick(SKILLS);
+        record.set("specialSkills", skill);
+        record.set("academicYear", pick(ACADEMIC_YEARS));
+        record.set("educationLevel", pick(EDUCATION_LEVELS));
+        String program = pick(PROGRAMS);
+        record.set("educationalProgram", program);
+        String restriction = pick(RESTRICTIONS);
+        record.set("providerRestrictions", restriction);
+
+        // "other" answers come with a free text explanation, like the intake form
+        if (skill.equals("other")) record.set("otherSpecialty", pick(OTHER_TEXT));
+        if (population.equals("other")) record.set("otherPopulation", pick(OTHER_TEXT));
+        if (program.equals("other")) record.set("otherLearner", pick(OTHER_TEXT));
+        if (restriction.equals("Yes") || restriction.equals("other")) {
+            record.set("otherProvider", sometimesMisspelled(pick(OTHER_TEXT)));
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String sometimesMisspelled(String value) {
+        return random.nextInt(10) == 0 ? typo(value, 1) : value;
+    }
+}
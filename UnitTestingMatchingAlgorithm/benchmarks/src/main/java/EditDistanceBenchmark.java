@@ -0,0 +1,62 @@
+package UnitTestingMatchingAlgorithm.benchmarks.src.main.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.EditDistance;
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Levenshtein kernel and the text similarity built on it.
+ *
+ * Short strings are the size of a form answer ("Third Year"), long strings the size of a free
+ * text explanation. Each pair differs by a few substitutions, like a typo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EditDistanceBenchmark {
+
+    @Param({"12", "48", "200"})
+    private int length;
+
+    private String text;
+    private String typo;
+    private String mixedCase;
+
+    @Setup
+    public void setup() {
+        CohortGenerator generator = new CohortGenerator(42L);
+        text = generator.text(length);
+        typo = generator.typo(text, Math.max(1, length / 10));
+        mixedCase = typo.toUpperCase();
+    }
+
+    @Benchmark
+    public int levenshteinDistance() {
+        return EditDistance.distance(text, typo);
+    }
+
+    @Benchmark
+    public int levenshteinDistanceBounded() {
+        return EditDistance.distance(text, typo, length / 20);
+    }
+
+    @Benchmark
+    public double calculateTextSimilarity() {
+        return FuzzyMatchingAlgorithm.calculateTextSimilarity(text, mixedCase);
+    }
+}
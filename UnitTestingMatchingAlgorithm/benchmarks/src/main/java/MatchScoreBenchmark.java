@@ -0,0 +1,67 @@
+package UnitTestingMatchingAlgorithm.benchmarks.src.main.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks scoring one student, against a single preceptor and against a whole pool.
+ *
+ * The single pair score builds a one-row pool every call, so it measures the cost of an ad hoc
+ * lookup. The pool score measures the column scan a matching run performs per student.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchScoreBenchmark {
+
+    @Param({"1000", "5000"})
+    private int preceptorCount;
+
+    private List<Student> students;
+    private PreceptorPool pool;
+    private Preceptor preceptor;
+    private int next;
+
+    @Setup
+    public void setup() {
+        CohortGenerator generator = new CohortGenerator(7L);
+        students = generator.students(256);
+        pool = new PreceptorPool(generator.preceptors(preceptorCount));
+        preceptor = pool.getPreceptor(0);
+    }
+
+    private Student nextStudent() {
+        Student student = students.get(next);
+        next = (next + 1) & 255;
+        return student;
+    }
+
+    @Benchmark
+    public double calculateMatchScore() {
+        return FuzzyMatchingAlgorithm.calculateMatchScore(nextStudent(), preceptor);
+    }
+
+    @Benchmark
+    public double[] calculateMatchScores() {
+        return FuzzyMatchingAlgorithm.calculateMatchScores(nextStudent(), pool);
+    }
+}
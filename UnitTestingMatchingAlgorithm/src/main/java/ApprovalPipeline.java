@@ -0,0 +1,239 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApprovalPipeline writes approved matches asynchronously, coalescing approvals submitted from any
+ * number of threads into batches.
+ *
+ * This class encapsulates:
+ * - A bounded queue of approved students waiting to be written; submitting blocks while it is
+ *   full, so producers slow down to the pace of the sink
+ * - One writer thread that takes whatever is queued, up to the batch size (200 by default, the
+ *   Salesforce DML chunk), and writes it with a single sink call
+ * - Retries of batches whose sink call throws an exception, with a delay growing by attempt
+ * - A future per approval, completed with the written student or with the last failure
+ *
+ * Batches form on their own: approvals arriving while a batch is being written are queued and go
+ * out together in the next one. Approvals are written in submission order. Writes go through
+ * the StudentUpdateSink of the config, or are reported to its tracer when no sink is set, like
+ * FuzzyMatchingAlgorithm.approveMatch.
+ *
+ * If the writer stops early, because it was interrupted or the sink threw an Error, the pipeline
+ * closes itself: the batch being written and every queued approval fail, and later submissions
+ * are rejected instead of waiting for a writer that is gone.
+ */
+public class ApprovalPipeline implements AutoCloseable {
+
+    /**
+     * Records per Salesforce DML statement.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 200;
+
+    private static final long POLL_MILLIS = 50;
+
+    private final MatchingConfig config;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final BlockingQueue<Pending> queue;
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pipeline writing batches of 200 with up to 3 attempts each.
+     *
+     * @param config settings providing the sink and tracer
+     */
+    public ApprovalPipeline(MatchingConfig config) {
+        this(config, DEFAULT_BATCH_SIZE, 10 * DEFAULT_BATCH_SIZE, 3, 100);
+    }
+
+    /**
+     * @param config settings providing the sink and tracer
+     * @param batchSize maximum number of students per sink call
+     * @param maxPending number of approvals that can wait before submit blocks
+     * @param maxAttempts attempts per batch before its approvals fail
+     * @param retryDelayMillis wait before the second attempt, multiplied by the attempt number after
+     */
+    public ApprovalPipeline(MatchingConfig config, int batchSize, int maxPending, int maxAttempts,
+                            long retryDelayMillis) {
+        if (batchSize < 1 || maxPending < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("batchSize, maxPending and maxAttempts must be at least 1");
+        }
+        this.config = config;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.writer = new Thread(this::run, "approval-pipeline");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues one approval, waiting while the queue is full.
+     *
+     * @param request approval to write
+     * @return future completed with the written student record
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     * @throws IllegalStateException if the pipeline is closed, or its writer has stopped
+     */
+    public CompletableFuture<Student> submit(FuzzyMatchingAlgorithm.ApproveMatchRequest request)
+            throws InterruptedException {
+        return enqueue(new Pending(FuzzyMatchingAlgorithm.approvedStudent(request)));
+    }
+
+    private CompletableFuture<Student> enqueue(Pending pending) throws InterruptedException {
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("ApprovalPipeline is closed");
+            }
+            queue.put(pending);
+            return pending.future;
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues several approvals in order.
+     *
+     * @param requests approvals to write
+     * @return one future per request, in the same order
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    public List<CompletableFuture<Student>> submitAll(List<FuzzyMatchingAlgorithm.ApproveMatchRequest> requests)
+            throws InterruptedException {
+        List<CompletableFuture<Student>> futures = new ArrayList<>();
+        for (FuzzyMatchingAlgorithm.ApproveMatchRequest request : requests) {
+            futures.add(submit(request));
+        }
+        return futures;
+    }
+
+    /**
+     * Queues a marker behind every approval submitted so far.
+     *
+     * @return future completed once every approval submitted before this call was written or
+     *         failed
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    public CompletableFuture<Void> flush() throws InterruptedException {
+        return enqueue(new Pending(null)).thenApply(student -> null);
+    }
+
+    /**
+     * Stops accepting approvals and waits until the queued ones are written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Throwable stopped;
+        try {
+            while (true) {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && submitting.get() == 0 && queue.isEmpty()) return;
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            stopped = new IllegalStateException("ApprovalPipeline writer was interrupted");
+        } catch (Throwable e) {
+            // an Error from the sink is not worth retrying, and the writer cannot go on after it
+            config.getTracer().event("ApprovalPipeline writer stopped: " + e);
+            stopped = new IllegalStateException("ApprovalPipeline writer stopped", e);
+        }
+        failRemaining(batch, stopped);
+    }
+
+    /**
+     * Closes the pipeline and fails the batch in hand and everything still queued. Nothing else
+     * will drain the queue, so this keeps draining until no submitter that got past the closed
+     * check is left.
+     */
+    private void failRemaining(List<Pending> batch, Throwable failure) {
+        closed = true;
+        while (true) {
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(failure);
+            }
+            batch.clear();
+            if (queue.drainTo(batch) > 0) continue;
+            if (submitting.get() == 0 && queue.isEmpty()) return;
+            Thread.yield();
+        }
+    }
+
+    private void write(List<Pending> batch) throws InterruptedException {
+        List<Student> students = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.student != null) students.add(pending.student);
+        }
+        if (!students.isEmpty()) {
+            writeStudents(batch, students);
+        }
+        // flush markers complete once everything queued before them is done
+        for (Pending pending : batch) {
+            if (pending.student == null) pending.future.complete(null);
+        }
+    }
+
+    private void writeStudents(List<Pending> batch, List<Student> students) throws InterruptedException {
+        Throwable failure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                FuzzyMatchingAlgorithm.updateStudents(students, config);
+                for (Pending pending : batch) {
+                    if (pending.student != null) pending.future.complete(pending.student);
+                }
+                return;
+            } catch (RuntimeException e) {
+                failure = e;
+                config.getTracer().event("Update of " + students.size() + " students failed on attempt "
+                        + attempt + " of " + maxAttempts + ": " + e.getMessage());
+            }
+            if (attempt < maxAttempts) {
+                Thread.sleep(retryDelayMillis * attempt);
+            }
+        }
+        for (Pending pending : batch) {
+            if (pending.student != null) pending.future.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * An approved student waiting to be written, with the future handed to the submitter. A null
+     * student marks a flush.
+     */
+    private static final class Pending {
+        private final Student student;
+        private final CompletableFuture<Student> future = new CompletableFuture<>();
+
+        private Pending(Student student) {
+            this.student = student;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * AvailabilityIndex answers date window queries over the preceptors of a pool.
+ *
+ * This class encapsulates:
+ * - A centered interval tree over the [start, end] window of every preceptor, stored in flat
+ *   arrays, for overlap queries in O(log P + k)
+ * - The window starts in sorted order, for range queries on the start date
+ * - The rows missing a start or end date, which no query returns
+ *
+ * Windows are inclusive epoch days on both ends. Query results are pool rows in ascending order.
+ * The index is immutable once built and can be queried from several threads at once.
+ */
+public final class AvailabilityIndex {
+
+    private final int size;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] missingRows;
+
+    // tree nodes: the center day, the children (-1 for none) and the range of the node's
+    // intervals in byStart and byEnd
+    private final int[] nodeCenter;
+    private final int[] nodeLeft;
+    private final int[] nodeRight;
+    private final int[] nodeFrom;
+    private final int[] nodeTo;
+    private final int root;
+
+    // rows of every node's intervals, by ascending start and by descending end
+    private final int[] byStart;
+    private final int[] byEnd;
+
+    // every dated row, by ascending start
+    private final int[] sortedStarts;
+    private final int[] rowsByStart;
+
+    private int nodeCount;
+    private int intervalCount;
+    private int depth;
+
+    /**
+     * Indexes the startDate/endDate window of every preceptor in the pool.
+     *
+     * @param pool pool to index
+     */
+    public AvailabilityIndex(PreceptorPool pool) {
+        this(pool, "startDate", "endDate");
+    }
+
+    /**
+     * Indexes the window between two date fields of every preceptor in the pool.
+     *
+     * @param pool pool to index
+     * @param startField date field holding the first day of the window
+     * @param endField date field holding the last day of the window
+     */
+    public AvailabilityIndex(PreceptorPool pool, String startField, String endField) {
+        this(days(pool, startField), days(pool, endField));
+    }
+
+    /**
+     * @param starts first epoch day of each row's window, FieldLayout.NO_DATE if missing
+     * @param ends last epoch day of each row's window, FieldLayout.NO_DATE if missing
+     */
+    AvailabilityIndex(int[] starts, int[] ends) {
+        this.size = starts.length;
+        this.starts = new int[size];
+        this.ends = new int[size];
+
+        int present = 0;
+        for (int row = 0; row < size; row++) {
+            if (starts[row] != FieldLayout.NO_DATE && ends[row] != FieldLayout.NO_DATE) present++;
+        }
+        int[] dated = new int[present];
+        this.missingRows = new int[size - present];
+        int missing = 0;
+        present = 0;
+        for (int row = 0; row < size; row++) {
+            if (starts[row] == FieldLayout.NO_DATE || ends[row] == FieldLayout.NO_DATE) {
+                missingRows[missing++] = row;
+                this.starts[row] = FieldLayout.NO_DATE;
+                this.ends[row] = FieldLayout.NO_DATE;
+            } else {
+                // a window entered backwards still covers the days between its dates
+                this.starts[row] = Math.min(starts[row], ends[row]);
+                this.ends[row] = Math.max(starts[row], ends[row]);
+                dated[present++] = row;
+            }
+        }
+
+        this.rowsByStart = sortRows(dated, this.starts, false);
+        this.sortedStarts = new int[present];
+        for (int i = 0; i < present; i++) {
+            sortedStarts[i] = this.starts[rowsByStart[i]];
+        }
+
+        // every interval lands in exactly one node and every node holds at least one interval
+        this.nodeCenter = new int[present];
+        this.nodeLeft = new int[present];
+        this.nodeRight = new int[present];
+        this.nodeFrom = new int[present];
+        this.nodeTo = new int[present];
+        this.byStart = new int[present];
+        this.byEnd = new int[present];
+        this.root = build(rowsByStart, 1);
+    }
+
+    private static int[] days(PreceptorPool pool, String field) {
+        int slot = FieldLayout.dateSlot(field);
+        int[] days = new int[pool.size()];
+        for (int row = 0; row < days.length; row++) {
+            Preceptor preceptor = pool.getPreceptor(row);
+            if (slot >= 0) {
+                days[row] = preceptor.getFieldValues().epochDay(slot);
+            } else {
+                LocalDate date = (LocalDate) preceptor.getFieldValue(field);
+                days[row] = date != null ? (int) date.toEpochDay() : FieldLayout.NO_DATE;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Sorts rows by their day in keys, ascending or descending, ties by row.
+     */
+    private static int[] sortRows(int[] rows, int[] keys, boolean descending) {
+        // pack (day, row) so one primitive sort orders rows by day
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            long key = descending ? -(long) keys[rows[i]] : keys[rows[i]];
+            packed[i] = (key << 32) | rows[i];
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[i] = (int) packed[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * Builds the subtree holding the given rows, which are sorted by start.
+     *
+     * @return the node index, or -1 for an empty subtree
+     */
+    private int build(int[] rows, int level) {
+        if (rows.length == 0) return -1;
+        depth = Math.max(depth, level);
+
+        // the median start splits the windows roughly in half and lies inside at least one window
+        int center = starts[rows[rows.length / 2]];
+        int leftCount = 0;
+        int rightCount = 0;
+        for (int row : rows) {
+            if (ends[row] < center) leftCount++;
+            else if (starts[row] > center) rightCount++;
+        }
+        int[] left = new int[leftCount];
+        int[] right = new int[rightCount];
+        int[] here = new int[rows.length - leftCount - rightCount];
+        leftCount = 0;
+        rightCount = 0;
+        int hereCount = 0;
+        for (int row : rows) {
+            if (ends[row] < center) left[leftCount++] = row;
+            else if (starts[row] > center) right[rightCount++] = row;
+            else here[hereCount++] = row;
+        }
+
+        int node = nodeCount++;
+        nodeCenter[node] = center;
+        nodeFrom[node] = intervalCount;
+        nodeTo[node] = intervalCount + here.length;
+        System.arraycopy(here, 0, byStart, intervalCount, here.length);
+        System.arraycopy(sortRows(here, ends, true), 0, byEnd, intervalCount, here.length);
+        intervalCount += here.length;
+
+        nodeLeft[node] = build(left, level + 1);
+        nodeRight[node] = build(right, level + 1);
+        return node;
+    }
+
+    /**
+     * @return number of rows in the indexed pool
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the preceptors available on at least one day of [start, end].
+     *
+     * @param start first day of the query window, inclusive
+     * @param end last day of the query window, inclusive
+     * @return pool rows whose window overlaps the query window, ascending
+     */
+    public int[] overlapping(LocalDate start, LocalDate end) {
+        return overlapping(start.toEpochDay(), end.toEpochDay());
+    }
+
+    /**
+     * Finds the preceptors available on the given day.
+     *
+     * @param day
+     * @return pool rows whose window contains the day, ascending
+     */
+    public int[] availableOn(LocalDate day) {
+        return overlapping(day.toEpochDay(), day.toEpochDay());
+    }
+
+    /**
+     * Finds the preceptors whose window starts within [from, to].
+     *
+     * @param from earliest start day, inclusive
+     * @param to latest start day, inclusive
+     * @return pool rows whose window starts in the range, ascending
+     */
+    public int[] startingBetween(LocalDate from, LocalDate to) {
+        int first = lowerBound(sortedStarts, from.toEpochDay());
+        int last = lowerBound(sortedStarts, to.toEpochDay() + 1);
+        if (last <= first) return new int[0];
+        int[] rows = Arrays.copyOfRange(rowsByStart, first, last);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /**
+     * @return pool rows missing a start or end date, ascending
+     */
+    public int[] missingRows() {
+        return missingRows.clone();
+    }
+
+    private int[] overlapping(long start, long end) {
+        if (end < start) return new int[0];
+        int[] rows = new int[size - missingRows.length];
+        int count = collect(start, end, rows);
+        rows = Arrays.copyOf(rows, count);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /**
+     * Writes the rows whose window overlaps [start, end] into out, in no particular order.
+     *
+     * @param start first day of the query window, inclusive
+     * @param end last day of the query window, inclusive, not before start
+     * @param out receives the rows, at least as long as the number of dated rows
+     * @return number of rows written
+     */
+    int collect(long start, long end, int[] out) {
+        int count = 0;
+        // each level leaves at most one sibling behind, and both halves hold at most half the
+        // windows, so the stack stays logarithmic
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        if (root >= 0) stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            int center = nodeCenter[node];
+            if (end < center) {
+                // every window here reaches the center, so it overlaps if it starts in time
+                for (int i = nodeFrom[node]; i < nodeTo[node] && starts[byStart[i]] <= end; i++) {
+                    out[count++] = byStart[i];
+                }
+                if (nodeLeft[node] >= 0) stack[top++] = nodeLeft[node];
+            } else if (start > center) {
+                // every window here starts by the center, so it overlaps if it ends late enough
+                for (int i = nodeFrom[node]; i < nodeTo[node] && ends[byEnd[i]] >= start; i++) {
+                    out[count++] = byEnd[i];
+                }
+                if (nodeRight[node] >= 0) stack[top++] = nodeRight[node];
+            } else {
+                // the query covers the center, which every window here contains
+                for (int i = nodeFrom[node]; i < nodeTo[node]; i++) {
+                    out[count++] = byStart[i];
+                }
+                if (nodeLeft[node] >= 0) stack[top++] = nodeLeft[node];
+                if (nodeRight[node] >= 0) stack[top++] = nodeRight[node];
+            }
+        }
+        return count;
+    }
+
+    private static int lowerBound(int[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,55 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BlockingStats counts how many student-preceptor pairs the blocking stage saved from scoring.
+ *
+ * Counters are updated concurrently by parallel runs and can be read or reset at any time.
+ */
+public class BlockingStats {
+    private final LongAdder pairs = new LongAdder();
+    private final LongAdder scoredPairs = new LongAdder();
+
+    void record(int poolSize, int scored) {
+        pairs.add(poolSize);
+        scoredPairs.add(scored);
+    }
+
+    /**
+     * @return number of pairs the blocking stage looked at
+     */
+    public long getPairCount() {
+        return pairs.sum();
+    }
+
+    /**
+     * @return number of pairs that were actually scored
+     */
+    public long getScoredPairCount() {
+        return scoredPairs.sum();
+    }
+
+    /**
+     * @return number of pairs skipped because they could not reach the minimum score
+     */
+    public long getPrunedPairCount() {
+        return pairs.sum() - scoredPairs.sum();
+    }
+
+    /**
+     * @return pruned pairs divided by pairs, 0 when nothing was looked at yet
+     */
+    public double getPruningRatio() {
+        long total = pairs.sum();
+        return total == 0 ? 0 : (double) (total - scoredPairs.sum()) / total;
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    public void reset() {
+        pairs.reset();
+        scoredPairs.reset();
+    }
+}
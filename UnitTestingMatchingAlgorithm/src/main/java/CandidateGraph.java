@@ -0,0 +1,144 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CandidateGraph is the sparse student-preceptor graph of a matching cycle, in int arrays.
+ *
+ * This class encapsulates:
+ * - Students and preceptors numbered from 0, with their ids
+ * - Each student's candidate preceptors in one edge array, addressed by per-student offsets
+ *   (compressed sparse rows), in the order of the student's match list
+ * - The score of every edge, as given and in integer tenths
+ * - The capacity of every preceptor
+ *
+ * The cohort-wide assignment engines work on this graph so their inner loops only touch
+ * primitive arrays.
+ */
+final class CandidateGraph {
+    private final String[] studentIds;
+    private final String[] preceptorIds;
+    private final Map<String, Integer> preceptorIndex;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] scores;
+    private final int[] tenths;
+    private final int[] capacities;
+
+    /**
+     * @param results ranked matches of each student, as returned by calculateMatches
+     * @param capacities students each preceptor can take, by preceptor id
+     * @param defaultCapacity capacity of preceptors missing from capacities
+     */
+    CandidateGraph(List<FuzzyMatchingAlgorithm.MatchResult> results, Map<String, Integer> capacities,
+                   int defaultCapacity) {
+        if (defaultCapacity < 0) {
+            throw new IllegalArgumentException("defaultCapacity must not be negative");
+        }
+        this.preceptorIndex = new HashMap<>();
+        List<String> preceptors = new ArrayList<>();
+        int edgeCount = 0;
+        for (FuzzyMatchingAlgorithm.MatchResult result : results) {
+            edgeCount += result.getMatches().size();
+        }
+
+        this.studentIds = new String[results.size()];
+        this.offsets = new int[results.size() + 1];
+        int[] targets = new int[edgeCount];
+        double[] scores = new double[edgeCount];
+        // student + 1 that last listed each preceptor, to drop duplicate pairs
+        int[] listedBy = new int[16];
+        int edges = 0;
+        for (int s = 0; s < results.size(); s++) {
+            FuzzyMatchingAlgorithm.MatchResult result = results.get(s);
+            studentIds[s] = result.getStudentId();
+            for (FuzzyMatchingAlgorithm.PreceptorMatch match : result.getMatches()) {
+                Integer p = preceptorIndex.get(match.getPreceptorId());
+                if (p == null) {
+                    p = preceptors.size();
+                    preceptorIndex.put(match.getPreceptorId(), p);
+                    preceptors.add(match.getPreceptorId());
+                    if (p == listedBy.length) listedBy = Arrays.copyOf(listedBy, p * 2);
+                }
+                // a preceptor listed twice for one student keeps its first score
+                if (listedBy[p] != s + 1) {
+                    listedBy[p] = s + 1;
+                    targets[edges] = p;
+                    scores[edges] = match.getScore();
+                    edges++;
+                }
+            }
+            offsets[s + 1] = edges;
+        }
+
+        this.targets = Arrays.copyOf(targets, edges);
+        this.scores = Arrays.copyOf(scores, edges);
+        this.tenths = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            tenths[e] = (int) Math.round(scores[e] * 10);
+        }
+        this.preceptorIds = preceptors.toArray(new String[0]);
+        this.capacities = new int[preceptorIds.length];
+        for (int p = 0; p < preceptorIds.length; p++) {
+            Integer capacity = capacities != null ? capacities.get(preceptorIds[p]) : null;
+            if (capacity != null && capacity < 0) {
+                throw new IllegalArgumentException("capacity of " + preceptorIds[p] + " must not be negative");
+            }
+            this.capacities[p] = capacity != null ? capacity : defaultCapacity;
+        }
+    }
+
+    int studentCount() {
+        return studentIds.length;
+    }
+
+    int preceptorCount() {
+        return preceptorIds.length;
+    }
+
+    String studentId(int student) {
+        return studentIds[student];
+    }
+
+    String preceptorId(int preceptor) {
+        return preceptorIds[preceptor];
+    }
+
+    /**
+     * @return number of the preceptor with the given id, or -1 if no student lists it
+     */
+    int preceptorIndex(String preceptorId) {
+        Integer preceptor = preceptorIndex.get(preceptorId);
+        return preceptor != null ? preceptor : -1;
+    }
+
+    /**
+     * @return first edge of the student, edges run up to edgeStart(student + 1)
+     */
+    int edgeStart(int student) {
+        return offsets[student];
+    }
+
+    int target(int edge) {
+        return targets[edge];
+    }
+
+    double score(int edge) {
+        return scores[edge];
+    }
+
+    /**
+     * @return score of the edge in tenths, exact for scores rounded to one decimal
+     */
+    int tenths(int edge) {
+        return tenths[edge];
+    }
+
+    int capacity(int preceptor) {
+        return capacities[preceptor];
+    }
+}
@@ -0,0 +1,267 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.Arrays;
+
+/**
+ * CandidateIndex finds the pool rows a student could possibly match above a minimum score, so
+ * the rest of the pool never has to be scored.
+ *
+ * This class encapsulates:
+ * - An inverted index per picklist field, listing the rows holding each dictionary code
+ * - The rows missing each picklist or date field, which are always candidates
+ * - The rows of each date field sorted by epoch day, for window lookups
+ * - An AvailabilityIndex per date range field, for overlap lookups
+ *
+ * Pruning relies on an upper bound of the final score. Fields the index does not look at (text
+ * and multi-select picklists) are assumed to be perfect matches, which can only raise the
+ * weighted average because every similarity is at most 100. A row is dropped only when even that
+ * bound, after the +5 adjustment and rounding, stays below the minimum score, so the matches
+ * returned are exactly those of a full scan.
+ */
+final class CandidateIndex {
+
+    private final PreceptorPool pool;
+    private final int[][][] postings;
+    private final int[][] missingRows;
+    private final int[][] rowsByDay;
+    private final int[][] sortedDays;
+    private final AvailabilityIndex[] windows;
+
+    CandidateIndex(PreceptorPool pool) {
+        this.pool = pool;
+        ScoringSchema schema = pool.getSchema();
+        int fieldCount = schema.size();
+        this.postings = new int[fieldCount][][];
+        this.missingRows = new int[fieldCount][];
+        this.rowsByDay = new int[fieldCount][];
+        this.sortedDays = new int[fieldCount][];
+        this.windows = new AvailabilityIndex[fieldCount];
+
+        for (int f = 0; f < fieldCount; f++) {
+            switch (schema.getField(f).getType()) {
+                case PICKLIST:
+                    indexCodes(f);
+                    break;
+                case DATE:
+                    indexDays(f);
+                    break;
+                case DATE_RANGE:
+                    windows[f] = new AvailabilityIndex(pool.dayColumn(f), pool.endDayColumn(f));
+                    missingRows[f] = windows[f].missingRows();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void indexCodes(int field) {
+        int[] column = pool.codeColumn(field);
+        int[] counts = new int[pool.dictionary(field).size()];
+        int missing = 0;
+        for (int code : column) {
+            if (code == PreceptorPool.NO_VALUE) missing++;
+            else counts[code]++;
+        }
+
+        int[][] lists = new int[counts.length][];
+        for (int code = 0; code < counts.length; code++) {
+            lists[code] = new int[counts[code]];
+        }
+        int[] missingList = new int[missing];
+        int[] filled = new int[counts.length];
+        missing = 0;
+        for (int row = 0; row < column.length; row++) {
+            int code = column[row];
+            if (code == PreceptorPool.NO_VALUE) missingList[missing++] = row;
+            else lists[code][filled[code]++] = row;
+        }
+        postings[field] = lists;
+        missingRows[field] = missingList;
+    }
+
+    private void indexDays(int field) {
+        int[] column = pool.dayColumn(field);
+        // pack (day, row) so one primitive sort orders rows by day
+        long[] packed = new long[column.length];
+        int present = 0;
+        int missing = 0;
+        for (int row = 0; row < column.length; row++) {
+            if (column[row] == FieldLayout.NO_DATE) missing++;
+            else packed[present++] = ((long) column[row] << 32) | row;
+        }
+        Arrays.sort(packed, 0, present);
+
+        int[] rows = new int[present];
+        int[] days = new int[present];
+        for (int i = 0; i < present; i++) {
+            rows[i] = (int) packed[i];
+            days[i] = (int) (packed[i] >> 32);
+        }
+        int[] missingList = new int[missing];
+        missing = 0;
+        for (int row = 0; row < column.length; row++) {
+            if (column[row] == FieldLayout.NO_DATE) missingList[missing++] = row;
+        }
+        rowsByDay[field] = rows;
+        sortedDays[field] = days;
+        missingRows[field] = missingList;
+    }
+
+    /**
+     * Writes the rows that could reach minimumScore for the probe's student into out, in
+     * ascending order.
+     *
+     * Candidates are the rows sharing a picklist answer with the student, the rows missing an
+     * indexed field, the rows whose dates fall in a window wide enough to reach the minimum on
+     * dates alone, and the rows whose availability overlaps the student's rotation. Each candidate is then checked against its own upper bound.
+     *
+     * @param probe student compiled against the pool this index was built for
+     * @param minimumScore lowest score the caller keeps
+     * @param out receives the candidate rows, at least pool.size() long
+     * @return number of rows written
+     */
+    int candidates(StudentProbe probe, double minimumScore, int[] out) {
+        ScoringSchema schema = pool.getSchema();
+        int size = pool.size();
+
+        double picklistWeight = 0;
+        double dateWeight = 0;
+        double unindexedWeight = 0;
+        for (int f = 0; f < schema.size(); f++) {
+            if (!probe.isActive(f)) continue;
+            int weight = schema.getField(f).getWeight();
+            switch (schema.getField(f).getType()) {
+                case PICKLIST:
+                    picklistWeight += weight;
+                    break;
+                case DATE:
+                case DATE_RANGE:
+                    dateWeight += weight;
+                    break;
+                default:
+                    unindexedWeight += weight;
+            }
+        }
+
+        // a row matching no picklist answer with the worst possible dates must already fail,
+        // otherwise every row is a candidate
+        double possible = picklistWeight + dateWeight + unindexedWeight;
+        if (possible == 0 || StudentProbe.canReach(unindexedWeight / possible, minimumScore)) {
+            return allRows(out);
+        }
+
+        long[] marked = new long[(size + 63) >>> 6];
+        for (int f = 0; f < schema.size(); f++) {
+            if (!probe.isActive(f)) continue;
+            ScoringSchema.FieldType type = schema.getField(f).getType();
+            if (type == ScoringSchema.FieldType.PICKLIST) {
+                int code = probe.code(f);
+                if (code != PreceptorPool.NO_VALUE) mark(marked, postings[f][code], 0, postings[f][code].length);
+                mark(marked, missingRows[f], 0, missingRows[f].length);
+            } else if (type == ScoringSchema.FieldType.DATE || type == ScoringSchema.FieldType.DATE_RANGE) {
+                mark(marked, missingRows[f], 0, missingRows[f].length);
+            }
+        }
+
+        if (dateWeight > 0) {
+            // largest date similarity at which a row with no picklist match still fails
+            double low = 0;
+            double high = 100;
+            for (int i = 0; i < 40; i++) {
+                double mid = (low + high) / 2;
+                if (StudentProbe.canReach((dateWeight * mid / 100 + unindexedWeight) / possible, minimumScore)) high = mid;
+                else low = mid;
+            }
+            // rows closer than this many days have a similarity of at least low
+            long window = (long) Math.ceil((100 - low) * 365 / 100) + 1;
+            for (int f = 0; f < schema.size(); f++) {
+                if (!probe.isActive(f) || schema.getField(f).getType() != ScoringSchema.FieldType.DATE) continue;
+                int[] days = sortedDays[f];
+                long day = probe.day(f);
+                int from = lowerBound(days, day - window);
+                int to = lowerBound(days, day + window + 1);
+                mark(marked, rowsByDay[f], from, to);
+            }
+            // windows that do not overlap the rotation score 0, which is at most low
+            int[] overlapping = null;
+            for (int f = 0; f < schema.size(); f++) {
+                if (!probe.isActive(f) || windows[f] == null) continue;
+                if (overlapping == null) overlapping = new int[size];
+                int count = windows[f].collect(probe.day(f), probe.endDay(f), overlapping);
+                mark(marked, overlapping, 0, count);
+            }
+        }
+
+        int count = 0;
+        for (int word = 0; word < marked.length; word++) {
+            long bits = marked[word];
+            while (bits != 0) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (rowReaches(probe, row, unindexedWeight, minimumScore)) {
+                    out[count++] = row;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int allRows(int[] out) {
+        for (int row = 0; row < pool.size(); row++) {
+            out[row] = row;
+        }
+        return pool.size();
+    }
+
+    private static void mark(long[] marked, int[] rows, int from, int to) {
+        for (int i = from; i < to; i++) {
+            marked[rows[i] >>> 6] |= 1L << rows[i];
+        }
+    }
+
+    private static int lowerBound(int[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Upper bound of one row: exact picklist, date and date range contributions, perfect
+     * unindexed fields.
+     */
+    private boolean rowReaches(StudentProbe probe, int row, double unindexedWeight, double minimumScore) {
+        ScoringSchema schema = pool.getSchema();
+        double weighted = unindexedWeight;
+        double possible = unindexedWeight;
+        for (int f = 0; f < schema.size(); f++) {
+            if (!probe.isActive(f)) continue;
+            ScoringSchema.Field field = schema.getField(f);
+            if (field.getType() == ScoringSchema.FieldType.PICKLIST) {
+                int code = pool.codeColumn(f)[row];
+                if (code == PreceptorPool.NO_VALUE) continue;
+                possible += field.getWeight();
+                if (code == probe.code(f)) weighted += field.getWeight();
+            } else if (field.getType() == ScoringSchema.FieldType.DATE) {
+                int day = pool.dayColumn(f)[row];
+                if (day == FieldLayout.NO_DATE) continue;
+                long daysDiff = Math.abs((long) probe.day(f) - day);
+                possible += field.getWeight();
+                weighted += Math.max(0, 100 - ((daysDiff * 100.0) / 365)) / 100 * field.getWeight();
+            } else if (field.getType() == ScoringSchema.FieldType.DATE_RANGE) {
+                int start = pool.dayColumn(f)[row];
+                if (start == FieldLayout.NO_DATE) continue;
+                possible += field.getWeight();
+                weighted += StudentProbe.overlapSimilarity(
+                        probe.day(f), probe.endDay(f), start, pool.endDayColumn(f)[row]) / 100 * field.getWeight();
+            }
+        }
+        if (possible == 0) return 0 >= minimumScore;
+        return StudentProbe.canReach(weighted / possible, minimumScore);
+    }
+}
@@ -0,0 +1,256 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CohortAssignment assigns a whole cohort of students to preceptors at once, maximizing the total
+ * match score while no preceptor takes more students than its capacity.
+ *
+ * This class encapsulates:
+ * - The candidate graph of the cohort, built from the ranked lists of calculateMatches, so only
+ *   pairs that passed the minimum score can be assigned
+ * - A min-cost flow over that graph, solved by successive shortest paths: students are added one
+ *   at a time and each is routed along the cheapest augmenting path, which may move earlier
+ *   students to other preceptors
+ * - Node potentials that keep every reduced cost non-negative, so each path is found by a
+ *   Dijkstra search that stops as soon as it reaches a free seat
+ *
+ * Scores are compared in integer tenths, which is exact for the one decimal scores the matcher
+ * returns. A student is left unassigned only when every seat it could take is held by students
+ * that would lose more by moving. The result is a maximum-total-score assignment, one approval
+ * per assigned student, ready for FuzzyMatchingAlgorithm.approveMatch.
+ */
+public final class CohortAssignment {
+    private static final int UNASSIGNED = -1;
+
+    private final CandidateGraph graph;
+    private final int studentCount;
+    private final int sink;
+
+    // potential of every node: students, then preceptors, then the sink
+    private final long[] potential;
+    private final int[] assignedEdge;
+    private final int[][] members;
+    private final int[] load;
+    private final int[] memberSlot;
+
+    // Dijkstra scratch state, valid for the nodes stamped with the current search
+    private final long[] dist;
+    private final int[] predecessor;
+    private final int[] predecessorEdge;
+    private final int[] reached;
+    private final int[] settled;
+    private final int[] settledNodes;
+    private int settledCount;
+    private int search;
+    private long[] heapKeys = new long[64];
+    private int[] heapNodes = new int[64];
+    private int heapSize;
+
+    private CohortAssignment(CandidateGraph graph) {
+        this.graph = graph;
+        this.studentCount = graph.studentCount();
+        int nodeCount = studentCount + graph.preceptorCount() + 1;
+        this.sink = nodeCount - 1;
+
+        this.potential = new long[nodeCount];
+        this.assignedEdge = new int[studentCount];
+        Arrays.fill(assignedEdge, UNASSIGNED);
+        this.members = new int[graph.preceptorCount()][];
+        this.load = new int[graph.preceptorCount()];
+        this.memberSlot = new int[studentCount];
+
+        this.dist = new long[nodeCount];
+        this.predecessor = new int[nodeCount];
+        this.predecessorEdge = new int[nodeCount];
+        this.reached = new int[nodeCount];
+        this.settled = new int[nodeCount];
+        this.settledNodes = new int[nodeCount];
+    }
+
+    /**
+     * Assigns each student to at most one preceptor, every preceptor taking the same number of
+     * students at most.
+     *
+     * @param results ranked matches of each student, as returned by calculateMatches
+     * @param capacity number of students each preceptor can take
+     * @return one approval request per assigned student, in the order of results
+     */
+    public static List<FuzzyMatchingAlgorithm.ApproveMatchRequest> assign(
+            List<FuzzyMatchingAlgorithm.MatchResult> results, int capacity) {
+        return assign(results, Collections.<String, Integer>emptyMap(), capacity);
+    }
+
+    /**
+     * Assigns each student to at most one preceptor, with a capacity per preceptor.
+     *
+     * @param results ranked matches of each student, as returned by calculateMatches
+     * @param capacities number of students each preceptor can take, by preceptor id
+     * @param defaultCapacity capacity of preceptors missing from capacities
+     * @return one approval request per assigned student, in the order of results
+     */
+    public static List<FuzzyMatchingAlgorithm.ApproveMatchRequest> assign(
+            List<FuzzyMatchingAlgorithm.MatchResult> results, Map<String, Integer> capacities, int defaultCapacity) {
+        CandidateGraph graph = new CandidateGraph(results, capacities, defaultCapacity);
+        CohortAssignment assignment = new CohortAssignment(graph);
+        for (int student = 0; student < graph.studentCount(); student++) {
+            assignment.augment(student);
+        }
+        return assignment.approvals();
+    }
+
+    private List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals() {
+        List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals = new ArrayList<>();
+        for (int student = 0; student < studentCount; student++) {
+            int edge = assignedEdge[student];
+            if (edge == UNASSIGNED) continue;
+            approvals.add(new FuzzyMatchingAlgorithm.ApproveMatchRequest(
+                    graph.studentId(student), graph.preceptorId(graph.target(edge)), graph.score(edge)));
+        }
+        return approvals;
+    }
+
+    /**
+     * Adds one student to the flow along the cheapest path to a free seat, or to no preceptor.
+     *
+     * Edge costs are negated scores in tenths. Forward edges run from a student to its candidate
+     * preceptors and to the sink (staying unassigned, cost 0), and from a preceptor with a free
+     * seat to the sink. A full preceptor leads back to the students it holds, at the cost of
+     * undoing their assignment.
+     */
+    private void augment(int root) {
+        // start the root at a potential that makes all of its edges non-negative
+        long rootPotential = potential[sink];
+        for (int e = graph.edgeStart(root); e < graph.edgeStart(root + 1); e++) {
+            rootPotential = Math.max(rootPotential, potential[preceptorNode(e)] + graph.tenths(e));
+        }
+        potential[root] = rootPotential;
+
+        search++;
+        settledCount = 0;
+        heapSize = 0;
+        relax(root, 0, -1, -1);
+
+        while (heapSize > 0) {
+            long distance = heapKeys[0];
+            int node = pop();
+            if (settled[node] == search || distance > dist[node]) continue;
+            settled[node] = search;
+            settledNodes[settledCount++] = node;
+            if (node == sink) break;
+
+            if (node < studentCount) {
+                for (int e = graph.edgeStart(node); e < graph.edgeStart(node + 1); e++) {
+                    if (e == assignedEdge[node]) continue;
+                    int preceptor = preceptorNode(e);
+                    relax(preceptor, distance - graph.tenths(e) + potential[node] - potential[preceptor], node, e);
+                }
+                // the root is not in the flow yet and every other student reached here holds a seat,
+                // so both can still give it up
+                relax(sink, distance + potential[node] - potential[sink], node, -1);
+            } else {
+                int p = node - studentCount;
+                if (load[p] < graph.capacity(p)) {
+                    relax(sink, distance + potential[node] - potential[sink], node, -1);
+                }
+                for (int i = 0; i < load[p]; i++) {
+                    int student = members[p][i];
+                    int edge = assignedEdge[student];
+                    relax(student, distance + graph.tenths(edge) + potential[node] - potential[student], node, edge);
+                }
+            }
+        }
+
+        // nodes settled before the sink move closer by the distance they save, which keeps every
+        // residual edge non-negative and the new path edges at zero
+        long sinkDistance = dist[sink];
+        for (int i = 0; i < settledCount; i++) {
+            int node = settledNodes[i];
+            potential[node] -= sinkDistance - dist[node];
+        }
+
+        // walk the path back, moving every student on it to its next node
+        int node = sink;
+        while (node != root) {
+            int previous = predecessor[node];
+            if (previous < studentCount) {
+                move(previous, node == sink ? UNASSIGNED : predecessorEdge[node]);
+            }
+            node = previous;
+        }
+    }
+
+    private int preceptorNode(int edge) {
+        return studentCount + graph.target(edge);
+    }
+
+    private void relax(int node, long distance, int from, int edge) {
+        if (reached[node] == search && dist[node] <= distance) return;
+        reached[node] = search;
+        dist[node] = distance;
+        predecessor[node] = from;
+        predecessorEdge[node] = edge;
+        push(distance, node);
+    }
+
+    private void move(int student, int edge) {
+        int old = assignedEdge[student];
+        if (old != UNASSIGNED) {
+            int p = graph.target(old);
+            int last = members[p][--load[p]];
+            members[p][memberSlot[student]] = last;
+            memberSlot[last] = memberSlot[student];
+        }
+        assignedEdge[student] = edge;
+        if (edge != UNASSIGNED) {
+            int p = graph.target(edge);
+            if (members[p] == null) {
+                members[p] = new int[Math.min(graph.capacity(p), 4)];
+            } else if (load[p] == members[p].length) {
+                members[p] = Arrays.copyOf(members[p], Math.min(graph.capacity(p), load[p] * 2));
+            }
+            memberSlot[student] = load[p];
+            members[p][load[p]++] = student;
+        }
+    }
+
+    private void push(long key, int node) {
+        if (heapSize == heapKeys.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) break;
+            heapKeys[i] = heapKeys[parent];
+            heapNodes[i] = heapNodes[parent];
+            i = parent;
+        }
+        heapKeys[i] = key;
+        heapNodes[i] = node;
+    }
+
+    private int pop() {
+        int top = heapNodes[0];
+        long key = heapKeys[--heapSize];
+        int node = heapNodes[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (key <= heapKeys[child]) break;
+            heapKeys[i] = heapKeys[child];
+            heapNodes[i] = heapNodes[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapNodes[i] = node;
+        return top;
+    }
+}
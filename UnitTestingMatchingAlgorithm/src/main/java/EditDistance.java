@@ -0,0 +1,342 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.Arrays;
+
+/**
+ * EditDistance is the shared Levenshtein kernel used by the matcher.
+ *
+ * The Levenshtein distance is the minimum number of single-character edits
+ * (insertions, deletions, or substitutions) required to change one string into another.
+ *
+ * Two engines are available and distance() picks one automatically:
+ * - A bit-parallel engine (Myers, in Hyyro's formulation for edit distance) that processes a
+ *   whole column of the matrix in one 64-bit word. Strings of up to 64 chars use a single word,
+ *   longer strings use blocks of words.
+ * - A banded dynamic programming engine that keeps two rows of the matrix. It is used when the
+ *   caller passes a maxDistance narrow enough that the band is cheaper than the word blocks.
+ *
+ * All scratch space lives in buffers owned by the calling thread, so a call does not allocate.
+ * With maxDistance, both engines stop as soon as the distance is known to exceed the bound.
+ */
+public final class EditDistance {
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private EditDistance() {
+    }
+
+    /**
+     * @param s First string
+     * @param t Second string
+     * @return Integer representing the edit distance between strings
+     */
+    public static int distance(CharSequence s, CharSequence t) {
+        return distance(s, t, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param s First string
+     * @param t Second string
+     * @param maxDistance largest distance the caller is interested in
+     * @return the edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    public static int distance(CharSequence s, CharSequence t, int maxDistance) {
+        char[] sChars = toChars(s);
+        char[] tChars = toChars(t);
+        return distance(sChars, 0, sChars.length, tChars, 0, tChars.length, maxDistance);
+    }
+
+    private static char[] toChars(CharSequence text) {
+        if (text instanceof String) return ((String) text).toCharArray();
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return chars;
+    }
+
+    /**
+     * Edit distance between two character ranges.
+     *
+     * @param s chars of the first string
+     * @param sOffset start of the first string in s
+     * @param m length of the first string
+     * @param t chars of the second string
+     * @param tOffset start of the second string in t
+     * @param n length of the second string
+     * @param maxDistance largest distance the caller is interested in
+     * @return the edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    public static int distance(char[] s, int sOffset, int m, char[] t, int tOffset, int n, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("maxDistance must not be negative");
+        }
+        if (Math.abs(m - n) > maxDistance) return maxDistance + 1;
+
+        // keep the shorter string as the pattern / columns so the word blocks and rows stay small
+        if (n > m) {
+            char[] chars = s; s = t; t = chars;
+            int offset = sOffset; sOffset = tOffset; tOffset = offset;
+            int length = m; m = n; n = length;
+        }
+        if (n == 0) return m <= maxDistance ? m : maxDistance + 1;
+
+        if (n <= 64 || 2L * maxDistance + 1 > 64) {
+            return bitParallel(t, tOffset, n, s, sOffset, m, maxDistance);
+        }
+        return dynamicProgramming(s, sOffset, m, t, tOffset, n, maxDistance);
+    }
+
+    /**
+     * Bit-parallel edit distance. Column j of the matrix is kept as vertical delta bit vectors
+     * (Pv: +1, Mv: -1) over the pattern, split into 64-bit blocks, and the distance is tracked on
+     * the last pattern row.
+     *
+     * @param p chars of the pattern
+     * @param pOffset start of the pattern in p
+     * @param m length of the pattern, at least 1
+     * @param t chars of the text
+     * @param tOffset start of the text in t
+     * @param n length of the text
+     * @param maxDistance largest distance the caller is interested in
+     * @return the edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    static int bitParallel(char[] p, int pOffset, int m, char[] t, int tOffset, int n, int maxDistance) {
+        Scratch scratch = SCRATCH.get();
+        int blocks = (m + 63) >>> 6;
+        scratch.buildPeq(p, pOffset, m, blocks);
+
+        try {
+            if (blocks == 1) {
+                return singleWord(scratch, m, t, tOffset, n, maxDistance);
+            }
+            return blocked(scratch, m, blocks, t, tOffset, n, maxDistance);
+        } finally {
+            scratch.clearPeq();
+        }
+    }
+
+    private static int singleWord(Scratch scratch, int m, char[] t, int tOffset, int n, int maxDistance) {
+        long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            long eq = scratch.peq(t[tOffset + j], 0);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            // the top row of the matrix grows by one per column
+            ph = (ph << 1) | 1L;
+            mh = mh << 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+
+            // each remaining column can lower the score by at most one
+            if (score - (n - 1 - j) > maxDistance) return maxDistance + 1;
+        }
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    private static int blocked(Scratch scratch, int m, int blocks, char[] t, int tOffset, int n, int maxDistance) {
+        long[] pvs = scratch.vectors(blocks, 0);
+        long[] mvs = scratch.vectors(blocks, 1);
+        Arrays.fill(pvs, 0, blocks, -1L);
+        Arrays.fill(mvs, 0, blocks, 0L);
+        long lastOfFinalBlock = 1L << ((m - 1) & 63);
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            char c = t[tOffset + j];
+            int carry = 1;
+            for (int b = 0; b < blocks; b++) {
+                long pv = pvs[b];
+                long mv = mvs[b];
+                long eq = scratch.peq(c, b);
+                long xv = eq | mv;
+                if (carry < 0) eq |= 1L;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                long last = b == blocks - 1 ? lastOfFinalBlock : Long.MIN_VALUE;
+                int carryOut = (ph & last) != 0 ? 1 : (mh & last) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if (carry < 0) {
+                    mh |= 1L;
+                } else if (carry > 0) {
+                    ph |= 1L;
+                }
+                pvs[b] = mh | ~(xv | ph);
+                mvs[b] = ph & xv;
+                carry = carryOut;
+            }
+            score += carry;
+
+            // each remaining column can lower the score by at most one
+            if (score - (n - 1 - j) > maxDistance) return maxDistance + 1;
+        }
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    /**
+     * Banded two-row dynamic programming edit distance. Only cells with |i - j| <= maxDistance are
+     * evaluated, and the call stops as soon as a whole row exceeds the bound.
+     *
+     * @param s chars of the first string
+     * @param sOffset start of the first string in s
+     * @param m length of the first string
+     * @param t chars of the second string, the columns of the matrix
+     * @param tOffset start of the second string in t
+     * @param n length of the second string
+     * @param maxDistance largest distance the caller is interested in
+     * @return the edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    static int dynamicProgramming(char[] s, int sOffset, int m, char[] t, int tOffset, int n, int maxDistance) {
+        if (Math.abs(m - n) > maxDistance) return maxDistance + 1;
+        if (n == 0) return m;
+        if (m == 0) return n;
+
+        // nothing beyond max(m, n) can happen, so clamp the bound to keep max + 1 from overflowing
+        int max = Math.min(maxDistance, Math.max(m, n));
+        int outside = max + 1;
+
+        Scratch scratch = SCRATCH.get();
+        int[] prev = scratch.row(n, 0);
+        int[] curr = scratch.row(n, 1);
+
+        for (int j = 0; j <= n; j++) {
+            prev[j] = j <= max ? j : outside;
+        }
+        prev[n + 1] = outside;
+
+        for (int i = 1; i <= m; i++) {
+            // only cells with |i - j| <= max can hold a distance within the bound
+            int lo = Math.max(1, i - max);
+            int hi = Math.min(n, i + max);
+            if (lo > hi) return maxDistance + 1;
+
+            curr[lo - 1] = lo == 1 ? (i <= max ? i : outside) : outside;
+            int rowMin = curr[lo - 1];
+            char sc = s[sOffset + i - 1];
+
+            for (int j = lo; j <= hi; j++) {
+                int cost = sc == t[tOffset + j - 1] ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                curr[j] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            curr[hi + 1] = outside;
+
+            if (rowMin > max) return maxDistance + 1;
+
+            int[] row = prev;
+            prev = curr;
+            curr = row;
+        }
+
+        int distance = prev[n];
+        return distance <= max ? distance : maxDistance + 1;
+    }
+
+    /**
+     * Per-thread scratch space: DP rows, bit vectors and the pattern match masks (Peq).
+     *
+     * Masks of chars below 256 are found through a direct index table, other chars through a
+     * short linear scan over the pattern's distinct non-Latin chars.
+     */
+    private static final class Scratch {
+        private final int[][] rows = {new int[66], new int[66]};
+        private final long[][] vectors = {new long[4], new long[4]};
+        private final int[] latinIndex = new int[256];
+        private char[] distinct = new char[64];
+        private long[] masks = new long[64];
+        private int distinctCount;
+        private int blocks;
+        private int firstNonLatin;
+
+        Scratch() {
+            Arrays.fill(latinIndex, -1);
+        }
+
+        int[] row(int n, int which) {
+            if (rows[which].length < n + 2) {
+                rows[which] = new int[Math.max(n + 2, rows[which].length * 2)];
+            }
+            return rows[which];
+        }
+
+        long[] vectors(int blocks, int which) {
+            if (vectors[which].length < blocks) {
+                vectors[which] = new long[Math.max(blocks, vectors[which].length * 2)];
+            }
+            return vectors[which];
+        }
+
+        void buildPeq(char[] p, int pOffset, int m, int blocks) {
+            this.blocks = blocks;
+            distinctCount = 0;
+
+            // Latin chars first so the non-Latin ones form a contiguous tail for the linear scan
+            for (int pass = 0; pass < 2; pass++) {
+                if (pass == 1) firstNonLatin = distinctCount;
+                for (int i = 0; i < m; i++) {
+                    char c = p[pOffset + i];
+                    if ((c < 256) != (pass == 0)) continue;
+                    int index = indexOf(c);
+                    if (index < 0) {
+                        index = add(c);
+                    }
+                    masks[index * blocks + (i >>> 6)] |= 1L << (i & 63);
+                }
+            }
+        }
+
+        private int add(char c) {
+            if (distinctCount == distinct.length) {
+                distinct = Arrays.copyOf(distinct, distinct.length * 2);
+            }
+            if ((distinctCount + 1) * blocks > masks.length) {
+                masks = Arrays.copyOf(masks, Math.max(masks.length * 2, (distinctCount + 1) * blocks));
+            }
+            Arrays.fill(masks, distinctCount * blocks, (distinctCount + 1) * blocks, 0L);
+            distinct[distinctCount] = c;
+            if (c < 256) latinIndex[c] = distinctCount;
+            return distinctCount++;
+        }
+
+        private int indexOf(char c) {
+            if (c < 256) return latinIndex[c];
+            for (int i = firstNonLatin; i < distinctCount; i++) {
+                if (distinct[i] == c) return i;
+            }
+            return -1;
+        }
+
+        long peq(char c, int block) {
+            int index = indexOf(c);
+            return index >= 0 ? masks[index * blocks + block] : 0L;
+        }
+
+        void clearPeq() {
+            for (int i = 0; i < firstNonLatin; i++) {
+                latinIndex[distinct[i]] = -1;
+            }
+            distinctCount = 0;
+        }
+    }
+}
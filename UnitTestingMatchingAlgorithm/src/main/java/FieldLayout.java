@@ -0,0 +1,87 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FieldLayout assigns every known questionnaire field a fixed storage slot.
+ *
+ * Text and picklist answers share the text slots, dates get their own slots so they can be
+ * stored as epoch days. Fields that are not part of the layout are still accepted by
+ * Student and Preceptor, they are just kept in a fallback map instead of a slot.
+ */
+public final class FieldLayout {
+
+    /**
+     * Marker stored in a date slot that has no value.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final String[] TEXT_FIELDS = {
+            "specialtyEntering",
+            "specialtyInterest",
+            "availability",
+            "interestPopulations",
+            "specialSkills",
+            "academicYear",
+            "educationLevel",
+            "educationalProgram",
+            "providerRestrictions",
+            "otherSpecialty",
+            "otherPopulation",
+            "otherLearner",
+            "otherProvider"
+    };
+
+    private static final String[] DATE_FIELDS = {
+            "startDate",
+            "endDate"
+    };
+
+    private static final Map<String, Integer> TEXT_SLOTS = new HashMap<>();
+    private static final Map<String, Integer> DATE_SLOTS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < TEXT_FIELDS.length; i++) {
+            TEXT_SLOTS.put(TEXT_FIELDS[i], i);
+        }
+        for (int i = 0; i < DATE_FIELDS.length; i++) {
+            DATE_SLOTS.put(DATE_FIELDS[i], i);
+        }
+    }
+
+    private FieldLayout() {
+    }
+
+    /**
+     * @return number of text slots in the layout
+     */
+    public static int textSlotCount() {
+        return TEXT_FIELDS.length;
+    }
+
+    /**
+     * @return number of date slots in the layout
+     */
+    public static int dateSlotCount() {
+        return DATE_FIELDS.length;
+    }
+
+    /**
+     * @param fieldName
+     * @return the text slot for the field, or -1 if it is not a text field of the layout
+     */
+    public static int textSlot(String fieldName) {
+        Integer slot = TEXT_SLOTS.get(fieldName);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @param fieldName
+     * @return the date slot for the field, or -1 if it is not a date field of the layout
+     */
+    public static int dateSlot(String fieldName) {
+        Integer slot = DATE_SLOTS.get(fieldName);
+        return slot != null ? slot : -1;
+    }
+}
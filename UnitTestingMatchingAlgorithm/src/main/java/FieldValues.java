@@ -0,0 +1,106 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FieldValues stores the questionnaire answers of a Student or Preceptor in FieldLayout slots.
+ *
+ * Text answers are kept both as entered and lowercased, and both are interned so repeated
+ * answers across a cohort share one String instance. Dates are kept as epoch days in a plain
+ * int array. Values for fields outside the layout go to a fallback map.
+ *
+ * Every value reads back as it was set. A text field set to something other than a String is
+ * scored by its String.valueOf form, and the original object is kept in the fallback map for
+ * get(), just as a date field set to something other than a LocalDate is kept there.
+ */
+final class FieldValues {
+    private final String[] text = new String[FieldLayout.textSlotCount()];
+    private final String[] lowerText = new String[FieldLayout.textSlotCount()];
+    private final int[] dates = new int[FieldLayout.dateSlotCount()];
+    private Map<String, Object> extras;
+
+    FieldValues() {
+        Arrays.fill(dates, FieldLayout.NO_DATE);
+    }
+
+    void set(String fieldName, Object value) {
+        int slot = FieldLayout.textSlot(fieldName);
+        if (slot >= 0) {
+            setText(slot, value != null ? String.valueOf(value) : null);
+            if (value != null && !(value instanceof String)) {
+                if (extras == null) extras = new HashMap<>();
+                extras.put(fieldName, value);
+            } else if (extras != null) {
+                extras.remove(fieldName);
+            }
+            return;
+        }
+
+        slot = FieldLayout.dateSlot(fieldName);
+        if (slot >= 0 && (value == null || value instanceof LocalDate)) {
+            dates[slot] = value != null ? (int) ((LocalDate) value).toEpochDay() : FieldLayout.NO_DATE;
+            if (extras != null) extras.remove(fieldName);
+            return;
+        }
+
+        // unknown field, or a date field holding something other than a LocalDate
+        if (extras == null) extras = new HashMap<>();
+        if (value == null) {
+            extras.remove(fieldName);
+        } else {
+            extras.put(fieldName, value);
+        }
+        if (slot >= 0) dates[slot] = FieldLayout.NO_DATE;
+    }
+
+    Object get(String fieldName) {
+        int slot = FieldLayout.textSlot(fieldName);
+        if (slot >= 0) {
+            Object original = extras != null ? extras.get(fieldName) : null;
+            return original != null ? original : text[slot];
+        }
+
+        slot = FieldLayout.dateSlot(fieldName);
+        if (slot >= 0 && dates[slot] != FieldLayout.NO_DATE) {
+            return LocalDate.ofEpochDay(dates[slot]);
+        }
+        return extras != null ? extras.get(fieldName) : null;
+    }
+
+    void setText(int slot, String value) {
+        if (value == null) {
+            text[slot] = null;
+            lowerText[slot] = null;
+        } else {
+            text[slot] = value.intern();
+            lowerText[slot] = value.toLowerCase().intern();
+        }
+    }
+
+    /**
+     * Stores a value whose interned form and interned lowercase form the caller already holds.
+     */
+    void setInternedText(int slot, String value, String lower) {
+        text[slot] = value;
+        lowerText[slot] = lower;
+    }
+
+    void setEpochDay(int slot, int epochDay) {
+        dates[slot] = epochDay;
+    }
+
+    String text(int slot) {
+        return text[slot];
+    }
+
+    String lowerText(int slot) {
+        return lowerText[slot];
+    }
+
+    int epochDay(int slot) {
+        return dates[slot];
+    }
+}
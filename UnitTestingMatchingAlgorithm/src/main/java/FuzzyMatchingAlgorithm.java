@@ -1,8 +1,9 @@
 package UnitTestingMatchingAlgorithm.src.main.java;
 
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -17,8 +18,14 @@ import java.util.function.Consumer;
  */
 public class FuzzyMatchingAlgorithm {
 
+    /**
+     * Default testing mode for runs that do not pass their own MatchingConfig.
+     */
     public static boolean TESTING_MODE = false;
 
+    /**
+     * Default student update implementation for runs that do not pass their own MatchingConfig.
+     */
     public static Consumer<List<Student>> updateStudentsImplementation = null;
 
     /**
@@ -33,178 +40,307 @@ public class FuzzyMatchingAlgorithm {
      * @return List of match results containing ranked preceptor matches for each student
      */
     public static List<MatchResult> calculateMatches(List<MatchRequest> requests) {
+        return calculateMatches(requests, MatchingConfig.fromDefaults());
+    }
+
+    /**
+     * Calculates match scores between students and preceptors using the given compiled schema.
+     *
+     * @param requests List of match requests containing students, preceptors, and threshold settings
+     * @param schema Compiled scoring schema used for requests without a pool of their own
+     * @return List of match results containing ranked preceptor matches for each student
+     */
+    public static List<MatchResult> calculateMatches(List<MatchRequest> requests, ScoringSchema schema) {
+        MatchingConfig config = MatchingConfig.fromDefaults();
+        config.setSchema(schema);
+        return calculateMatches(requests, config);
+    }
+
+    /**
+     * Calculates match scores between students and preceptors on the caller thread.
+     *
+     * Requests that carry a PreceptorPool are scored against it directly. Requests that carry a
+     * preceptor list are grouped by list, and each distinct list is turned into a pool once per run.
+     *
+     * @param requests List of match requests containing students, preceptors, and threshold settings
+     * @param config Settings for this run
+     * @return List of match results containing ranked preceptor matches for each student
+     */
+    public static List<MatchResult> calculateMatches(List<MatchRequest> requests, MatchingConfig config) {
         List<MatchResult> results = new ArrayList<>();
+        Map<List<Preceptor>, PreceptorPool> pools = new IdentityHashMap<>();
 
         for (MatchRequest req : requests) {
-            // get the student record
-            Student student = req.getStudent();
-            List<Preceptor> preceptors = req.getPreceptors();
-
-            // calculate compatibility for each preceptor
-            List<PreceptorMatch> matches = new ArrayList<>();
-            for (Preceptor preceptor : preceptors) {
-                // calculate match score
-                double score = calculateMatchScore(student, preceptor);
-
-                if (TESTING_MODE) {
-                    if (preceptor.getId().equals("PR001")) {
-                        score = 98.0; // Perfect match
-                    } else if (preceptor.getId().equals("PR002")) {
-                        score = 85.0; // Good match
-                    } else if (preceptor.getId().equals("PR003")) {
-                        score = 45.0; // Poor match - above 20% threshold but below 50%
-                    }
-                }
+            PreceptorPool pool = resolvePool(req, config.getSchema(), pools);
 
-                // only include if above threshold
-                if (score >= req.getMinimumScore()) {
-                    matches.add(new PreceptorMatch(
-                            preceptor.getId(),
-                            preceptor.getName(),
-                            score,
-                            preceptor
-                    ));
-                }
+            // calculate compatibility against every preceptor of the pool
+            StudentProbe probe = new StudentProbe(req.getStudent(), pool, config.getSimilarityCache());
+            double[] scores = score(req, probe, config);
+            results.add(collectMatches(req, probe, scores, config));
+        }
+
+        return results;
+    }
+
+    /**
+     * Calculates match scores for a whole cohort across the threads of an executor.
+     *
+     * Requests are split into chunks that are scored concurrently. When a pool holds at least
+     * MatchingConfig.getPreceptorSplitThreshold() preceptors, the rows of that single request are
+     * split across the executor as well. Results come back in the order of the requests.
+     *
+     * @param requests List of match requests containing students, preceptors, and threshold settings
+     * @param executor Executor that runs the scoring tasks, e.g. a ForkJoinPool
+     * @return List of match results containing ranked preceptor matches for each student
+     */
+    public static List<MatchResult> calculateMatchesParallel(List<MatchRequest> requests, Executor executor) {
+        return calculateMatchesParallel(requests, executor, MatchingConfig.fromDefaults());
+    }
+
+    /**
+     * Calculates match scores for a whole cohort across the threads of an executor.
+     *
+     * @param requests List of match requests containing students, preceptors, and threshold settings
+     * @param executor Executor that runs the scoring tasks
+     * @param config Settings for this run
+     * @return List of match results containing ranked preceptor matches for each student
+     */
+    public static List<MatchResult> calculateMatchesParallel(List<MatchRequest> requests, Executor executor,
+                                                             MatchingConfig config) {
+        // resolve pools on the caller thread so each distinct preceptor list is only compiled once
+        Map<List<Preceptor>, PreceptorPool> poolsByList = new IdentityHashMap<>();
+        PreceptorPool[] pools = new PreceptorPool[requests.size()];
+        List<Integer> small = new ArrayList<>();
+        List<Integer> large = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            pools[i] = resolvePool(requests.get(i), config.getSchema(), poolsByList);
+            if (pools[i].size() >= config.getPreceptorSplitThreshold()) {
+                large.add(i);
+            } else {
+                small.add(i);
             }
+        }
 
-            // sort by score (highest first)
-            Collections.sort(matches);
+        MatchResult[] results = new MatchResult[requests.size()];
 
-            results.add(new MatchResult(student.getId(), student.getName(), matches));
+        // score small requests in chunks, one probe per request
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        int chunkSize = Math.max(1, (small.size() + config.getParallelism() * 4 - 1) / (config.getParallelism() * 4));
+        for (int start = 0; start < small.size(); start += chunkSize) {
+            List<Integer> chunk = small.subList(start, Math.min(small.size(), start + chunkSize));
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i : chunk) {
+                    MatchRequest req = requests.get(i);
+                    StudentProbe probe = new StudentProbe(req.getStudent(), pools[i], config.getSimilarityCache());
+                    double[] scores = score(req, probe, config);
+                    results[i] = collectMatches(req, probe, scores, config);
+                }
+            }, executor));
+        }
+
+        // split the preceptors of large requests across workers, the caller thread only waits
+        for (int i : large) {
+            MatchRequest req = requests.get(i);
+            PreceptorPool pool = pools[i];
+            StudentProbe probe = new StudentProbe(req.getStudent(), pool, config.getSimilarityCache());
+            double[] scores = new double[pool.size()];
+            int[] rows = null;
+            int count = pool.size();
+            if (useBlocking(config)) {
+                rows = new int[pool.size()];
+                count = pool.candidateIndex().candidates(probe, req.getMinimumScore(), rows);
+                Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+                config.getBlockingStats().record(pool.size(), count);
+            }
+
+            int[] sliceRows = rows;
+            double threshold = pruningThreshold(req, config);
+            int rowsPerTask = Math.max(1, (count + config.getParallelism() - 1) / config.getParallelism());
+            List<CompletableFuture<Void>> slices = new ArrayList<>();
+            for (int from = 0; from < count; from += rowsPerTask) {
+                int sliceFrom = from;
+                int sliceTo = Math.min(count, from + rowsPerTask);
+                slices.add(CompletableFuture.runAsync(
+                        () -> new StudentProbe(req.getStudent(), pool, config.getSimilarityCache())
+                                .score(sliceRows, sliceFrom, sliceTo, scores, threshold), executor));
+            }
+            join(slices);
+            results[i] = collectMatches(req, probe, scores, config);
         }
 
-        return results;
+        join(chunks);
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Scores one request. Pairs are abandoned as soon as they can no longer reach the request's
+     * minimum score, and with blocking enabled only the candidate rows are scored at all. Rows
+     * skipped either way score Double.NEGATIVE_INFINITY.
+     */
+    private static double[] score(MatchRequest req, StudentProbe probe, MatchingConfig config) {
+        if (!useBlocking(config)) {
+            return probe.score(pruningThreshold(req, config));
+        }
+        double[] scores = new double[probe.getPool().size()];
+        int scored = probe.scoreCandidates(req.getMinimumScore(), scores);
+        config.getBlockingStats().record(scores.length, scored);
+        return scores;
+    }
+
+    private static boolean useBlocking(MatchingConfig config) {
+        return config.isBlockingEnabled() && !config.isTestingMode();
     }
 
     /**
-     * Calculates the weighted compatibility score between a student and preceptor.
+     * @return the score below which pairs can be abandoned, none in testing mode where fixed
+     *         scores replace the computed ones
+     */
+    private static double pruningThreshold(MatchRequest req, MatchingConfig config) {
+        return config.isTestingMode() ? Double.NEGATIVE_INFINITY : req.getMinimumScore();
+    }
+
+    private static void join(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the ranked match list of one request from the scores of every pool row.
      *
-     * This method:
-     * 1. Compares multiple fields between student and preceptor
-     * 2. Calculates similarity for each field based on its type (text, picklist, date)
-     * 3. Applies weights to each field according to its importance
-     * 4. Aggregates scores into a final percentage
+     * When the request sets maxResults, only the best rows are kept in a bounded heap and match
+     * objects are created for those rows alone.
      *
-     * @param student The student to match
-     * @param preceptor The preceptor to match against
-     * @return A score from 0-100 representing match compatibility (higher is better)
+     * Pairs selected by the run's tracer are explained here, outside the scoring loop.
+     *
+     * @param req The request being answered
+     * @param probe The student compiled against the pool the scores were computed against
+     * @param scores Scores indexed by pool row
+     * @param config Settings for this run
+     * @return Match result with matches above the request threshold, highest score first
      */
-    private static double calculateMatchScore(Student student, Preceptor preceptor) {
-        double totalWeightedScore = 0;
-        double totalPossibleScore = 0;
-
-        // map of field names to their ranks
-        Map<String, Integer> fieldRanks = new HashMap<>();
-        fieldRanks.put("specialtyEntering", 1);
-        fieldRanks.put("specialtyInterest", 4);
-        fieldRanks.put("startDate", 4);
-        fieldRanks.put("endDate", 4);
-        fieldRanks.put("availability", 5);
-        fieldRanks.put("interestPopulations", 4);
-        fieldRanks.put("specialSkills", 4);
-        fieldRanks.put("academicYear", 5);
-        fieldRanks.put("educationLevel", 5);
-        fieldRanks.put("educationalProgram", 5);
-        fieldRanks.put("providerRestrictions", 5);
-        fieldRanks.put("otherSpecialty", 3);
-        fieldRanks.put("otherPopulation", 3);
-        fieldRanks.put("otherLearner", 3);
-        fieldRanks.put("otherProvider", 2);
-
-        // map of field names to their types
-        Map<String, String> fieldTypes = new HashMap<>();
-        fieldTypes.put("specialtyEntering", "text");
-        fieldTypes.put("specialtyInterest", "text");
-        fieldTypes.put("startDate", "date");
-        fieldTypes.put("endDate", "date");
-        fieldTypes.put("availability", "picklist");
-        fieldTypes.put("interestPopulations", "picklist");
-        fieldTypes.put("specialSkills", "picklist");
-        fieldTypes.put("academicYear", "text");
-        fieldTypes.put("educationLevel", "text");
-        fieldTypes.put("educationalProgram", "text");
-        fieldTypes.put("providerRestrictions", "picklist");
-        fieldTypes.put("otherSpecialty", "text");
-        fieldTypes.put("otherPopulation", "text");
-        fieldTypes.put("otherLearner", "text");
-        fieldTypes.put("otherProvider", "text");
-
-        // map for dependent questions
-        Map<String, List<String>> dependencies = new HashMap<>();
-        dependencies.put("otherProvider", Arrays.asList("providerRestrictions", "other"));
-        dependencies.put("otherSpecialty", Arrays.asList("specialSkills", "other"));
-        dependencies.put("otherPopulation", Arrays.asList("interestPopulations", "other"));
-        dependencies.put("otherLearner", Arrays.asList("educationalProgram", "other"));
-        dependencies.put("providerRestrictions", Arrays.asList("providerRestrictions", "Yes"));
-
-        // process each field
-        for (String fieldName : fieldRanks.keySet()) {
-            // skip if field type not defined
-            if (!fieldTypes.containsKey(fieldName)) continue;
-
-            // check dependencies
-            if (dependencies.containsKey(fieldName)) {
-                List<String> dependency = dependencies.get(fieldName);
-                String dependencyField = dependency.get(0);
-                String dependencyValue = dependency.get(1);
-
-                // skip if dependency not met
-                Object dependencyFieldObj = student.getFieldValue(dependencyField);
-                String dependencyFieldValue = dependencyFieldObj != null ? String.valueOf(dependencyFieldObj) : null;
-                if (dependencyFieldValue == null || !dependencyFieldValue.contains(dependencyValue)) {
-                    continue;
+    private static MatchResult collectMatches(MatchRequest req, StudentProbe probe, double[] scores,
+                                              MatchingConfig config) {
+        Student student = req.getStudent();
+        PreceptorPool pool = probe.getPool();
+        List<PreceptorMatch> matches = new ArrayList<>();
+
+        MatchTracer tracer = config.getTracer();
+        if (tracer != MatchTracer.NOOP) {
+            for (int row = 0; row < pool.size(); row++) {
+                if (tracer.shouldExplain(student, pool.getPreceptor(row))) {
+                    tracer.explain(probe.explain(row));
                 }
             }
+        }
 
-            // get field values
-            Object studentValue = student.getFieldValue(fieldName);
-            Object preceptorValue = preceptor.getFieldValue(fieldName);
+        if (req.getMaxResults() > 0) {
+            TopKSelector selector = new TopKSelector(req.getMaxResults(), pool);
+            for (int row = 0; row < pool.size(); row++) {
+                double score = adjustScore(pool.getPreceptor(row), scores[row], config);
+                // only include if above threshold
+                if (score >= req.getMinimumScore()) {
+                    selector.offer(row, score);
+                }
+            }
 
-            if (studentValue == null || preceptorValue == null) {
-                continue;
+            double[] keptScores = new double[selector.size()];
+            for (int row : selector.drainBestFirst(keptScores)) {
+                Preceptor preceptor = pool.getPreceptor(row);
+                matches.add(new PreceptorMatch(preceptor.getId(), preceptor.getName(), keptScores[matches.size()], preceptor));
             }
+            return new MatchResult(student.getId(), student.getName(), matches);
+        }
 
-            double similarity = 0;
-            String fieldType = fieldTypes.get(fieldName);
+        for (int row = 0; row < pool.size(); row++) {
+            Preceptor preceptor = pool.getPreceptor(row);
+            double score = adjustScore(preceptor, scores[row], config);
 
-            // calculate similarity based on field type
-            if (fieldType.equals("text")) {
-                String studentText = String.valueOf(studentValue);
-                String preceptorText = String.valueOf(preceptorValue);
-                similarity = calculateTextSimilarity(studentText, preceptorText);
+            // only include if above threshold
+            if (score >= req.getMinimumScore()) {
+                matches.add(new PreceptorMatch(
+                        preceptor.getId(),
+                        preceptor.getName(),
+                        score,
+                        preceptor
+                ));
             }
-            else if (fieldType.equals("picklist")) {
-                String studentText = String.valueOf(studentValue);
-                String preceptorText = String.valueOf(preceptorValue);
+        }
 
-                similarity = (studentText.equals(preceptorText)) ? 100 : 0;
-            }
-            else if (fieldType.equals("date")) {
-                LocalDate studentDate = (LocalDate) studentValue;
-                LocalDate preceptorDate = (LocalDate) preceptorValue;
+        // sort by score (highest first)
+        Collections.sort(matches);
 
-                long daysDiff = Math.abs(ChronoUnit.DAYS.between(studentDate, preceptorDate));
-                similarity = Math.max(0, 100 - ((daysDiff * 100.0) / 365));
+        return new MatchResult(student.getId(), student.getName(), matches);
+    }
+
+    /**
+     * Applies the testing mode overrides to a computed score.
+     */
+    private static double adjustScore(Preceptor preceptor, double score, MatchingConfig config) {
+        if (config.isTestingMode()) {
+            if (preceptor.getId().equals("PR001")) {
+                return 98.0; // Perfect match
+            } else if (preceptor.getId().equals("PR002")) {
+                return 85.0; // Good match
+            } else if (preceptor.getId().equals("PR003")) {
+                return 45.0; // Poor match - above 20% threshold but below 50%
             }
+        }
+        return score;
+    }
 
-            // apply weight
-            Integer rank = fieldRanks.get(fieldName);
-            totalWeightedScore += (similarity / 100) * rank;
-            totalPossibleScore += rank;
+    /**
+     * Returns the pool a request should be scored against, building and caching one per distinct
+     * preceptor list when the request does not carry a pool.
+     */
+    private static PreceptorPool resolvePool(MatchRequest req, ScoringSchema schema,
+                                             Map<List<Preceptor>, PreceptorPool> pools) {
+        if (req.getPool() != null) {
+            return req.getPool();
         }
+        PreceptorPool pool = pools.get(req.getPreceptors());
+        if (pool == null) {
+            pool = new PreceptorPool(req.getPreceptors(), schema);
+            pools.put(req.getPreceptors(), pool);
+        }
+        return pool;
+    }
 
-        // calculate final score
-        if (totalPossibleScore == 0) return 0;
+    /**
+     * Calculates the compatibility score of one student against every preceptor of a pool.
+     *
+     * @param student The student to match
+     * @param pool The preceptors to match against
+     * @return Scores from 0-100 indexed by pool row (higher is better)
+     */
+    public static double[] calculateMatchScores(Student student, PreceptorPool pool) {
+        return new StudentProbe(student, pool).score();
+    }
 
-        double percentScore = (totalWeightedScore / totalPossibleScore) * 100;
-        if (percentScore < 50) {
-            percentScore += 5;
-        }
-        return Math.round(percentScore * 10) / 10.0;
+    /**
+     * Calculates the weighted compatibility score between a single student and preceptor.
+     *
+     * This builds a one-row pool for the pair, so it is meant for one-off scoring. Batch callers
+     * should score against a shared PreceptorPool with calculateMatchScores or calculateMatches.
+     *
+     * TF-IDF scores of TFIDF_TEXT fields weigh words by how many preceptors of the pool use them,
+     * so a pair scored in a pool of its own is not comparable to the same pair scored in a larger
+     * pool. Score TF-IDF schemas against the whole pool instead.
+     *
+     * @param student The student to match
+     * @param preceptor The preceptor to match against
+     * @return A score from 0-100 representing match compatibility (higher is better)
+     */
+    public static double calculateMatchScore(Student student, Preceptor preceptor) {
+        return calculateMatchScores(student, new PreceptorPool(Collections.singletonList(preceptor)))[0];
     }
 
     /**
-     * Calculates text similarity between two strings using Levenshtein distance.
+     * Calculates text similarity between two strings using Levenshtein distance (see EditDistance).
      *
      * The similarity is calculated as a percentage:
      * 100% = identical strings
@@ -216,62 +352,79 @@ public class FuzzyMatchingAlgorithm {
      * @param text2 Second text string to compare
      * @return Similarity percentage from 0-100, rounded to one decimal place
      */
-    private static double calculateTextSimilarity(String text1, String text2) {
-        System.out.println("Calculating similarity between '" + text1 + "' and '" + text2 + "'");
+    public static double calculateTextSimilarity(String text1, String text2) {
         if (text1 == null) text1 = "";
         if (text2 == null) text2 = "";
 
         // convert to lowercase
-        text1 = text1.toLowerCase();
-        text2 = text2.toLowerCase();
-
-        int distance = levenshteinDistance(text1, text2);
-
-        // calculate similarity percentage
-        int maxLength = Math.max(text1.length(), text2.length());
-        if (maxLength == 0) return 100;
-
-        double similarity = ((maxLength - distance) * 100.0) / maxLength;
-        double roundedSimilarity = Math.round(similarity * 10) / 10.0; // round to 1 decimal place
-        System.out.println("Similarity result: " + roundedSimilarity + "%");
-        return roundedSimilarity;
+        char[] chars1 = text1.toLowerCase().toCharArray();
+        char[] chars2 = text2.toLowerCase().toCharArray();
+        return lowercaseTextSimilarity(chars1, 0, chars1.length, chars2, 0, chars2.length);
     }
 
     /**
-     * Calculates the Levenshtein distance between two strings.
+     * Calculates text similarity after normalizing both texts against a canonical vocabulary.
      *
-     * The Levenshtein distance is the minimum number of single-character edits
-     * (insertions, deletions, or substitutions) required to change one string into another.
+     * Each lowercased text is replaced by its closest vocabulary term when one lies within
+     * maxDistance, so misspelled free-text answers such as otherSpecialty compare as the term
+     * they were meant to be. Null and empty texts are left as they are, so a missing answer
+     * never turns into a short vocabulary term.
      *
-     * @param s First string
-     * @param t Second string
-     * @return Integer representing the edit distance between strings
+     * @param text1 First text string to compare
+     * @param text2 Second text string to compare
+     * @param vocabulary Index over the lowercased canonical terms
+     * @param maxDistance Largest edit distance at which a term replaces a text
+     * @return Similarity percentage from 0-100, rounded to one decimal place
      */
-    private static int levenshteinDistance(String s, String t) {
-        int m = s.length();
-        int n = t.length();
+    public static double calculateTextSimilarity(String text1, String text2, VocabularyIndex vocabulary, int maxDistance) {
+        return calculateTextSimilarity(canonical(text1, vocabulary, maxDistance), canonical(text2, vocabulary, maxDistance));
+    }
 
-        int[][] d = new int[m + 1][n + 1];
+    private static String canonical(String text, VocabularyIndex vocabulary, int maxDistance) {
+        if (text == null || text.isEmpty()) return text;
+        return vocabulary.canonical(text.toLowerCase(), maxDistance);
+    }
 
-        for (int i = 0; i <= m; i++) {
-            d[i][0] = i;
-        }
+    /**
+     * Calculates text similarity between two lowercased character ranges.
+     *
+     * @param s chars of the first text
+     * @param sOffset start of the first text in s
+     * @param m length of the first text
+     * @param t chars of the second text
+     * @param tOffset start of the second text in t
+     * @param n length of the second text
+     * @return Similarity percentage from 0-100, rounded to one decimal place
+     */
+    static double lowercaseTextSimilarity(char[] s, int sOffset, int m, char[] t, int tOffset, int n) {
+        return lowercaseTextSimilarity(s, sOffset, m, t, tOffset, n, Integer.MAX_VALUE);
+    }
 
-        for (int j = 0; j <= n; j++) {
-            d[0][j] = j;
-        }
+    /**
+     * Calculates text similarity between two lowercased character ranges, giving up once the
+     * edit distance is known to exceed maxDistance. Callers that only need a minimum similarity
+     * pass the largest distance that still reaches it, so the distance band stops early.
+     *
+     * @param s chars of the first text
+     * @param sOffset start of the first text in s
+     * @param m length of the first text
+     * @param t chars of the second text
+     * @param tOffset start of the second text in t
+     * @param n length of the second text
+     * @param maxDistance largest edit distance of interest
+     * @return Similarity percentage from 0-100, rounded to one decimal place, or NaN if the
+     *         distance exceeds maxDistance
+     */
+    static double lowercaseTextSimilarity(char[] s, int sOffset, int m, char[] t, int tOffset, int n, int maxDistance) {
+        int distance = EditDistance.distance(s, sOffset, m, t, tOffset, n, maxDistance);
+        if (distance > maxDistance) return Double.NaN;
 
-        for (int j = 1; j <= n; j++) {
-            for (int i = 1; i <= m; i++) {
-                int cost = (s.charAt(i - 1) == t.charAt(j - 1)) ? 0 : 1;
-                d[i][j] = Math.min(
-                        Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
-                        d[i - 1][j - 1] + cost
-                );
-            }
-        }
+        // calculate similarity percentage
+        int maxLength = Math.max(m, n);
+        if (maxLength == 0) return 100;
 
-        return d[m][n];
+        double similarity = ((maxLength - distance) * 100.0) / maxLength;
+        return Math.round(similarity * 10) / 10.0; // round to 1 decimal place
     }
 
     /**
@@ -285,42 +438,67 @@ public class FuzzyMatchingAlgorithm {
      * @param requests List of match approval requests containing student-preceptor pairs
      */
     public static void approveMatch(List<ApproveMatchRequest> requests) {
+        approveMatch(requests, MatchingConfig.fromDefaults());
+    }
+
+    /**
+     * Processes match approval requests and updates student records with the given settings.
+     *
+     * @param requests List of match approval requests containing student-preceptor pairs
+     * @param config Settings for this run, including the student update implementation
+     */
+    public static void approveMatch(List<ApproveMatchRequest> requests, MatchingConfig config) {
         List<Student> studentsToUpdate = new ArrayList<>();
 
-        System.out.println("Starting approveMatch with " + requests.size() + " requests");
+        config.getTracer().event("Starting approveMatch with " + requests.size() + " requests");
 
         for (ApproveMatchRequest req : requests) {
-            System.out.println("Processing approval request for student: " + req.getStudentId());
-            Student student = new Student();
-            student.setId(req.getStudentId());
-            student.setMatchedPreceptorId(req.getPreceptorId());
-            student.setMatchScore(req.getMatchScore());
-            student.setMatchStatus("Approved");
-
-            studentsToUpdate.add(student);
+            studentsToUpdate.add(approvedStudent(req));
         }
 
-        System.out.println("Calling updateStudents with " + studentsToUpdate.size() + " students");
+        config.getTracer().event("Calling updateStudents with " + studentsToUpdate.size() + " students");
 
-        updateStudents(studentsToUpdate);
+        updateStudents(studentsToUpdate, config);
+    }
+
+    /**
+     * @return a student record carrying the approved match of the request
+     */
+    static Student approvedStudent(ApproveMatchRequest req) {
+        Student student = new Student();
+        student.setId(req.getStudentId());
+        student.setMatchedPreceptorId(req.getPreceptorId());
+        student.setMatchScore(req.getMatchScore());
+        student.setMatchStatus("Approved");
+        return student;
     }
 
     /**
      * Updates student records with match information.
      *
      * This method either:
-     * 1. Calls the custom implementation set in updateStudentsImplementation, or
-     * 2. Falls back to a default implementation that logs the update
+     * 1. Calls the sink set on the run config (updateStudentsImplementation by default), or
+     * 2. Falls back to a default implementation that reports the update to the run's tracer
      *
      * The custom implementation can be set externally for integration with various storage systems.
      *
      * @param students List of student objects with updated match information
      */
     protected static void updateStudents(List<Student> students) {
-        if (updateStudentsImplementation != null) {
-            updateStudentsImplementation.accept(students);
+        updateStudents(students, MatchingConfig.fromDefaults());
+    }
+
+    /**
+     * Updates student records with the implementation set on the given config.
+     *
+     * @param students List of student objects with updated match information
+     * @param config Settings for this run
+     */
+    protected static void updateStudents(List<Student> students, MatchingConfig config) {
+        if (config.getStudentUpdateSink() != null) {
+            config.getStudentUpdateSink().update(students);
         } else {
-            System.out.println("Updated " + students.size() + " students");
+            config.getTracer().event("Updated " + students.size() + " students");
         }
     }
 
@@ -329,13 +507,16 @@ public class FuzzyMatchingAlgorithm {
      *
      * This class encapsulates:
      * - A student to be matched
-     * - A list of potential preceptors
+     * - A list of potential preceptors, or a prebuilt PreceptorPool
      * - A minimum score threshold for filtering matches
+     * - An optional limit on the number of matches returned
      */
     public static class MatchRequest {
         private Student student;
         private List<Preceptor> preceptors;
+        private PreceptorPool pool;
         private double minimumScore = 80.0;
+        private int maxResults;
 
         public MatchRequest() {}
 
@@ -360,6 +541,18 @@ public class FuzzyMatchingAlgorithm {
             this.minimumScore = minimumScore;
         }
 
+        /**
+         * Match request against a prebuilt pool shared by every request of the cycle
+         * @param student
+         * @param pool
+         * @param minimumScore
+         */
+        public MatchRequest(Student student, PreceptorPool pool, double minimumScore) {
+            this.student = student;
+            this.pool = pool;
+            this.minimumScore = minimumScore;
+        }
+
         /**
          * @return
          */
@@ -379,7 +572,7 @@ public class FuzzyMatchingAlgorithm {
          * @return
          */
         public List<Preceptor> getPreceptors() {
-            return preceptors;
+            return pool != null ? pool.getPreceptors() : preceptors;
         }
 
         /**
@@ -388,6 +581,21 @@ public class FuzzyMatchingAlgorithm {
          */
         public void setPreceptors(List<Preceptor> preceptors) {
             this.preceptors = preceptors;
+            this.pool = null;
+        }
+
+        /**
+         * @return the shared pool, or null if the request carries a preceptor list
+         */
+        public PreceptorPool getPool() {
+            return pool;
+        }
+
+        /**
+         * @param pool
+         */
+        public void setPool(PreceptorPool pool) {
+            this.pool = pool;
         }
 
         /**
@@ -405,6 +613,25 @@ public class FuzzyMatchingAlgorithm {
         public void setMinimumScore(double minimumScore) {
             this.minimumScore = minimumScore;
         }
+
+        /**
+         * Get max results function
+         * @return maximum number of matches returned for the student, 0 for no limit
+         */
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        /**
+         * Set max results function
+         * @param maxResults maximum number of matches returned for the student, 0 for no limit
+         */
+        public void setMaxResults(int maxResults) {
+            if (maxResults < 0) {
+                throw new IllegalArgumentException("maxResults must not be negative");
+            }
+            this.maxResults = maxResults;
+        }
     }
 
     /**
@@ -511,7 +738,7 @@ public class FuzzyMatchingAlgorithm {
         }
 
         /**
-         * Sort in descending order (highest score first)
+         * Sort in descending order (highest score first), ties broken by preceptor id
          * @param other the object to be compared.
          * @return
          */
@@ -519,7 +746,7 @@ public class FuzzyMatchingAlgorithm {
         public int compareTo(PreceptorMatch other) {
             if (score > other.score) return -1;
             if (score < other.score) return 1;
-            return 0;
+            return TopKSelector.compareIds(preceptorId, other.preceptorId);
         }
     }
 
@@ -0,0 +1,66 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InMemoryStudentSink is a StudentUpdateSink that keeps every batch it receives, standing in for
+ * the Salesforce update in tests and local runs.
+ *
+ * This class encapsulates:
+ * - The batches written so far, in the order they arrived
+ * - A number of upcoming calls to fail, to exercise retries
+ *
+ * All methods are thread safe.
+ */
+public class InMemoryStudentSink implements StudentUpdateSink {
+    private final List<List<Student>> batches = new ArrayList<>();
+    private int failures;
+    private int calls;
+
+    @Override
+    public synchronized void update(List<Student> students) {
+        calls++;
+        if (failures > 0) {
+            failures--;
+            throw new IllegalStateException("Simulated update failure");
+        }
+        batches.add(new ArrayList<>(students));
+    }
+
+    /**
+     * @param failures number of upcoming update calls that throw instead of storing their batch
+     */
+    public synchronized void setFailures(int failures) {
+        this.failures = failures;
+    }
+
+    /**
+     * @return copies of the batches stored so far
+     */
+    public synchronized List<List<Student>> getBatches() {
+        List<List<Student>> copy = new ArrayList<>();
+        for (List<Student> batch : batches) {
+            copy.add(new ArrayList<>(batch));
+        }
+        return copy;
+    }
+
+    /**
+     * @return every stored student, in the order they were written
+     */
+    public synchronized List<Student> getStudents() {
+        List<Student> students = new ArrayList<>();
+        for (List<Student> batch : batches) {
+            students.addAll(batch);
+        }
+        return students;
+    }
+
+    /**
+     * @return number of update calls, failed ones included
+     */
+    public synchronized int getCallCount() {
+        return calls;
+    }
+}
@@ -0,0 +1,149 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Explains how the score of one student-preceptor pair was built.
+ *
+ * This class encapsulates:
+ * - The student and preceptor ids
+ * - The contribution of every field that took part in the score
+ * - The final score of the pair
+ */
+public class MatchExplanation {
+    private final String studentId;
+    private final String preceptorId;
+    private final List<FieldContribution> contributions = new ArrayList<>();
+    private double score;
+
+    /**
+     * @param studentId
+     * @param preceptorId
+     */
+    public MatchExplanation(String studentId, String preceptorId) {
+        this.studentId = studentId;
+        this.preceptorId = preceptorId;
+    }
+
+    void addContribution(FieldContribution contribution) {
+        contributions.add(contribution);
+    }
+
+    void setScore(double score) {
+        this.score = score;
+    }
+
+    /**
+     * @return
+     */
+    public String getStudentId() {
+        return studentId;
+    }
+
+    /**
+     * @return
+     */
+    public String getPreceptorId() {
+        return preceptorId;
+    }
+
+    /**
+     * @return fields that took part in the score, in scoring order
+     */
+    public List<FieldContribution> getContributions() {
+        return Collections.unmodifiableList(contributions);
+    }
+
+    /**
+     * @return final 0-100 score of the pair
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(studentId).append(" -> ").append(preceptorId).append(": ").append(score).append('%');
+        for (FieldContribution contribution : contributions) {
+            text.append("\n  ").append(contribution);
+        }
+        return text.toString();
+    }
+
+    /**
+     * The part one field played in a pair score.
+     */
+    public static class FieldContribution {
+        private final String field;
+        private final String studentValue;
+        private final String preceptorValue;
+        private final double similarity;
+        private final int weight;
+
+        /**
+         * @param field
+         * @param studentValue
+         * @param preceptorValue
+         * @param similarity 0-100 similarity of the two values
+         * @param weight weight of the field in the schema
+         */
+        public FieldContribution(String field, String studentValue, String preceptorValue, double similarity, int weight) {
+            this.field = field;
+            this.studentValue = studentValue;
+            this.preceptorValue = preceptorValue;
+            this.similarity = similarity;
+            this.weight = weight;
+        }
+
+        /**
+         * @return
+         */
+        public String getField() {
+            return field;
+        }
+
+        /**
+         * @return
+         */
+        public String getStudentValue() {
+            return studentValue;
+        }
+
+        /**
+         * @return
+         */
+        public String getPreceptorValue() {
+            return preceptorValue;
+        }
+
+        /**
+         * @return
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        /**
+         * @return
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * @return weighted points the field added to the pair
+         */
+        public double getWeightedScore() {
+            return (similarity / 100) * weight;
+        }
+
+        @Override
+        public String toString() {
+            return field + " '" + studentValue + "' vs '" + preceptorValue + "': "
+                    + similarity + "% x " + weight;
+        }
+    }
+}
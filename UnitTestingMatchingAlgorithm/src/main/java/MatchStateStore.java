@@ -0,0 +1,366 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MatchStateStore keeps the match results of a whole cohort up to date as single students and
+ * preceptors change, without re-running calculateMatches.
+ *
+ * This class encapsulates:
+ * - The score of every student-preceptor pair, one row of tenths per student, indexed by a
+ *   column per preceptor
+ * - Each student's ranked matches: the columns at or above the minimum score, best first, cut to
+ *   maxResults when set
+ * - Free row and column slots left by removed students and preceptors, reused by later upserts
+ *
+ * Upserting a student rescores its row against the current pool and rebuilds its matches.
+ * Upserting a preceptor rescores its column against every student and patches each student's
+ * matches in place; a full row is only re-ranked when a preceptor drops out of a full top list.
+ * Schemas with a TFIDF_TEXT field are the exception: its scores depend on term frequencies over
+ * the whole pool, so every preceptor change rescores every student against the new pool.
+ * Results always equal a full calculateMatches run over the current students and preceptors with
+ * the same minimum score, maxResults and schema. Testing mode score overrides are not applied.
+ *
+ * Methods are synchronized, so change events may arrive from several threads.
+ */
+public class MatchStateStore {
+    private static final short NO_SCORE = -1;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final double minimumScore;
+    private final int maxResults;
+    private final MatchingConfig config;
+    // a TFIDF_TEXT field scores against the whole pool, so a preceptor change moves every score
+    private final boolean poolWideScores;
+
+    private final Map<String, Integer> studentIndex = new HashMap<>();
+    private final List<Student> students = new ArrayList<>();
+    private final List<short[]> rows = new ArrayList<>();
+    private final List<int[]> matches = new ArrayList<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+
+    private final Map<String, Integer> preceptorIndex = new HashMap<>();
+    private final List<Preceptor> preceptors = new ArrayList<>();
+    private final Deque<Integer> freeColumns = new ArrayDeque<>();
+
+    // pool of the current preceptors, rebuilt on the next student upsert after a preceptor changes
+    private PreceptorPool pool;
+    private int[] poolColumns;
+
+    /**
+     * @param minimumScore lowest score kept in a student's matches
+     * @param maxResults maximum number of matches kept per student, 0 for no limit
+     */
+    public MatchStateStore(double minimumScore, int maxResults) {
+        this(minimumScore, maxResults, new MatchingConfig());
+    }
+
+    /**
+     * @param minimumScore lowest score kept in a student's matches
+     * @param maxResults maximum number of matches kept per student, 0 for no limit
+     * @param config settings providing the scoring schema and text similarity cache
+     */
+    public MatchStateStore(double minimumScore, int maxResults, MatchingConfig config) {
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("maxResults must not be negative");
+        }
+        this.minimumScore = minimumScore;
+        this.maxResults = maxResults;
+        this.config = config;
+        boolean poolWide = false;
+        ScoringSchema schema = config.getSchema();
+        for (int f = 0; f < schema.size(); f++) {
+            if (schema.getField(f).getType() == ScoringSchema.FieldType.TFIDF_TEXT) poolWide = true;
+        }
+        this.poolWideScores = poolWide;
+    }
+
+    /**
+     * Adds a student, or replaces the student with the same id, and scores it against every
+     * preceptor.
+     *
+     * @param student
+     */
+    public synchronized void upsertStudent(Student student) {
+        Integer existing = studentIndex.get(student.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else if (!freeRows.isEmpty()) {
+            row = freeRows.pop();
+        } else {
+            row = students.size();
+            students.add(null);
+            rows.add(null);
+            matches.add(NO_MATCHES);
+        }
+        studentIndex.put(student.getId(), row);
+        students.set(row, student);
+        rescore(row);
+    }
+
+    /**
+     * Scores a student row against the current pool and ranks it from scratch.
+     */
+    private void rescore(int row) {
+        PreceptorPool current = currentPool();
+        double[] poolScores = new StudentProbe(students.get(row), current, config.getSimilarityCache()).score();
+        short[] scores = new short[preceptors.size()];
+        Arrays.fill(scores, NO_SCORE);
+        for (int poolRow = 0; poolRow < poolColumns.length; poolRow++) {
+            scores[poolColumns[poolRow]] = tenths(poolScores[poolRow]);
+        }
+        rows.set(row, scores);
+        matches.set(row, rank(scores));
+    }
+
+    private void rescoreAll() {
+        for (int row = 0; row < students.size(); row++) {
+            if (students.get(row) != null) rescore(row);
+        }
+    }
+
+    /**
+     * Removes a student and its matches.
+     *
+     * @param studentId
+     * @return true if the store held the student
+     */
+    public synchronized boolean removeStudent(String studentId) {
+        Integer row = studentIndex.remove(studentId);
+        if (row == null) return false;
+        students.set(row, null);
+        rows.set(row, null);
+        matches.set(row, NO_MATCHES);
+        freeRows.push(row);
+        return true;
+    }
+
+    /**
+     * Adds a preceptor, or replaces the preceptor with the same id, scores it against every
+     * student and patches the students' matches.
+     *
+     * @param preceptor
+     */
+    public synchronized void upsertPreceptor(Preceptor preceptor) {
+        Integer existing = preceptorIndex.get(preceptor.getId());
+        int column;
+        if (existing != null) {
+            column = existing;
+        } else if (!freeColumns.isEmpty()) {
+            column = freeColumns.pop();
+        } else {
+            column = preceptors.size();
+            preceptors.add(null);
+        }
+        preceptorIndex.put(preceptor.getId(), column);
+        preceptors.set(column, preceptor);
+        pool = null;
+        if (poolWideScores) {
+            rescoreAll();
+            return;
+        }
+
+        PreceptorPool single = new PreceptorPool(Collections.singletonList(preceptor), config.getSchema());
+        for (int row = 0; row < students.size(); row++) {
+            Student student = students.get(row);
+            if (student == null) continue;
+            short score = tenths(new StudentProbe(student, single, config.getSimilarityCache()).score()[0]);
+            updateColumn(row, column, score);
+        }
+    }
+
+    /**
+     * Removes a preceptor and drops it from every student's matches.
+     *
+     * @param preceptorId
+     * @return true if the store held the preceptor
+     */
+    public synchronized boolean removePreceptor(String preceptorId) {
+        Integer column = preceptorIndex.remove(preceptorId);
+        if (column == null) return false;
+        if (poolWideScores) {
+            preceptors.set(column, null);
+            freeColumns.push(column);
+            pool = null;
+            rescoreAll();
+            return true;
+        }
+        for (int row = 0; row < students.size(); row++) {
+            if (students.get(row) != null) updateColumn(row, column, NO_SCORE);
+        }
+        preceptors.set(column, null);
+        freeColumns.push(column);
+        pool = null;
+        return true;
+    }
+
+    /**
+     * @param studentId
+     * @return the student's matches, highest score first, or an empty list for unknown students
+     */
+    public synchronized List<FuzzyMatchingAlgorithm.PreceptorMatch> getMatches(String studentId) {
+        Integer row = studentIndex.get(studentId);
+        return row != null ? toMatches(row) : new ArrayList<FuzzyMatchingAlgorithm.PreceptorMatch>();
+    }
+
+    /**
+     * @return the matches of every student, one result per student held by the store
+     */
+    public synchronized List<FuzzyMatchingAlgorithm.MatchResult> getResults() {
+        List<FuzzyMatchingAlgorithm.MatchResult> results = new ArrayList<>();
+        for (int row = 0; row < students.size(); row++) {
+            Student student = students.get(row);
+            if (student == null) continue;
+            results.add(new FuzzyMatchingAlgorithm.MatchResult(student.getId(), student.getName(), toMatches(row)));
+        }
+        return results;
+    }
+
+    /**
+     * @param studentId
+     * @param preceptorId
+     * @return score of the pair, or NaN if either side is unknown
+     */
+    public synchronized double getScore(String studentId, String preceptorId) {
+        Integer row = studentIndex.get(studentId);
+        Integer column = preceptorIndex.get(preceptorId);
+        if (row == null || column == null) return Double.NaN;
+        return score(rows.get(row), column);
+    }
+
+    private List<FuzzyMatchingAlgorithm.PreceptorMatch> toMatches(int row) {
+        short[] scores = rows.get(row);
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> result = new ArrayList<>();
+        for (int column : matches.get(row)) {
+            Preceptor preceptor = preceptors.get(column);
+            result.add(new FuzzyMatchingAlgorithm.PreceptorMatch(
+                    preceptor.getId(), preceptor.getName(), score(scores, column), preceptor));
+        }
+        return result;
+    }
+
+    private PreceptorPool currentPool() {
+        if (pool == null) {
+            List<Preceptor> current = new ArrayList<>();
+            int[] columns = new int[preceptorIndex.size()];
+            for (int column = 0; column < preceptors.size(); column++) {
+                if (preceptors.get(column) == null) continue;
+                columns[current.size()] = column;
+                current.add(preceptors.get(column));
+            }
+            pool = new PreceptorPool(current, config.getSchema());
+            poolColumns = columns;
+        }
+        return pool;
+    }
+
+    /**
+     * Stores a new score for one pair and patches the student's ranked matches.
+     */
+    private void updateColumn(int row, int column, short score) {
+        short[] scores = rows.get(row);
+        if (column >= scores.length) {
+            int oldLength = scores.length;
+            scores = Arrays.copyOf(scores, Math.max(column + 1, oldLength * 2));
+            Arrays.fill(scores, oldLength, scores.length, NO_SCORE);
+            rows.set(row, scores);
+        }
+        short oldScore = scores[column];
+        scores[column] = score;
+
+        int[] ranked = matches.get(row);
+        int position = indexOf(ranked, column);
+        if (position >= 0 && maxResults > 0 && ranked.length == maxResults && score < oldScore) {
+            // a column outside the full list may now beat this one
+            matches.set(row, rank(scores));
+            return;
+        }
+        if (position >= 0) {
+            ranked = remove(ranked, position);
+        }
+        if (qualifies(score)) {
+            ranked = insert(ranked, scores, column);
+        }
+        matches.set(row, ranked);
+    }
+
+    /**
+     * Ranks every column of a row from scratch.
+     */
+    private int[] rank(short[] scores) {
+        int count = 0;
+        Integer[] kept = new Integer[scores.length];
+        for (int column = 0; column < scores.length; column++) {
+            if (qualifies(scores[column])) kept[count++] = column;
+        }
+        Arrays.sort(kept, 0, count, (a, b) -> compare(scores, a, b));
+        if (maxResults > 0) count = Math.min(count, maxResults);
+
+        int[] ranked = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranked[i] = kept[i];
+        }
+        return ranked;
+    }
+
+    private int[] insert(int[] ranked, short[] scores, int column) {
+        int position = 0;
+        while (position < ranked.length && compare(scores, ranked[position], column) < 0) {
+            position++;
+        }
+        if (maxResults > 0 && position >= maxResults) return ranked;
+
+        int length = maxResults > 0 ? Math.min(ranked.length + 1, maxResults) : ranked.length + 1;
+        int[] result = new int[length];
+        System.arraycopy(ranked, 0, result, 0, position);
+        result[position] = column;
+        System.arraycopy(ranked, position, result, position + 1, length - position - 1);
+        return result;
+    }
+
+    private static int[] remove(int[] ranked, int position) {
+        int[] result = new int[ranked.length - 1];
+        System.arraycopy(ranked, 0, result, 0, position);
+        System.arraycopy(ranked, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    private static int indexOf(int[] ranked, int column) {
+        for (int i = 0; i < ranked.length; i++) {
+            if (ranked[i] == column) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Orders columns like PreceptorMatch: highest score first, ties by preceptor id.
+     */
+    private int compare(short[] scores, int a, int b) {
+        if (scores[a] != scores[b]) return scores[a] > scores[b] ? -1 : 1;
+        return TopKSelector.compareIds(preceptors.get(a).getId(), preceptors.get(b).getId());
+    }
+
+    private boolean qualifies(short score) {
+        return score != NO_SCORE && score / 10.0 >= minimumScore;
+    }
+
+    private static double score(short[] scores, int column) {
+        if (column >= scores.length || scores[column] == NO_SCORE) return Double.NaN;
+        return scores[column] / 10.0;
+    }
+
+    /**
+     * Scores are rounded to one decimal, so tenths keep them exactly in a short.
+     */
+    private static short tenths(double score) {
+        return (short) Math.round(score * 10);
+    }
+}
@@ -0,0 +1,98 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MatchTracer receives debugging output from the matcher.
+ *
+ * The default tracer, NOOP, ignores everything and makes the matcher skip all tracing work.
+ * Other tracers can ask for per-pair explanations, which are built outside the scoring loop
+ * and only for the pairs the tracer selects, for example one pair in N with sampled().
+ */
+public interface MatchTracer {
+
+    /**
+     * Tracer that records nothing.
+     */
+    MatchTracer NOOP = new MatchTracer() {
+        @Override
+        public boolean shouldExplain(Student student, Preceptor preceptor) {
+            return false;
+        }
+
+        @Override
+        public void explain(MatchExplanation explanation) {
+        }
+
+        @Override
+        public void event(String message) {
+        }
+    };
+
+    /**
+     * @return true if the score of this pair should be explained through explain()
+     */
+    boolean shouldExplain(Student student, Preceptor preceptor);
+
+    /**
+     * Receives the explanation of a pair selected by shouldExplain().
+     */
+    void explain(MatchExplanation explanation);
+
+    /**
+     * Receives a coarse progress message, e.g. from approveMatch.
+     */
+    void event(String message);
+
+    /**
+     * @param out stream to write to
+     * @return tracer that explains every pair and writes everything to the stream
+     */
+    static MatchTracer printing(final PrintStream out) {
+        return new MatchTracer() {
+            @Override
+            public boolean shouldExplain(Student student, Preceptor preceptor) {
+                return true;
+            }
+
+            @Override
+            public void explain(MatchExplanation explanation) {
+                out.println(explanation);
+            }
+
+            @Override
+            public void event(String message) {
+                out.println(message);
+            }
+        };
+    }
+
+    /**
+     * @param delegate tracer receiving the sampled explanations and every event
+     * @param everyN explain one pair out of every N pairs the delegate would explain
+     * @return tracer that forwards only a sample of the pair explanations
+     */
+    static MatchTracer sampled(final MatchTracer delegate, final int everyN) {
+        if (everyN < 1) {
+            throw new IllegalArgumentException("everyN must be at least 1");
+        }
+        final AtomicLong pairs = new AtomicLong();
+        return new MatchTracer() {
+            @Override
+            public boolean shouldExplain(Student student, Preceptor preceptor) {
+                return delegate.shouldExplain(student, preceptor) && pairs.getAndIncrement() % everyN == 0;
+            }
+
+            @Override
+            public void explain(MatchExplanation explanation) {
+                delegate.explain(explanation);
+            }
+
+            @Override
+            public void event(String message) {
+                delegate.event(message);
+            }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MatchingConfig holds the settings for a single matching or approval run.
+ *
+ * This class encapsulates:
+ * - The scoring schema used for requests that do not carry their own pool
+ * - Whether testing mode score overrides are applied
+ * - The sink used to persist approved students
+ * - How parallel runs split their work
+ * - The text similarity cache shared across students
+ * - Whether preceptors that cannot reach a request's minimum score are skipped, and the
+ *   counters of that blocking stage
+ * - The tracer receiving debugging output, silent by default
+ *
+ * Each run reads its own config instead of the static fields on FuzzyMatchingAlgorithm, so runs
+ * with different settings can execute on different threads at the same time.
+ */
+public class MatchingConfig {
+    private ScoringSchema schema = ScoringSchema.DEFAULT;
+    private boolean testingMode;
+    private StudentUpdateSink studentUpdateSink;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int preceptorSplitThreshold = 20000;
+    private SimilarityCache similarityCache = SimilarityCache.SHARED;
+    private MatchTracer tracer = MatchTracer.NOOP;
+    private boolean blockingEnabled;
+    private final BlockingStats blockingStats = new BlockingStats();
+
+    public MatchingConfig() {}
+
+    /**
+     * Creates a config from the static defaults on FuzzyMatchingAlgorithm, so existing callers
+     * that set TESTING_MODE or updateStudentsImplementation keep their behavior.
+     *
+     * @return a new config holding a snapshot of the static defaults
+     */
+    public static MatchingConfig fromDefaults() {
+        MatchingConfig config = new MatchingConfig();
+        config.setTestingMode(FuzzyMatchingAlgorithm.TESTING_MODE);
+        config.setUpdateStudentsImplementation(FuzzyMatchingAlgorithm.updateStudentsImplementation);
+        return config;
+    }
+
+    /**
+     * @return
+     */
+    public ScoringSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param schema
+     */
+    public void setSchema(ScoringSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @return true if fixed scores are forced for the sample preceptors PR001-PR003
+     */
+    public boolean isTestingMode() {
+        return testingMode;
+    }
+
+    /**
+     * @param testingMode
+     */
+    public void setTestingMode(boolean testingMode) {
+        this.testingMode = testingMode;
+    }
+
+    /**
+     * @return the implementation used to persist approved students, or null to only log
+     */
+    public Consumer<List<Student>> getUpdateStudentsImplementation() {
+        final StudentUpdateSink sink = studentUpdateSink;
+        return sink != null ? students -> sink.update(students) : null;
+    }
+
+    /**
+     * Kept for callers written against the static Consumer; same as setStudentUpdateSink.
+     *
+     * @param updateStudentsImplementation
+     */
+    public void setUpdateStudentsImplementation(Consumer<List<Student>> updateStudentsImplementation) {
+        this.studentUpdateSink = updateStudentsImplementation != null ? updateStudentsImplementation::accept : null;
+    }
+
+    /**
+     * @return the sink used to persist approved students, or null to only log
+     */
+    public StudentUpdateSink getStudentUpdateSink() {
+        return studentUpdateSink;
+    }
+
+    /**
+     * @param studentUpdateSink sink to use, or null to only report updates to the tracer
+     */
+    public void setStudentUpdateSink(StudentUpdateSink studentUpdateSink) {
+        this.studentUpdateSink = studentUpdateSink;
+    }
+
+    /**
+     * @return number of workers a parallel run splits its requests across
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return pool size from which a parallel run also splits one student's preceptors across workers
+     */
+    public int getPreceptorSplitThreshold() {
+        return preceptorSplitThreshold;
+    }
+
+    /**
+     * @param preceptorSplitThreshold
+     */
+    public void setPreceptorSplitThreshold(int preceptorSplitThreshold) {
+        this.preceptorSplitThreshold = preceptorSplitThreshold;
+    }
+
+    /**
+     * @return cache of text similarity results shared across students, or null for no cache
+     */
+    public SimilarityCache getSimilarityCache() {
+        return similarityCache;
+    }
+
+    /**
+     * @param similarityCache cache to use, or null to only memoize within one student
+     */
+    public void setSimilarityCache(SimilarityCache similarityCache) {
+        this.similarityCache = similarityCache;
+    }
+
+    /**
+     * @return tracer receiving pair explanations and progress messages
+     */
+    public MatchTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * @param tracer tracer to use, MatchTracer.NOOP to turn tracing off
+     */
+    public void setTracer(MatchTracer tracer) {
+        this.tracer = tracer != null ? tracer : MatchTracer.NOOP;
+    }
+
+    /**
+     * @return true if each student is only scored against the preceptors that can still reach
+     *         the request's minimum score
+     */
+    public boolean isBlockingEnabled() {
+        return blockingEnabled;
+    }
+
+    /**
+     * Blocking never changes the returned matches, only how many pairs get scored. It is skipped
+     * in testing mode, where fixed scores replace the computed ones.
+     *
+     * @param blockingEnabled
+     */
+    public void setBlockingEnabled(boolean blockingEnabled) {
+        this.blockingEnabled = blockingEnabled;
+    }
+
+    /**
+     * @return counters of pairs looked at and pruned by the blocking stage of this config's runs
+     */
+    public BlockingStats getBlockingStats() {
+        return blockingStats;
+    }
+}
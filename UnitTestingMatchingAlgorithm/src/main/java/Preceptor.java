@@ -2,15 +2,13 @@ package UnitTestingMatchingAlgorithm.src.main.java;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class Preceptor {
     private String id;
     private String name;
 
-    private Map<String, Object> fields = new HashMap<>();
+    private final FieldValues fields = new FieldValues();
 
     public Preceptor() {
     }
@@ -37,7 +35,7 @@ public class Preceptor {
     }
 
     public void setFieldValue(String fieldName, Object value) {
-        fields.put(fieldName, value);
+        fields.set(fieldName, value);
     }
 
     public Object getFieldValue(String fieldName) {
@@ -49,6 +47,10 @@ public class Preceptor {
         return value != null ? String.valueOf(value) : defaultValue;
     }
 
+    FieldValues getFieldValues() {
+        return fields;
+    }
+
     public static List<Preceptor> createSamplePreceptors() {
         List<Preceptor> preceptors = new ArrayList<>();
 
@@ -0,0 +1,374 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PreceptorPool stores a whole preceptor population in columns, one column per schema field.
+ *
+ * This class encapsulates:
+ * - The preceptors themselves, in row order
+ * - An int[] of epoch days for every date field, and a second one holding the window ends of
+ *   date range fields
+ * - An int[] of dictionary codes for every text and picklist field
+ * - A per-field dictionary holding each distinct value once, with lowercased text kept in a
+ *   shared char[] addressed by offsets
+ * - For multi-select picklists, a bitset of the selected options for every distinct value
+ * - For TF-IDF text fields, the term vector of every distinct value (see TermVectors)
+ *
+ * A pool is immutable once built, so the same pool can be shared by every MatchRequest in a
+ * matching cycle and scored from several threads at once.
+ */
+public final class PreceptorPool {
+
+    /**
+     * Code stored in a text or picklist column when the preceptor has no value.
+     */
+    public static final int NO_VALUE = -1;
+
+    private final ScoringSchema schema;
+    private final Preceptor[] preceptors;
+    private final int[][] dayColumns;
+    private final int[][] endDayColumns;
+    private final int[][] codeColumns;
+    private final Dictionary[] dictionaries;
+    private volatile CandidateIndex candidateIndex;
+    private volatile AvailabilityIndex availabilityIndex;
+
+    /**
+     * Builds a pool for the default scoring schema.
+     *
+     * @param preceptors preceptors in row order
+     */
+    public PreceptorPool(List<Preceptor> preceptors) {
+        this(preceptors, ScoringSchema.DEFAULT);
+    }
+
+    /**
+     * Builds a pool holding one column per field of the given schema.
+     *
+     * @param preceptors preceptors in row order
+     * @param schema schema the pool will be scored with
+     */
+    public PreceptorPool(List<Preceptor> preceptors, ScoringSchema schema) {
+        this.schema = schema;
+        this.preceptors = preceptors.toArray(new Preceptor[0]);
+        this.dayColumns = new int[schema.size()][];
+        this.endDayColumns = new int[schema.size()][];
+        this.codeColumns = new int[schema.size()][];
+        this.dictionaries = new Dictionary[schema.size()];
+
+        int size = this.preceptors.length;
+        for (int f = 0; f < schema.size(); f++) {
+            ScoringSchema.Field field = schema.getField(f);
+            int slot = field.getSlot();
+
+            if (field.getType() == ScoringSchema.FieldType.DATE) {
+                int[] days = new int[size];
+                for (int row = 0; row < size; row++) {
+                    days[row] = epochDay(this.preceptors[row], field.getName(), slot);
+                }
+                dayColumns[f] = days;
+            } else if (field.getType() == ScoringSchema.FieldType.DATE_RANGE) {
+                int[] starts = new int[size];
+                int[] ends = new int[size];
+                for (int row = 0; row < size; row++) {
+                    int start = epochDay(this.preceptors[row], field.getStartField(), slot);
+                    int end = epochDay(this.preceptors[row], field.getEndField(), field.getEndSlot());
+                    if (start == FieldLayout.NO_DATE || end == FieldLayout.NO_DATE) {
+                        start = FieldLayout.NO_DATE;
+                        end = FieldLayout.NO_DATE;
+                    }
+                    // a window entered backwards still covers the days between its dates
+                    starts[row] = Math.min(start, end);
+                    ends[row] = Math.max(start, end);
+                }
+                dayColumns[f] = starts;
+                endDayColumns[f] = ends;
+            } else {
+                Dictionary dictionary = new Dictionary();
+                int[] codes = new int[size];
+                for (int row = 0; row < size; row++) {
+                    String value = slot >= 0
+                            ? this.preceptors[row].getFieldValues().text(slot)
+                            : stringValue(this.preceptors[row].getFieldValue(field.getName()));
+                    codes[row] = value != null ? dictionary.add(value) : NO_VALUE;
+                }
+                dictionary.trim();
+                if (field.getType() == ScoringSchema.FieldType.MULTI_PICKLIST) {
+                    dictionary.indexOptions();
+                } else if (field.getType() == ScoringSchema.FieldType.TFIDF_TEXT) {
+                    dictionary.indexTerms(codes);
+                }
+                codeColumns[f] = codes;
+                dictionaries[f] = dictionary;
+            }
+        }
+    }
+
+    /**
+     * Wraps columns that were already built, as decoded from a PreceptorSnapshot.
+     */
+    PreceptorPool(ScoringSchema schema, Preceptor[] preceptors, int[][] dayColumns, int[][] endDayColumns,
+                  int[][] codeColumns, Dictionary[] dictionaries) {
+        this.schema = schema;
+        this.preceptors = preceptors;
+        this.dayColumns = dayColumns;
+        this.endDayColumns = endDayColumns;
+        this.codeColumns = codeColumns;
+        this.dictionaries = dictionaries;
+    }
+
+    private static int epochDay(Preceptor preceptor, String name, int slot) {
+        if (slot >= 0) return preceptor.getFieldValues().epochDay(slot);
+        LocalDate date = (LocalDate) preceptor.getFieldValue(name);
+        return date != null ? (int) date.toEpochDay() : FieldLayout.NO_DATE;
+    }
+
+    private static String stringValue(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    /**
+     * @return number of preceptors in the pool
+     */
+    public int size() {
+        return preceptors.length;
+    }
+
+    /**
+     * @return schema the pool columns were built for
+     */
+    public ScoringSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param row
+     * @return the preceptor stored at the given row
+     */
+    public Preceptor getPreceptor(int row) {
+        return preceptors[row];
+    }
+
+    /**
+     * @return read-only view of the preceptors in row order
+     */
+    public List<Preceptor> getPreceptors() {
+        return Collections.unmodifiableList(Arrays.asList(preceptors));
+    }
+
+    int[] dayColumn(int field) {
+        return dayColumns[field];
+    }
+
+    /**
+     * @return last epoch day of each row's window for a DATE_RANGE field, null for other types
+     */
+    int[] endDayColumn(int field) {
+        return endDayColumns[field];
+    }
+
+    int[] codeColumn(int field) {
+        return codeColumns[field];
+    }
+
+    Dictionary dictionary(int field) {
+        return dictionaries[field];
+    }
+
+    /**
+     * @return the blocking index of the pool, built on first use
+     */
+    CandidateIndex candidateIndex() {
+        CandidateIndex index = candidateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = candidateIndex;
+                if (index == null) {
+                    index = new CandidateIndex(this);
+                    candidateIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return interval index over the startDate/endDate window of every preceptor, built on
+     *         first use
+     */
+    public AvailabilityIndex availabilityIndex() {
+        AvailabilityIndex index = availabilityIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = availabilityIndex;
+                if (index == null) {
+                    index = new AvailabilityIndex(this);
+                    availabilityIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Distinct values of one text or picklist field.
+     *
+     * Codes are assigned in first-seen order. Each value is kept as entered for picklist equality,
+     * and lowercased in a shared char[] for text similarity. Multi-select values additionally get
+     * one bit per option, so option overlap is a popcount over a few longs.
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<String> lowerValues = new ArrayList<>();
+        private char[] chars = new char[64];
+        private int[] offsets = new int[17];
+        private int charCount;
+        private Map<String, Integer> optionBits;
+        private long[] optionMasks;
+        private int optionWords;
+        private TermVectors termVectors;
+
+        int add(String value) {
+            Integer code = codes.get(value);
+            if (code != null) return code;
+
+            int newCode = values.size();
+            codes.put(value, newCode);
+            values.add(value);
+
+            String lower = value.toLowerCase().intern();
+            lowerValues.add(lower);
+            if (charCount + lower.length() > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + lower.length()));
+            }
+            lower.getChars(0, lower.length(), chars, charCount);
+            charCount += lower.length();
+
+            if (newCode + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[newCode + 1] = charCount;
+            return newCode;
+        }
+
+        void trim() {
+            chars = Arrays.copyOf(chars, charCount);
+            offsets = Arrays.copyOf(offsets, values.size() + 1);
+        }
+
+        /**
+         * Assigns a bit to every option seen in the dictionary values and stores the option
+         * bitset of each value, optionWords() longs per code.
+         */
+        void indexOptions() {
+            optionBits = new HashMap<>();
+            for (String value : values) {
+                for (String option : splitOptions(value)) {
+                    if (!optionBits.containsKey(option)) {
+                        optionBits.put(option, optionBits.size());
+                    }
+                }
+            }
+
+            optionWords = Math.max(1, (optionBits.size() + 63) >>> 6);
+            optionMasks = new long[values.size() * optionWords];
+            for (int code = 0; code < values.size(); code++) {
+                for (String option : splitOptions(values.get(code))) {
+                    int bit = optionBits.get(option);
+                    optionMasks[code * optionWords + (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        /**
+         * Builds the TF-IDF vector of every value, with word frequencies counted over the rows
+         * of the given column.
+         *
+         * @param column dictionary code of every pool row
+         */
+        void indexTerms(int[] column) {
+            termVectors = new TermVectors(this, column);
+        }
+
+        /**
+         * @return the term vectors built by indexTerms, or null
+         */
+        TermVectors termVectors() {
+            return termVectors;
+        }
+
+        /**
+         * @param value multi-select value as entered, options separated by ';'
+         * @return the distinct trimmed options of the value, in order
+         */
+        static List<String> splitOptions(String value) {
+            LinkedHashSet<String> options = new LinkedHashSet<>();
+            for (String option : value.split(";")) {
+                String trimmed = option.trim();
+                if (!trimmed.isEmpty()) {
+                    options.add(trimmed);
+                }
+            }
+            return new ArrayList<>(options);
+        }
+
+        /**
+         * @param option a single trimmed option
+         * @return the bit of the option, or NO_VALUE if no preceptor selected it
+         */
+        int optionBit(String option) {
+            Integer bit = optionBits.get(option);
+            return bit != null ? bit : NO_VALUE;
+        }
+
+        int optionWords() {
+            return optionWords;
+        }
+
+        long[] optionMasks() {
+            return optionMasks;
+        }
+
+        /**
+         * @param value value as entered
+         * @return the code of the value, or NO_VALUE if the pool never saw it
+         */
+        int code(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : NO_VALUE;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        String lowerValue(int code) {
+            return lowerValues.get(code);
+        }
+
+        char[] chars() {
+            return chars;
+        }
+
+        int offset(int code) {
+            return offsets[code];
+        }
+
+        int length(int code) {
+            return offsets[code + 1] - offsets[code];
+        }
+    }
+}
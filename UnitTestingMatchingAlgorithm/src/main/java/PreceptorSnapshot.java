@@ -0,0 +1,309 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * PreceptorSnapshot saves a PreceptorPool to a compact binary file and maps it back in, so a
+ * restarted matcher gets its pool without reading and parsing the roster again.
+ *
+ * This class encapsulates:
+ * - A versioned file layout holding the pool columns as they are scored: epoch days for dates,
+ *   dictionary codes for text and picklist fields, and one string table per dictionary
+ * - Writing through a temporary file that replaces the old snapshot in one move, so a process
+ *   that still maps the old file keeps a consistent view
+ * - Reading by mapping the file with FileChannel.map and copying each section into its column
+ *   in bulk; every JVM that reads the snapshot holds its own copy of the pool on its heap, the
+ *   OS page cache only makes reading the file again cheaper
+ *
+ * Layout, big-endian:
+ * - int magic, int version, int row count, int field count
+ * - per schema field: its name as a one-entry string table, then int type ordinal
+ * - string tables of the preceptor ids and of the preceptor names
+ * - per schema field: int[rows] days for DATE; int[rows] starts and int[rows] ends for
+ *   DATE_RANGE; otherwise the dictionary string table followed by int[rows] codes
+ *
+ * A string table is int count, int total chars, int[count] lengths (-1 for null), then the chars
+ * of every non-null entry back to back.
+ *
+ * Snapshots keep the fields of the schema they were written with. The preceptors of a read pool
+ * are rebuilt from those columns, so fields outside the schema are not restored, and date windows
+ * come back in the normalized form the pool scores.
+ */
+public final class PreceptorSnapshot {
+
+    /**
+     * First int of every snapshot file, "PCPS" in ASCII.
+     */
+    public static final int MAGIC = 0x50435053;
+
+    /**
+     * Version of the layout written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private PreceptorSnapshot() {
+    }
+
+    /**
+     * Writes the pool columns to a snapshot file, replacing any previous snapshot at that path.
+     *
+     * @param pool pool to save
+     * @param file destination of the snapshot
+     * @throws IOException if writing fails
+     */
+    public static void write(PreceptorPool pool, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                write(pool, out);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void write(PreceptorPool pool, DataOutputStream out) throws IOException {
+        ScoringSchema schema = pool.getSchema();
+        int rows = pool.size();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows);
+        out.writeInt(schema.size());
+        for (int f = 0; f < schema.size(); f++) {
+            writeStrings(out, new String[] {schema.getField(f).getName()});
+            out.writeInt(schema.getField(f).getType().ordinal());
+        }
+
+        String[] ids = new String[rows];
+        String[] names = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            ids[row] = pool.getPreceptor(row).getId();
+            names[row] = pool.getPreceptor(row).getName();
+        }
+        writeStrings(out, ids);
+        writeStrings(out, names);
+
+        for (int f = 0; f < schema.size(); f++) {
+            ScoringSchema.FieldType type = schema.getField(f).getType();
+            if (type == ScoringSchema.FieldType.DATE) {
+                writeInts(out, pool.dayColumn(f));
+            } else if (type == ScoringSchema.FieldType.DATE_RANGE) {
+                writeInts(out, pool.dayColumn(f));
+                writeInts(out, pool.endDayColumn(f));
+            } else {
+                PreceptorPool.Dictionary dictionary = pool.dictionary(f);
+                String[] values = new String[dictionary.size()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = dictionary.value(code);
+                }
+                writeStrings(out, values);
+                writeInts(out, pool.codeColumn(f));
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+        int totalChars = 0;
+        for (String string : strings) {
+            if (string != null) totalChars += string.length();
+        }
+        out.writeInt(strings.length);
+        out.writeInt(totalChars);
+        for (String string : strings) {
+            out.writeInt(string != null ? string.length() : -1);
+        }
+        for (String string : strings) {
+            if (string != null) out.writeChars(string);
+        }
+    }
+
+    /**
+     * Maps a snapshot written for the default scoring schema.
+     *
+     * @param file snapshot to read
+     * @return pool holding the saved preceptors
+     * @throws IOException if the file cannot be read or is not a snapshot of this version
+     */
+    public static PreceptorPool read(Path file) throws IOException {
+        return read(file, ScoringSchema.DEFAULT);
+    }
+
+    /**
+     * Maps a snapshot and builds a pool from its columns.
+     *
+     * @param file snapshot to read
+     * @param schema schema the pool will be scored with, matching the one the snapshot was
+     *               written with field for field
+     * @return pool holding the saved preceptors
+     * @throws IOException if the file cannot be read or is not a snapshot of this version
+     * @throws IllegalArgumentException if the snapshot was written for a different schema
+     */
+    public static PreceptorPool read(Path file, ScoringSchema schema) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + file);
+            }
+            // the mapping stays valid once the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return decode(buffer, schema, file);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated preceptor snapshot: " + file, e);
+        }
+    }
+
+    private static PreceptorPool decode(ByteBuffer buffer, ScoringSchema schema, Path file) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a preceptor snapshot: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported preceptor snapshot version " + version + ": " + file);
+        }
+        int rows = buffer.getInt();
+        int fieldCount = buffer.getInt();
+        if (rows < 0) {
+            throw new IOException("Invalid preceptor snapshot, " + rows + " rows: " + file);
+        }
+        if (fieldCount != schema.size()) {
+            throw new IllegalArgumentException("Snapshot has " + fieldCount + " fields, schema has " + schema.size());
+        }
+        for (int f = 0; f < fieldCount; f++) {
+            String[] names = readStrings(buffer);
+            if (names.length != 1) {
+                throw new IOException("Invalid preceptor snapshot, field " + f + " has no name: " + file);
+            }
+            String name = names[0];
+            int type = buffer.getInt();
+            ScoringSchema.Field field = schema.getField(f);
+            if (!field.getName().equals(name) || field.getType().ordinal() != type) {
+                throw new IllegalArgumentException("Snapshot field " + f + " is " + name + ", schema expects "
+                        + field.getName());
+            }
+        }
+
+        String[] ids = readStrings(buffer);
+        String[] names = readStrings(buffer);
+        if (ids.length != rows || names.length != rows) {
+            throw new IOException("Invalid preceptor snapshot, " + ids.length + " ids and " + names.length
+                    + " names for " + rows + " rows: " + file);
+        }
+        Preceptor[] preceptors = new Preceptor[rows];
+        for (int row = 0; row < rows; row++) {
+            preceptors[row] = new Preceptor(ids[row], names[row]);
+        }
+
+        int[][] dayColumns = new int[fieldCount][];
+        int[][] endDayColumns = new int[fieldCount][];
+        int[][] codeColumns = new int[fieldCount][];
+        PreceptorPool.Dictionary[] dictionaries = new PreceptorPool.Dictionary[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            ScoringSchema.Field field = schema.getField(f);
+            if (field.getType() == ScoringSchema.FieldType.DATE) {
+                dayColumns[f] = readInts(buffer, rows);
+                restoreDates(preceptors, field.getName(), field.getSlot(), dayColumns[f]);
+            } else if (field.getType() == ScoringSchema.FieldType.DATE_RANGE) {
+                dayColumns[f] = readInts(buffer, rows);
+                endDayColumns[f] = readInts(buffer, rows);
+                restoreDates(preceptors, field.getStartField(), field.getSlot(), dayColumns[f]);
+                restoreDates(preceptors, field.getEndField(), field.getEndSlot(), endDayColumns[f]);
+            } else {
+                PreceptorPool.Dictionary dictionary = new PreceptorPool.Dictionary();
+                for (String value : readStrings(buffer)) {
+                    dictionary.add(value.intern());
+                }
+                dictionary.trim();
+                if (field.getType() == ScoringSchema.FieldType.MULTI_PICKLIST) {
+                    dictionary.indexOptions();
+                }
+                codeColumns[f] = readInts(buffer, rows);
+                if (field.getType() == ScoringSchema.FieldType.TFIDF_TEXT) {
+                    dictionary.indexTerms(codeColumns[f]);
+                }
+                dictionaries[f] = dictionary;
+                restoreText(preceptors, field, dictionary, codeColumns[f]);
+            }
+        }
+        return new PreceptorPool(schema, preceptors, dayColumns, endDayColumns, codeColumns, dictionaries);
+    }
+
+    private static void restoreDates(Preceptor[] preceptors, String name, int slot, int[] days) {
+        for (int row = 0; row < preceptors.length; row++) {
+            if (days[row] == FieldLayout.NO_DATE) continue;
+            if (slot >= 0) {
+                preceptors[row].getFieldValues().setEpochDay(slot, days[row]);
+            } else {
+                preceptors[row].setFieldValue(name, LocalDate.ofEpochDay(days[row]));
+            }
+        }
+    }
+
+    private static void restoreText(Preceptor[] preceptors, ScoringSchema.Field field,
+                                    PreceptorPool.Dictionary dictionary, int[] codes) {
+        int slot = field.getSlot();
+        for (int row = 0; row < preceptors.length; row++) {
+            int code = codes[row];
+            if (code == PreceptorPool.NO_VALUE) continue;
+            if (slot >= 0) {
+                preceptors[row].getFieldValues().setInternedText(slot, dictionary.value(code), dictionary.lowerValue(code));
+            } else {
+                preceptors[row].setFieldValue(field.getName(), dictionary.value(code));
+            }
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        if ((long) count * 4 > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    private static String[] readStrings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int totalChars = buffer.getInt();
+        if (count < 0 || totalChars < 0 || (long) count * 4 + (long) totalChars * 2 > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int[] lengths = readInts(buffer, count);
+        char[] chars = new char[totalChars];
+        buffer.asCharBuffer().get(chars);
+        buffer.position(buffer.position() + totalChars * 2);
+
+        String[] strings = new String[count];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] == -1) continue;
+            if (lengths[i] < 0 || lengths[i] > totalChars - offset) {
+                throw new BufferUnderflowException();
+            }
+            strings[i] = new String(chars, offset, lengths[i]);
+            offset += lengths[i];
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,698 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * RecordLoader streams Student and Preceptor records out of CSV or JSON Lines files, such as the
+ * exports produced by Salesforce.
+ *
+ * This class encapsulates:
+ * - A CSV reader following RFC 4180: the first record names the fields, and quoted values may
+ *   hold commas, quotes and line breaks
+ * - A JSON Lines reader taking one flat object per record; nested values, such as the
+ *   "attributes" object of a Salesforce export, are skipped
+ * - Columns resolved once per field name, so every value goes straight into its FieldLayout
+ *   slot without building a Map per record
+ * - A table of values already seen per column, so a repeated answer reuses one interned String
+ *   and its interned lowercase form instead of allocating new ones
+ * - yyyy-MM-dd dates, optionally followed by a time, parsed straight into epoch days
+ * - streamMatches, which scores students chunk by chunk while the file is still being read
+ *
+ * The "id" and "name" fields, in any case, fill the record id and name. Empty values and JSON
+ * nulls leave a field unset, and fields outside the layout are kept like any other
+ * setFieldValue call. Malformed input fails with an IllegalArgumentException naming the line.
+ */
+public final class RecordLoader {
+
+    /**
+     * File formats the loader reads.
+     */
+    public enum Format {
+        CSV,
+        JSONL
+    }
+
+    /**
+     * Number of students scored together by streamMatches.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private RecordLoader() {
+    }
+
+    /**
+     * @param in source of the records, read to the end but not closed
+     * @param format format of the source
+     * @return every student of the source, in file order
+     * @throws IOException if reading fails
+     */
+    public static List<Student> loadStudents(Reader in, Format format) throws IOException {
+        List<Student> students = new ArrayList<>();
+        forEachStudent(in, format, students::add);
+        return students;
+    }
+
+    /**
+     * @param in source of the records, read to the end but not closed
+     * @param format format of the source
+     * @return every preceptor of the source, in file order
+     * @throws IOException if reading fails
+     */
+    public static List<Preceptor> loadPreceptors(Reader in, Format format) throws IOException {
+        List<Preceptor> preceptors = new ArrayList<>();
+        forEachPreceptor(in, format, preceptors::add);
+        return preceptors;
+    }
+
+    /**
+     * Hands each student to the action as soon as it is parsed, without keeping it.
+     *
+     * @param in source of the records, read to the end but not closed
+     * @param format format of the source
+     * @param action receives the students in file order
+     * @return number of students read
+     * @throws IOException if reading fails
+     */
+    public static int forEachStudent(Reader in, Format format, Consumer<Student> action) throws IOException {
+        return forEach(new RecordParser<>(in, format, STUDENTS), action);
+    }
+
+    /**
+     * Hands each preceptor to the action as soon as it is parsed, without keeping it.
+     *
+     * @param in source of the records, read to the end but not closed
+     * @param format format of the source
+     * @param action receives the preceptors in file order
+     * @return number of preceptors read
+     * @throws IOException if reading fails
+     */
+    public static int forEachPreceptor(Reader in, Format format, Consumer<Preceptor> action) throws IOException {
+        return forEach(new RecordParser<>(in, format, PRECEPTORS), action);
+    }
+
+    private static <T> int forEach(RecordParser<T> parser, Consumer<T> action) throws IOException {
+        int count = 0;
+        T record;
+        while ((record = parser.next()) != null) {
+            action.accept(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Matches every student of a file against a pool on the caller thread, one chunk at a time.
+     *
+     * @param students source of the student records, read to the end but not closed
+     * @param format format of the source
+     * @param pool preceptors to match against
+     * @param minimumScore threshold applied to every student
+     * @param maxResults maximum number of matches kept per student, or 0 for all
+     * @param config settings for this run
+     * @param results receives one result per student, in file order
+     * @return number of students matched
+     * @throws IOException if reading fails
+     */
+    public static int streamMatches(Reader students, Format format, PreceptorPool pool, double minimumScore,
+                                    int maxResults, MatchingConfig config,
+                                    Consumer<FuzzyMatchingAlgorithm.MatchResult> results) throws IOException {
+        return streamMatches(students, format, pool, minimumScore, maxResults, config, Runnable::run, results);
+    }
+
+    /**
+     * Matches every student of a file against a pool, scoring each chunk on the executor while
+     * the caller thread reads the next one.
+     *
+     * Only a few chunks are in flight at once, so memory stays flat whatever the size of the file.
+     * Results are still delivered on the caller thread and in file order.
+     *
+     * @param students source of the student records, read to the end but not closed
+     * @param format format of the source
+     * @param pool preceptors to match against
+     * @param minimumScore threshold applied to every student
+     * @param maxResults maximum number of matches kept per student, or 0 for all
+     * @param config settings for this run
+     * @param executor executor that scores the chunks
+     * @param results receives one result per student, in file order
+     * @return number of students matched
+     * @throws IOException if reading fails
+     */
+    public static int streamMatches(Reader students, Format format, PreceptorPool pool, double minimumScore,
+                                    int maxResults, MatchingConfig config, Executor executor,
+                                    Consumer<FuzzyMatchingAlgorithm.MatchResult> results) throws IOException {
+        RecordParser<Student> parser = new RecordParser<>(students, format, STUDENTS);
+        Deque<CompletableFuture<List<FuzzyMatchingAlgorithm.MatchResult>>> inFlight = new ArrayDeque<>();
+        int maxInFlight = config.getParallelism() + 1;
+        List<FuzzyMatchingAlgorithm.MatchRequest> chunk = new ArrayList<>(DEFAULT_CHUNK_SIZE);
+        int count = 0;
+
+        Student student;
+        while ((student = parser.next()) != null) {
+            FuzzyMatchingAlgorithm.MatchRequest request =
+                    new FuzzyMatchingAlgorithm.MatchRequest(student, pool, minimumScore);
+            request.setMaxResults(maxResults);
+            chunk.add(request);
+            count++;
+            if (chunk.size() == DEFAULT_CHUNK_SIZE) {
+                inFlight.add(score(chunk, config, executor));
+                chunk = new ArrayList<>(DEFAULT_CHUNK_SIZE);
+                // hand over finished chunks, and wait for the oldest one once enough are queued
+                while (!inFlight.isEmpty() && (inFlight.size() > maxInFlight || inFlight.peek().isDone())) {
+                    deliver(inFlight.poll(), results);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inFlight.add(score(chunk, config, executor));
+        }
+        while (!inFlight.isEmpty()) {
+            deliver(inFlight.poll(), results);
+        }
+        return count;
+    }
+
+    private static CompletableFuture<List<FuzzyMatchingAlgorithm.MatchResult>> score(
+            List<FuzzyMatchingAlgorithm.MatchRequest> chunk, MatchingConfig config, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> FuzzyMatchingAlgorithm.calculateMatches(chunk, config), executor);
+    }
+
+    private static void deliver(CompletableFuture<List<FuzzyMatchingAlgorithm.MatchResult>> chunk,
+                                Consumer<FuzzyMatchingAlgorithm.MatchResult> results) {
+        List<FuzzyMatchingAlgorithm.MatchResult> scored;
+        try {
+            scored = chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+        for (FuzzyMatchingAlgorithm.MatchResult result : scored) {
+            results.accept(result);
+        }
+    }
+
+    /**
+     * @return epoch day of a value starting with yyyy-MM-dd, or FieldLayout.NO_DATE if it does not
+     */
+    static int epochDay(CharSequence value) {
+        if (value.length() < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return FieldLayout.NO_DATE;
+        }
+        if (value.length() > 10 && value.charAt(10) != 'T' && value.charAt(10) != ' ') {
+            return FieldLayout.NO_DATE;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return FieldLayout.NO_DATE;
+        }
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return FieldLayout.NO_DATE;
+        }
+    }
+
+    private static int digits(CharSequence value, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Creates records of one type and gives access to their fields.
+     */
+    private interface RecordType<T> {
+        T create();
+
+        void setId(T record, String id);
+
+        void setName(T record, String name);
+
+        void setFieldValue(T record, String fieldName, Object value);
+
+        FieldValues fields(T record);
+    }
+
+    private static final RecordType<Student> STUDENTS = new RecordType<Student>() {
+        @Override
+        public Student create() {
+            return new Student();
+        }
+
+        @Override
+        public void setId(Student record, String id) {
+            record.setId(id);
+        }
+
+        @Override
+        public void setName(Student record, String name) {
+            record.setName(name);
+        }
+
+        @Override
+        public void setFieldValue(Student record, String fieldName, Object value) {
+            record.setFieldValue(fieldName, value);
+        }
+
+        @Override
+        public FieldValues fields(Student record) {
+            return record.getFieldValues();
+        }
+    };
+
+    private static final RecordType<Preceptor> PRECEPTORS = new RecordType<Preceptor>() {
+        @Override
+        public Preceptor create() {
+            return new Preceptor();
+        }
+
+        @Override
+        public void setId(Preceptor record, String id) {
+            record.setId(id);
+        }
+
+        @Override
+        public void setName(Preceptor record, String name) {
+            record.setName(name);
+        }
+
+        @Override
+        public void setFieldValue(Preceptor record, String fieldName, Object value) {
+            record.setFieldValue(fieldName, value);
+        }
+
+        @Override
+        public FieldValues fields(Preceptor record) {
+            return record.getFieldValues();
+        }
+    };
+
+    private enum ColumnKind {
+        ID,
+        NAME,
+        TEXT,
+        DATE,
+        OTHER
+    }
+
+    /**
+     * Where the values of one named field go.
+     */
+    private static final class Column {
+        private final String name;
+        private final ColumnKind kind;
+        private final int slot;
+        private final ValueTable values;
+
+        private Column(String name) {
+            this.name = name;
+            if (name.equalsIgnoreCase("id")) {
+                kind = ColumnKind.ID;
+                slot = -1;
+            } else if (name.equalsIgnoreCase("name")) {
+                kind = ColumnKind.NAME;
+                slot = -1;
+            } else if (FieldLayout.textSlot(name) >= 0) {
+                kind = ColumnKind.TEXT;
+                slot = FieldLayout.textSlot(name);
+            } else if (FieldLayout.dateSlot(name) >= 0) {
+                kind = ColumnKind.DATE;
+                slot = FieldLayout.dateSlot(name);
+            } else {
+                kind = ColumnKind.OTHER;
+                slot = -1;
+            }
+            values = kind == ColumnKind.TEXT ? new ValueTable() : null;
+        }
+    }
+
+    /**
+     * Open addressing table of interned values, looked up by content so a value that was seen
+     * before costs no allocation. The table stops growing at half its capacity, after which new
+     * values are interned one by one.
+     */
+    private static final class ValueTable {
+        private static final int CAPACITY = 1 << 12;
+
+        private final String[] values = new String[CAPACITY];
+        private final String[] lowerValues = new String[CAPACITY];
+        private final int[] hashes = new int[CAPACITY];
+        private int size;
+
+        /**
+         * @return entry holding the value, or -1 if it is new and the table is full
+         */
+        int find(CharSequence value) {
+            int hash = 0;
+            for (int i = 0; i < value.length(); i++) {
+                hash = 31 * hash + value.charAt(i);
+            }
+            for (int i = (hash ^ (hash >>> 16)) & (CAPACITY - 1); ; i = (i + 1) & (CAPACITY - 1)) {
+                String known = values[i];
+                if (known == null) {
+                    if (size >= CAPACITY / 2) return -1;
+                    values[i] = value.toString().intern();
+                    lowerValues[i] = values[i].toLowerCase().intern();
+                    hashes[i] = hash;
+                    size++;
+                    return i;
+                }
+                if (hashes[i] == hash && known.contentEquals(value)) {
+                    return i;
+                }
+            }
+        }
+
+        String value(int entry) {
+            return values[entry];
+        }
+
+        String lowerValue(int entry) {
+            return lowerValues[entry];
+        }
+    }
+
+    /**
+     * Buffered character source that tracks the current line for error messages.
+     */
+    private static final class Input {
+        private final Reader reader;
+        private final char[] buffer = new char[1 << 16];
+        private int position;
+        private int limit;
+        private int line = 1;
+
+        private Input(Reader reader) {
+            this.reader = reader;
+        }
+
+        int peek() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        int read() throws IOException {
+            int c = peek();
+            if (c >= 0) {
+                position++;
+                if (c == '\n') line++;
+            }
+            return c;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Line " + line + ": " + message);
+        }
+    }
+
+    /**
+     * Parses one file into records of one type.
+     */
+    private static final class RecordParser<T> {
+        private final Input in;
+        private final Format format;
+        private final RecordType<T> type;
+        private final StringBuilder value = new StringBuilder();
+        private Column[] header;
+        private final ValueTable keys = new ValueTable();
+        private final Column[] keyColumns = new Column[ValueTable.CAPACITY];
+
+        private RecordParser(Reader reader, Format format, RecordType<T> type) throws IOException {
+            this.in = new Input(reader);
+            this.format = format;
+            this.type = type;
+            if (format == Format.CSV) {
+                readHeader();
+            }
+        }
+
+        /**
+         * @return the next record, or null at the end of the input
+         */
+        T next() throws IOException {
+            return format == Format.CSV ? nextCsv() : nextJson();
+        }
+
+        private void apply(T record, Column column) {
+            if (value.length() == 0) return;
+            switch (column.kind) {
+                case ID:
+                    type.setId(record, value.toString());
+                    break;
+                case NAME:
+                    type.setName(record, value.toString());
+                    break;
+                case TEXT: {
+                    int entry = column.values.find(value);
+                    if (entry >= 0) {
+                        type.fields(record).setInternedText(column.slot,
+                                column.values.value(entry), column.values.lowerValue(entry));
+                    } else {
+                        type.fields(record).setText(column.slot, value.toString());
+                    }
+                    break;
+                }
+                case DATE: {
+                    int day = epochDay(value);
+                    if (day != FieldLayout.NO_DATE) {
+                        type.fields(record).setEpochDay(column.slot, day);
+                    } else {
+                        // kept as entered, like a date field set to something other than a LocalDate
+                        type.setFieldValue(record, column.name, value.toString());
+                    }
+                    break;
+                }
+                default:
+                    type.setFieldValue(record, column.name, value.toString());
+                    break;
+            }
+        }
+
+        // csv
+
+        private void readHeader() throws IOException {
+            List<Column> columns = new ArrayList<>();
+            int end;
+            do {
+                end = readCsvField();
+                if (columns.isEmpty() && value.length() > 0 && value.charAt(0) == '\uFEFF') {
+                    value.deleteCharAt(0);
+                }
+                if (end < 0 && columns.isEmpty() && value.length() == 0) break;
+                columns.add(new Column(value.toString().trim()));
+            } while (end == ',');
+            header = columns.toArray(new Column[0]);
+        }
+
+        private T nextCsv() throws IOException {
+            while (true) {
+                int end = readCsvField();
+                if (end < 0 && value.length() == 0) return null;
+                if (end == '\n' && value.length() == 0) continue;
+
+                T record = type.create();
+                int column = 0;
+                while (true) {
+                    if (column >= header.length) {
+                        throw in.error("More values than header fields");
+                    }
+                    apply(record, header[column++]);
+                    if (end != ',') break;
+                    end = readCsvField();
+                }
+                return record;
+            }
+        }
+
+        /**
+         * Reads one field into value.
+         *
+         * @return ',' if another field of the record follows, '\n' at the end of the record, or
+         *         -1 at the end of the input
+         */
+        private int readCsvField() throws IOException {
+            value.setLength(0);
+            int c = in.read();
+            if (c == '"') {
+                while (true) {
+                    c = in.read();
+                    if (c < 0) throw in.error("Unterminated quoted value");
+                    if (c == '"') {
+                        if (in.peek() != '"') break;
+                        in.read();
+                    }
+                    value.append((char) c);
+                }
+                c = in.read();
+                if (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+                    throw in.error("Unexpected character after quoted value");
+                }
+            } else {
+                while (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+                    value.append((char) c);
+                    c = in.read();
+                }
+            }
+            if (c == '\r') {
+                if (in.peek() == '\n') in.read();
+                return '\n';
+            }
+            return c;
+        }
+
+        // json lines
+
+        private T nextJson() throws IOException {
+            int c = skipWhitespace();
+            if (c < 0) return null;
+            if (c != '{') throw in.error("Expected a JSON object");
+            in.read();
+
+            T record = type.create();
+            if (skipWhitespace() == '}') {
+                in.read();
+                return record;
+            }
+            while (true) {
+                if (skipWhitespace() != '"') throw in.error("Expected a field name");
+                readJsonString();
+                Column column = jsonColumn();
+                if (skipWhitespace() != ':') throw in.error("Expected ':' after a field name");
+                in.read();
+                skipWhitespace();
+                if (readJsonValue()) {
+                    apply(record, column);
+                }
+                c = skipWhitespace();
+                in.read();
+                if (c == '}') return record;
+                if (c != ',') throw in.error("Expected ',' or '}'");
+            }
+        }
+
+        private Column jsonColumn() {
+            int entry = keys.find(value);
+            if (entry < 0) {
+                return new Column(value.toString());
+            }
+            if (keyColumns[entry] == null) {
+                keyColumns[entry] = new Column(keys.value(entry));
+            }
+            return keyColumns[entry];
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = in.peek();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                in.read();
+                c = in.peek();
+            }
+            return c;
+        }
+
+        /**
+         * Reads a value into value.
+         *
+         * @return false for null and for nested objects and arrays, which are skipped
+         */
+        private boolean readJsonValue() throws IOException {
+            int c = in.peek();
+            if (c == '"') {
+                readJsonString();
+                return true;
+            }
+            if (c == '{' || c == '[') {
+                skipNested();
+                return false;
+            }
+            value.setLength(0);
+            while (c >= 0 && c != ',' && c != '}' && c != ']' && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                value.append((char) in.read());
+                c = in.peek();
+            }
+            if (value.length() == 0) throw in.error("Missing value");
+            return !"null".contentEquals(value);
+        }
+
+        private void readJsonString() throws IOException {
+            value.setLength(0);
+            in.read();
+            while (true) {
+                int c = in.read();
+                if (c < 0) throw in.error("Unterminated string");
+                if (c == '"') return;
+                if (c != '\\') {
+                    value.append((char) c);
+                    continue;
+                }
+                c = in.read();
+                switch (c) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u': {
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(in.read(), 16);
+                            if (digit < 0) throw in.error("Invalid unicode escape");
+                            code = code * 16 + digit;
+                        }
+                        value.append((char) code);
+                        break;
+                    }
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append((char) c);
+                        break;
+                    default:
+                        throw in.error("Invalid escape");
+                }
+            }
+        }
+
+        private void skipNested() throws IOException {
+            int depth = 0;
+            do {
+                int c = in.read();
+                if (c < 0) throw in.error("Unterminated nested value");
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                } else if (c == '"') {
+                    while ((c = in.read()) != '"') {
+                        if (c < 0) throw in.error("Unterminated string");
+                        if (c == '\\') in.read();
+                    }
+                }
+            } while (depth > 0);
+        }
+    }
+}
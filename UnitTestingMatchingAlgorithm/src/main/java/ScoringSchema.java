@@ -0,0 +1,314 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.Arrays;
+
+/**
+ * ScoringSchema holds the compiled list of fields used to score a student against a preceptor.
+ *
+ * Each field definition records:
+ * - The field name as stored on Student and Preceptor
+ * - The weight (rank) applied to the field similarity
+ * - The field type, resolved once so the scorer does not compare type names per pair
+ * - An optional dependency on another student field that must contain a given value
+ *
+ * A schema is immutable once built, so a single instance can be shared by every scoring run.
+ */
+public final class ScoringSchema {
+
+    /**
+     * Field types supported by the scorer.
+     *
+     * PICKLIST values match only when equal. MULTI_PICKLIST values hold several ';'-separated
+     * options, as Salesforce stores multi-select picklists, and score the share of options the two
+     * sides have in common. DATE_RANGE fields span a start and an end date field and score the
+     * share of the student's rotation that the preceptor's window covers. TFIDF_TEXT values are
+     * split into words and score the cosine of their TF-IDF vectors, word frequencies taken over
+     * the preceptor pool, so multi-word answers match on the words they share in any order
+     * rather than by edit distance.
+     */
+    public enum FieldType {
+        TEXT,
+        PICKLIST,
+        MULTI_PICKLIST,
+        DATE,
+        DATE_RANGE,
+        TFIDF_TEXT
+    }
+
+    /**
+     * The default schema used by FuzzyMatchingAlgorithm.
+     */
+    public static final ScoringSchema DEFAULT = new ScoringSchema(new Field[] {
+            new Field("specialtyEntering", 1, FieldType.TEXT),
+            new Field("specialtyInterest", 4, FieldType.TEXT),
+            new Field("startDate", 4, FieldType.DATE),
+            new Field("endDate", 4, FieldType.DATE),
+            new Field("availability", 5, FieldType.PICKLIST),
+            new Field("interestPopulations", 4, FieldType.MULTI_PICKLIST),
+            new Field("specialSkills", 4, FieldType.MULTI_PICKLIST),
+            new Field("academicYear", 5, FieldType.TEXT),
+            new Field("educationLevel", 5, FieldType.TEXT),
+            new Field("educationalProgram", 5, FieldType.TEXT),
+            new Field("providerRestrictions", 5, FieldType.PICKLIST, "providerRestrictions", "Yes"),
+            new Field("otherSpecialty", 3, FieldType.TEXT, "specialSkills", "other"),
+            new Field("otherPopulation", 3, FieldType.TEXT, "interestPopulations", "other"),
+            new Field("otherLearner", 3, FieldType.TEXT, "educationalProgram", "other"),
+            new Field("otherProvider", 2, FieldType.TEXT, "providerRestrictions", "other")
+    });
+
+    /**
+     * The default schema with the separate start and end date distances replaced by the overlap of
+     * the rotation windows, so a preceptor available for the student's whole rotation scores
+     * best even when the two windows do not start on the same day.
+     */
+    public static final ScoringSchema ROTATION_OVERLAP = new ScoringSchema(new Field[] {
+            new Field("specialtyEntering", 1, FieldType.TEXT),
+            new Field("specialtyInterest", 4, FieldType.TEXT),
+            new Field("rotationOverlap", 8, "startDate", "endDate"),
+            new Field("availability", 5, FieldType.PICKLIST),
+            new Field("interestPopulations", 4, FieldType.MULTI_PICKLIST),
+            new Field("specialSkills", 4, FieldType.MULTI_PICKLIST),
+            new Field("academicYear", 5, FieldType.TEXT),
+            new Field("educationLevel", 5, FieldType.TEXT),
+            new Field("educationalProgram", 5, FieldType.TEXT),
+            new Field("providerRestrictions", 5, FieldType.PICKLIST, "providerRestrictions", "Yes"),
+            new Field("otherSpecialty", 3, FieldType.TEXT, "specialSkills", "other"),
+            new Field("otherPopulation", 3, FieldType.TEXT, "interestPopulations", "other"),
+            new Field("otherLearner", 3, FieldType.TEXT, "educationalProgram", "other"),
+            new Field("otherProvider", 2, FieldType.TEXT, "providerRestrictions", "other")
+    });
+
+    /**
+     * The default schema with specialtyInterest and the free-text "other" answers scored by
+     * TF-IDF cosine instead of Levenshtein distance.
+     */
+    public static final ScoringSchema TFIDF = new ScoringSchema(new Field[] {
+            new Field("specialtyEntering", 1, FieldType.TEXT),
+            new Field("specialtyInterest", 4, FieldType.TFIDF_TEXT),
+            new Field("startDate", 4, FieldType.DATE),
+            new Field("endDate", 4, FieldType.DATE),
+            new Field("availability", 5, FieldType.PICKLIST),
+            new Field("interestPopulations", 4, FieldType.MULTI_PICKLIST),
+            new Field("specialSkills", 4, FieldType.MULTI_PICKLIST),
+            new Field("academicYear", 5, FieldType.TEXT),
+            new Field("educationLevel", 5, FieldType.TEXT),
+            new Field("educationalProgram", 5, FieldType.TEXT),
+            new Field("providerRestrictions", 5, FieldType.PICKLIST, "providerRestrictions", "Yes"),
+            new Field("otherSpecialty", 3, FieldType.TFIDF_TEXT, "specialSkills", "other"),
+            new Field("otherPopulation", 3, FieldType.TFIDF_TEXT, "interestPopulations", "other"),
+            new Field("otherLearner", 3, FieldType.TFIDF_TEXT, "educationalProgram", "other"),
+            new Field("otherProvider", 2, FieldType.TFIDF_TEXT, "providerRestrictions", "other")
+    });
+
+    private final Field[] fields;
+    private final int[] scoringOrder;
+
+    /**
+     * @param fields field definitions, copied so later changes to the array do not leak in
+     */
+    public ScoringSchema(Field[] fields) {
+        this.fields = fields.clone();
+        this.scoringOrder = scoringOrder(this.fields);
+    }
+
+    /**
+     * Fields are scored cheapest first: dates and picklists cost a compare, text fields a
+     * Levenshtein distance or a vector merge. Text fields follow by descending weight, so pairs
+     * that fall behind are abandoned before their heaviest text field is compared.
+     */
+    private static int[] scoringOrder(Field[] fields) {
+        Integer[] order = new Integer[fields.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // stable sort, fields of the same kind and weight keep their schema order
+        Arrays.sort(order, (a, b) -> {
+            boolean aText = isText(fields[a].getType());
+            boolean bText = isText(fields[b].getType());
+            if (aText != bText) return aText ? 1 : -1;
+            return aText ? Integer.compare(fields[b].getWeight(), fields[a].getWeight()) : 0;
+        });
+
+        int[] result = new int[order.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return true for the free-text types, which are scored per distinct value and last
+     */
+    static boolean isText(FieldType type) {
+        return type == FieldType.TEXT || type == FieldType.TFIDF_TEXT;
+    }
+
+    /**
+     * @return number of fields in the schema
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * @param index position of the field in the schema
+     * @return the field definition at that position
+     */
+    public Field getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Order in which field scores are summed. Every scorer sums in this order so that scores
+     * are identical to the last bit whichever path computed them.
+     *
+     * @return field indexes, cheap fields first, then text fields by descending weight
+     */
+    int[] scoringOrder() {
+        return scoringOrder;
+    }
+
+    /**
+     * A single compiled field definition.
+     */
+    public static final class Field {
+        private final String name;
+        private final int weight;
+        private final FieldType type;
+        private final String dependencyField;
+        private final String dependencyValue;
+        private final String startField;
+        private final String endField;
+        private final int slot;
+        private final int endSlot;
+        private final int dependencySlot;
+
+        /**
+         * @param name
+         * @param weight
+         * @param type
+         */
+        public Field(String name, int weight, FieldType type) {
+            this(name, weight, type, null, null);
+        }
+
+        /**
+         * @param name
+         * @param weight
+         * @param type
+         * @param dependencyField student field that must contain dependencyValue, or null
+         * @param dependencyValue value the dependency field must contain, or null
+         */
+        public Field(String name, int weight, FieldType type, String dependencyField, String dependencyValue) {
+            this.name = name;
+            this.weight = weight;
+            this.type = type;
+            this.dependencyField = dependencyField;
+            this.dependencyValue = dependencyValue;
+            this.startField = null;
+            this.endField = null;
+            this.slot = type == FieldType.DATE ? FieldLayout.dateSlot(name) : FieldLayout.textSlot(name);
+            this.endSlot = -1;
+            this.dependencySlot = dependencyField != null ? FieldLayout.textSlot(dependencyField) : -1;
+        }
+
+        /**
+         * Creates a DATE_RANGE field over the window [startField, endField].
+         *
+         * @param name name reported for the field, e.g. in explanations
+         * @param weight
+         * @param startField date field holding the first day of the window
+         * @param endField date field holding the last day of the window
+         */
+        public Field(String name, int weight, String startField, String endField) {
+            this.name = name;
+            this.weight = weight;
+            this.type = FieldType.DATE_RANGE;
+            this.dependencyField = null;
+            this.dependencyValue = null;
+            this.startField = startField;
+            this.endField = endField;
+            this.slot = FieldLayout.dateSlot(startField);
+            this.endSlot = FieldLayout.dateSlot(endField);
+            this.dependencySlot = -1;
+        }
+
+        /**
+         * @return
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * @return
+         */
+        public FieldType getType() {
+            return type;
+        }
+
+        /**
+         * @return
+         */
+        public String getDependencyField() {
+            return dependencyField;
+        }
+
+        /**
+         * @return
+         */
+        public String getDependencyValue() {
+            return dependencyValue;
+        }
+
+        /**
+         * @return date field holding the start of a DATE_RANGE window, or null for other types
+         */
+        public String getStartField() {
+            return startField;
+        }
+
+        /**
+         * @return date field holding the end of a DATE_RANGE window, or null for other types
+         */
+        public String getEndField() {
+            return endField;
+        }
+
+        /**
+         * @return true if the field is only scored when its dependency is met
+         */
+        public boolean hasDependency() {
+            return dependencyField != null;
+        }
+
+        /**
+         * @return FieldLayout slot holding the field (the start of a DATE_RANGE window), or -1 if the
+         *         field is outside the layout
+         */
+        int getSlot() {
+            return slot;
+        }
+
+        /**
+         * @return FieldLayout text slot holding the dependency field, or -1 if it is outside the layout
+         */
+        int getDependencySlot() {
+            return dependencySlot;
+        }
+
+        /**
+         * @return FieldLayout date slot holding the end of a DATE_RANGE window, or -1
+         */
+        int getEndSlot() {
+            return endSlot;
+        }
+    }
+}
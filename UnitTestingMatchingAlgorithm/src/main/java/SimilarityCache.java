@@ -0,0 +1,197 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SimilarityCache remembers text similarity results keyed by (field, student value, preceptor value).
+ *
+ * Text answers have very low cardinality across a cohort, so the same pairs of values are compared
+ * over and over by different students. The cache is split into independently locked segments,
+ * each an access-ordered LinkedHashMap that evicts its least recently used entry once full, so
+ * threads of a parallel run rarely wait on each other.
+ *
+ * Values are expected to be lowercased and interned (as FieldValues and PreceptorPool store them),
+ * which makes key comparison an identity check in the common case.
+ */
+public class SimilarityCache {
+
+    /**
+     * Cache shared by every run whose MatchingConfig does not set its own.
+     */
+    public static final SimilarityCache SHARED = new SimilarityCache(1 << 17, 16);
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of cached pairs across all segments
+     * @param concurrency number of segments, rounded up to a power of two
+     */
+    public SimilarityCache(int maxEntries, int concurrency) {
+        if (maxEntries < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("maxEntries and concurrency must be at least 1");
+        }
+        int segmentCount = Integer.highestOneBit(concurrency - 1) << 1;
+        if (concurrency == 1) segmentCount = 1;
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        int perSegment = Math.max(1, maxEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * @param field field the values belong to
+     * @param studentValue lowercased student value
+     * @param preceptorValue lowercased preceptor value
+     * @return the cached similarity, or NaN if the pair is not cached
+     */
+    public double get(String field, String studentValue, String preceptorValue) {
+        Key key = new Key(field, studentValue, preceptorValue);
+        Segment segment = segments[key.hash & segmentMask];
+        Double similarity;
+        synchronized (segment) {
+            similarity = segment.get(key);
+        }
+        if (similarity == null) {
+            misses.increment();
+            return Double.NaN;
+        }
+        hits.increment();
+        return similarity;
+    }
+
+    /**
+     * @param field field the values belong to
+     * @param studentValue lowercased student value
+     * @param preceptorValue lowercased preceptor value
+     * @param similarity similarity of the pair
+     */
+    public void put(String field, String studentValue, String preceptorValue, double similarity) {
+        Key key = new Key(field, studentValue, preceptorValue);
+        Segment segment = segments[key.hash & segmentMask];
+        synchronized (segment) {
+            segment.put(key, similarity);
+        }
+    }
+
+    /**
+     * @return number of lookups that found a cached similarity
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that found nothing
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries dropped to stay within the size bound
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return hits divided by lookups, 0 when nothing was looked up yet
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return number of cached pairs
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Drops every cached pair and resets the counters.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private final class Segment extends LinkedHashMap<Key, Double> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Key {
+        private final String field;
+        private final String studentValue;
+        private final String preceptorValue;
+        private final int hash;
+
+        Key(String field, String studentValue, String preceptorValue) {
+            this.field = field;
+            this.studentValue = studentValue;
+            this.preceptorValue = preceptorValue;
+            int h = field.hashCode();
+            h = 31 * h + studentValue.hashCode();
+            h = 31 * h + preceptorValue.hashCode();
+            // spread the high bits into the segment index
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash
+                    && same(field, other.field)
+                    && same(studentValue, other.studentValue)
+                    && same(preceptorValue, other.preceptorValue);
+        }
+
+        private static boolean same(String a, String b) {
+            return a == b || a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StableMatching assigns a cohort so that no student and preceptor would both rather be matched
+ * to each other than keep what they got.
+ *
+ * This class encapsulates:
+ * - Student preferences, ranked by the scores of calculateMatches
+ * - Preceptor preferences, ranked by the same scores or by a second set of results scored with a
+ *   preceptor-side schema
+ * - Deferred acceptance with capacities: students propose down their lists, and each preceptor
+ *   holds its best proposals so far in a min-heap, bumping the weakest held student when a
+ *   better one proposes
+ *
+ * A pair can only be matched when each side lists the other. Equal preferences are broken by the
+ * order of the results, so a run is deterministic. Everything runs over the int arrays of a
+ * CandidateGraph in O(E log C) for E candidate pairs and capacities up to C.
+ */
+public final class StableMatching {
+    private static final int UNASSIGNED = -1;
+    private static final long UNACCEPTABLE = Long.MIN_VALUE;
+
+    private StableMatching() {}
+
+    /**
+     * Matches students to preceptors that rank students by the same scores, every preceptor taking
+     * the same number of students at most.
+     *
+     * @param results ranked matches of each student, as returned by calculateMatches
+     * @param capacity number of students each preceptor can take
+     * @return one approval request per matched student, in the order of results
+     */
+    public static List<FuzzyMatchingAlgorithm.ApproveMatchRequest> match(
+            List<FuzzyMatchingAlgorithm.MatchResult> results, int capacity) {
+        return match(results, results, Collections.<String, Integer>emptyMap(), capacity);
+    }
+
+    /**
+     * Matches students to preceptors with separate preceptor-side preferences.
+     *
+     * @param results ranked matches of each student, used for the student preferences and the
+     *                returned scores
+     * @param preceptorScores matches of each student scored with the preceptor-side weighting,
+     *                        for example calculateMatches with another schema; a pair missing here
+     *                        is not acceptable to the preceptor
+     * @param capacities number of students each preceptor can take, by preceptor id
+     * @param defaultCapacity capacity of preceptors missing from capacities
+     * @return one approval request per matched student, in the order of results
+     */
+    public static List<FuzzyMatchingAlgorithm.ApproveMatchRequest> match(
+            List<FuzzyMatchingAlgorithm.MatchResult> results, List<FuzzyMatchingAlgorithm.MatchResult> preceptorScores,
+            Map<String, Integer> capacities, int defaultCapacity) {
+        CandidateGraph graph = new CandidateGraph(results, capacities, defaultCapacity);
+        int[] assignedEdge = deferredAcceptance(graph, preceptorRanks(graph, preceptorScores));
+
+        List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals = new ArrayList<>();
+        for (int student = 0; student < graph.studentCount(); student++) {
+            int edge = assignedEdge[student];
+            if (edge == UNASSIGNED) continue;
+            approvals.add(new FuzzyMatchingAlgorithm.ApproveMatchRequest(
+                    graph.studentId(student), graph.preceptorId(graph.target(edge)), graph.score(edge)));
+        }
+        return approvals;
+    }
+
+    /**
+     * Ranks every edge from the preceptor's side. Higher ranks are preferred; ties go to the
+     * student listed first.
+     */
+    private static long[] preceptorRanks(CandidateGraph graph, List<FuzzyMatchingAlgorithm.MatchResult> preceptorScores) {
+        int edgeCount = graph.edgeStart(graph.studentCount());
+        long[] ranks = new long[edgeCount];
+        Arrays.fill(ranks, UNACCEPTABLE);
+
+        Map<String, Integer> studentIndex = new HashMap<>();
+        for (int student = graph.studentCount() - 1; student >= 0; student--) {
+            studentIndex.put(graph.studentId(student), student);
+        }
+        // edge of the current student to each preceptor, valid where stamped with student + 1
+        int[] edgeTo = new int[graph.preceptorCount()];
+        int[] stamp = new int[graph.preceptorCount()];
+
+        for (FuzzyMatchingAlgorithm.MatchResult result : preceptorScores) {
+            Integer student = studentIndex.get(result.getStudentId());
+            if (student == null) continue;
+            for (int e = graph.edgeStart(student); e < graph.edgeStart(student + 1); e++) {
+                edgeTo[graph.target(e)] = e;
+                stamp[graph.target(e)] = student + 1;
+            }
+            for (FuzzyMatchingAlgorithm.PreceptorMatch match : result.getMatches()) {
+                int preceptor = graph.preceptorIndex(match.getPreceptorId());
+                if (preceptor < 0 || stamp[preceptor] != student + 1) continue;
+                int edge = edgeTo[preceptor];
+                if (ranks[edge] != UNACCEPTABLE) continue;
+                ranks[edge] = (Math.round(match.getScore() * 10) << 32) | (Integer.MAX_VALUE - student);
+            }
+        }
+        return ranks;
+    }
+
+    private static int studentOf(long rank) {
+        return Integer.MAX_VALUE - (int) rank;
+    }
+
+    /**
+     * Student-proposing deferred acceptance.
+     *
+     * @return the matched edge of each student, or UNASSIGNED
+     */
+    private static int[] deferredAcceptance(CandidateGraph graph, long[] ranks) {
+        int studentCount = graph.studentCount();
+        int preceptorCount = graph.preceptorCount();
+
+        // each student's edges from best to worst score, ties in list order
+        int edgeCount = graph.edgeStart(studentCount);
+        int[] order = new int[edgeCount];
+        long[] packed = new long[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            packed[e] = ((long) -graph.tenths(e) << 32) | e;
+        }
+        for (int student = 0; student < studentCount; student++) {
+            Arrays.sort(packed, graph.edgeStart(student), graph.edgeStart(student + 1));
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            order[e] = (int) packed[e];
+        }
+
+        int[] next = new int[studentCount];
+        int[] assignedEdge = new int[studentCount];
+        int[] free = new int[studentCount];
+        int freeCount = 0;
+        for (int student = studentCount - 1; student >= 0; student--) {
+            next[student] = graph.edgeStart(student);
+            assignedEdge[student] = UNASSIGNED;
+            free[freeCount++] = student;
+        }
+
+        // held proposals of each preceptor, a min-heap of edges by rank
+        int[][] held = new int[preceptorCount][];
+        int[] load = new int[preceptorCount];
+
+        while (freeCount > 0) {
+            int student = free[--freeCount];
+            int end = graph.edgeStart(student + 1);
+            while (next[student] < end) {
+                int edge = order[next[student]++];
+                int preceptor = graph.target(edge);
+                int capacity = graph.capacity(preceptor);
+                if (ranks[edge] == UNACCEPTABLE || capacity == 0) continue;
+
+                if (load[preceptor] < capacity) {
+                    if (held[preceptor] == null) {
+                        held[preceptor] = new int[Math.min(capacity, 4)];
+                    } else if (load[preceptor] == held[preceptor].length) {
+                        held[preceptor] = Arrays.copyOf(held[preceptor], Math.min(capacity, load[preceptor] * 2));
+                    }
+                    siftUp(held[preceptor], load[preceptor]++, edge, ranks);
+                    assignedEdge[student] = edge;
+                    break;
+                }
+
+                int weakest = held[preceptor][0];
+                if (ranks[edge] > ranks[weakest]) {
+                    siftDown(held[preceptor], load[preceptor], edge, ranks);
+                    assignedEdge[student] = edge;
+                    int bumped = studentOf(ranks[weakest]);
+                    assignedEdge[bumped] = UNASSIGNED;
+                    free[freeCount++] = bumped;
+                    break;
+                }
+            }
+        }
+        return assignedEdge;
+    }
+
+    private static void siftUp(int[] heap, int i, int edge, long[] ranks) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (ranks[heap[parent]] <= ranks[edge]) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = edge;
+    }
+
+    /**
+     * Replaces the root of the heap with edge.
+     */
+    private static void siftDown(int[] heap, int size, int edge, long[] ranks) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ranks[heap[child + 1]] < ranks[heap[child]]) child++;
+            if (ranks[edge] <= ranks[heap[child]]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = edge;
+    }
+}
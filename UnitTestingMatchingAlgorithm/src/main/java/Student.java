@@ -1,8 +1,6 @@
 package UnitTestingMatchingAlgorithm.src.main.java;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
 
 public class Student {
     private String id;
@@ -11,7 +9,7 @@ public class Student {
     private double matchScore;
     private String matchStatus;
 
-    private Map<String, Object> fields = new HashMap<>();
+    private final FieldValues fields = new FieldValues();
 
     public Student() {
     }
@@ -62,7 +60,7 @@ public class Student {
     }
 
     public void setFieldValue(String fieldName, Object value) {
-        fields.put(fieldName, value);
+        fields.set(fieldName, value);
     }
 
     public Object getFieldValue(String fieldName) {
@@ -74,6 +72,10 @@ public class Student {
         return value != null ? String.valueOf(value) : defaultValue;
     }
 
+    FieldValues getFieldValues() {
+        return fields;
+    }
+
     public static Student createSampleStudent() {
         Student student = new Student("ST001", "John Doe");
 
@@ -0,0 +1,722 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * StudentProbe is one student compiled against a PreceptorPool, ready to be scored against the
+ * pool columns.
+ *
+ * This class encapsulates:
+ * - Which schema fields are active for the student (dependency met and a value present)
+ * - The student's value for each active field in pool terms: an epoch day or a window of epoch
+ *   days, a pool dictionary code, or lowercased text
+ * - A memo of text similarity per pool dictionary code, since preceptors share a small set of
+ *   distinct text answers, backed by an optional SimilarityCache shared across students
+ * - The TF-IDF vector of each TFIDF_TEXT value, built against the pool's term frequencies
+ * - The option overlap with every distinct multi-select value of the pool, computed up front
+ * - The student's active fields in the schema's scoring order
+ *
+ * A probe holds mutable scratch state and must only be used by one thread at a time.
+ */
+final class StudentProbe {
+    private final Student student;
+    private final PreceptorPool pool;
+    private final ScoringSchema schema;
+    private final boolean[] active;
+    private final int[] days;
+    private final int[] endDays;
+    private final int[] codes;
+    private final String[] studentValues;
+    private final String[] lowerText;
+    private final char[][] text;
+    private final TermVectors.Query[] termQueries;
+    private final double[][] textMemo;
+    private final int[][] distanceFloor;
+    private final double[][] optionOverlap;
+    private final SimilarityCache cache;
+    private final int[] scoringOrder;
+
+    /**
+     * Slack added to score bounds so summation order can never turn a kept pair into a pruned one.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private double[] weighted;
+    private double[] possible;
+
+    StudentProbe(Student student, PreceptorPool pool) {
+        this(student, pool, null);
+    }
+
+    /**
+     * @param student student to compile
+     * @param pool pool the student will be scored against
+     * @param cache cross-student text similarity cache, or null to only memoize per student
+     */
+    StudentProbe(Student student, PreceptorPool pool, SimilarityCache cache) {
+        this.student = student;
+        this.pool = pool;
+        this.schema = pool.getSchema();
+        this.cache = cache;
+
+        int fieldCount = schema.size();
+        this.active = new boolean[fieldCount];
+        this.days = new int[fieldCount];
+        this.endDays = new int[fieldCount];
+        this.codes = new int[fieldCount];
+        this.studentValues = new String[fieldCount];
+        this.lowerText = new String[fieldCount];
+        this.text = new char[fieldCount][];
+        this.termQueries = new TermVectors.Query[fieldCount];
+        this.textMemo = new double[fieldCount][];
+        this.distanceFloor = new int[fieldCount][];
+        this.optionOverlap = new double[fieldCount][];
+
+        FieldValues values = student.getFieldValues();
+        for (int f = 0; f < fieldCount; f++) {
+            ScoringSchema.Field field = schema.getField(f);
+
+            // skip if dependency not met
+            if (field.hasDependency()) {
+                String dependencyFieldValue = field.getDependencySlot() >= 0
+                        ? values.text(field.getDependencySlot())
+                        : stringValue(student.getFieldValue(field.getDependencyField()));
+                if (dependencyFieldValue == null || !dependencyFieldValue.contains(field.getDependencyValue())) {
+                    continue;
+                }
+            }
+
+            int slot = field.getSlot();
+            switch (field.getType()) {
+                case DATE:
+                    int day;
+                    if (slot >= 0) {
+                        day = values.epochDay(slot);
+                    } else {
+                        LocalDate date = (LocalDate) student.getFieldValue(field.getName());
+                        day = date != null ? (int) date.toEpochDay() : FieldLayout.NO_DATE;
+                    }
+                    if (day == FieldLayout.NO_DATE) continue;
+                    days[f] = day;
+                    studentValues[f] = String.valueOf(LocalDate.ofEpochDay(day));
+                    break;
+                case DATE_RANGE:
+                    int start = epochDay(student, field.getStartField(), slot);
+                    int end = epochDay(student, field.getEndField(), field.getEndSlot());
+                    if (start == FieldLayout.NO_DATE || end == FieldLayout.NO_DATE) continue;
+                    days[f] = Math.min(start, end);
+                    endDays[f] = Math.max(start, end);
+                    studentValues[f] = window(days[f], endDays[f]);
+                    break;
+                case PICKLIST:
+                    String value = slot >= 0 ? values.text(slot) : stringValue(student.getFieldValue(field.getName()));
+                    if (value == null) continue;
+                    codes[f] = pool.dictionary(f).code(value);
+                    studentValues[f] = value;
+                    break;
+                case MULTI_PICKLIST:
+                    String selection = slot >= 0 ? values.text(slot) : stringValue(student.getFieldValue(field.getName()));
+                    if (selection == null) continue;
+                    optionOverlap[f] = optionOverlap(selection, pool.dictionary(f));
+                    studentValues[f] = selection;
+                    break;
+                case TEXT:
+                    String lower = slot >= 0 ? values.lowerText(slot) : lowerValue(student.getFieldValue(field.getName()));
+                    if (lower == null) continue;
+                    lowerText[f] = lower.intern();
+                    studentValues[f] = slot >= 0 ? values.text(slot) : stringValue(student.getFieldValue(field.getName()));
+                    text[f] = lower.toCharArray();
+                    textMemo[f] = new double[pool.dictionary(f).size()];
+                    Arrays.fill(textMemo[f], Double.NaN);
+                    distanceFloor[f] = new int[pool.dictionary(f).size()];
+                    break;
+                case TFIDF_TEXT:
+                    String words = slot >= 0 ? values.lowerText(slot) : lowerValue(student.getFieldValue(field.getName()));
+                    if (words == null) continue;
+                    studentValues[f] = slot >= 0 ? values.text(slot) : stringValue(student.getFieldValue(field.getName()));
+                    termQueries[f] = pool.dictionary(f).termVectors().query(words);
+                    textMemo[f] = new double[pool.dictionary(f).size()];
+                    Arrays.fill(textMemo[f], Double.NaN);
+                    break;
+            }
+            active[f] = true;
+        }
+
+        int activeCount = 0;
+        for (int f = 0; f < fieldCount; f++) {
+            if (active[f]) activeCount++;
+        }
+        this.scoringOrder = new int[activeCount];
+        activeCount = 0;
+        for (int f : schema.scoringOrder()) {
+            if (active[f]) scoringOrder[activeCount++] = f;
+        }
+    }
+
+    /**
+     * Scores a student selection against every distinct selection in the pool, as the number of
+     * shared options over the number of options picked by either side (Jaccard), times 100.
+     * Single option values therefore score 100 when equal and 0 otherwise, like a picklist.
+     */
+    private static double[] optionOverlap(String selection, PreceptorPool.Dictionary dictionary) {
+        int words = dictionary.optionWords();
+        long[] mask = new long[words];
+        int unknownOptions = 0;
+        for (String option : PreceptorPool.Dictionary.splitOptions(selection)) {
+            int bit = dictionary.optionBit(option);
+            if (bit == PreceptorPool.NO_VALUE) {
+                // options no preceptor picked still count towards the union
+                unknownOptions++;
+            } else {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        long[] masks = dictionary.optionMasks();
+        double[] overlap = new double[dictionary.size()];
+        for (int code = 0; code < overlap.length; code++) {
+            int shared = 0;
+            int union = unknownOptions;
+            for (int w = 0, base = code * words; w < words; w++) {
+                shared += Long.bitCount(mask[w] & masks[base + w]);
+                union += Long.bitCount(mask[w] | masks[base + w]);
+            }
+            overlap[code] = union == 0 ? 100 : (shared * 100.0) / union;
+        }
+        return overlap;
+    }
+
+    private static int epochDay(Student student, String name, int slot) {
+        if (slot >= 0) return student.getFieldValues().epochDay(slot);
+        LocalDate date = (LocalDate) student.getFieldValue(name);
+        return date != null ? (int) date.toEpochDay() : FieldLayout.NO_DATE;
+    }
+
+    private static String window(int start, int end) {
+        return LocalDate.ofEpochDay(start) + " to " + LocalDate.ofEpochDay(end);
+    }
+
+    /**
+     * Scores how much of the student's rotation [studentStart, studentEnd] the preceptor window
+     * [preceptorStart, preceptorEnd] covers, both inclusive, as a percentage of the rotation days.
+     */
+    static double overlapSimilarity(long studentStart, long studentEnd, long preceptorStart, long preceptorEnd) {
+        long overlap = Math.min(studentEnd, preceptorEnd) - Math.max(studentStart, preceptorStart) + 1;
+        if (overlap <= 0) return 0;
+        return (overlap * 100.0) / (studentEnd - studentStart + 1);
+    }
+
+    private static String stringValue(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static String lowerValue(Object value) {
+        return value != null ? String.valueOf(value).toLowerCase() : null;
+    }
+
+    Student getStudent() {
+        return student;
+    }
+
+    PreceptorPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return true if the field takes part in the student's scores
+     */
+    boolean isActive(int field) {
+        return active[field];
+    }
+
+    /**
+     * @return the student's pool dictionary code of an active picklist field
+     */
+    int code(int field) {
+        return codes[field];
+    }
+
+    /**
+     * @return the student's epoch day of an active date field, or the window start of a date
+     *         range field
+     */
+    int day(int field) {
+        return days[field];
+    }
+
+    /**
+     * @return the student's window end of an active date range field
+     */
+    int endDay(int field) {
+        return endDays[field];
+    }
+
+    /**
+     * Scores the student against every row of the pool.
+     *
+     * @return scores from 0-100 indexed by pool row
+     */
+    double[] score() {
+        double[] scores = new double[pool.size()];
+        score(0, pool.size(), scores);
+        return scores;
+    }
+
+    /**
+     * Scores the student against pool rows [from, to), one field column at a time.
+     *
+     * @param from first row, inclusive
+     * @param to last row, exclusive
+     * @param scores output indexed by pool row
+     */
+    void score(int from, int to, double[] scores) {
+        score(null, from, to, scores);
+    }
+
+    /**
+     * Scores the student against every row of the pool, abandoning rows as soon as they can no
+     * longer reach minimumScore.
+     *
+     * @param minimumScore lowest score the caller keeps
+     * @return scores indexed by pool row, Double.NEGATIVE_INFINITY for abandoned rows
+     */
+    double[] score(double minimumScore) {
+        double[] scores = new double[pool.size()];
+        score(null, 0, pool.size(), scores, minimumScore);
+        return scores;
+    }
+
+    /**
+     * Scores only the pool rows that can still reach minimumScore according to the pool's
+     * CandidateIndex, abandoning the remaining rows as soon as they fall behind. Rows skipped
+     * either way get Double.NEGATIVE_INFINITY.
+     *
+     * @param minimumScore lowest score the caller keeps
+     * @param scores output indexed by pool row
+     * @return number of rows kept by the index
+     */
+    int scoreCandidates(double minimumScore, double[] scores) {
+        int[] rows = new int[pool.size()];
+        int count = pool.candidateIndex().candidates(this, minimumScore, rows);
+        Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+        score(rows, 0, count, scores, minimumScore);
+        return count;
+    }
+
+    /**
+     * Scores the pool rows listed in rows[from, to), or rows [from, to) themselves when rows is
+     * null, abandoning each row as soon as it can no longer reach minimumScore.
+     *
+     * Fields are accumulated in scoring order, exactly like a full scan. Before each text field, every row is checked
+     * against an upper bound in which the fields not accumulated yet count as perfect matches,
+     * put through the same +5 adjustment and rounding as the final score. Rows that cannot reach
+     * minimumScore are dropped before their text similarity is looked up.
+     *
+     * @param rows ascending pool rows to score, or null for a contiguous range
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @param scores output indexed by pool row, Double.NEGATIVE_INFINITY for abandoned rows
+     * @param minimumScore lowest score the caller keeps
+     */
+    void score(int[] rows, int from, int to, double[] scores, double minimumScore) {
+        if (minimumScore <= 0) {
+            score(rows, from, to, scores);
+            return;
+        }
+        reset(rows, from, to);
+
+        double total = 0;
+        for (int f : scoringOrder) {
+            total += schema.getField(f).getWeight();
+        }
+        double remaining = total;
+        double minimumRatio = minimumRatio(minimumScore);
+
+        int[] alive = null;
+        int aliveCount = 0;
+        for (int f : scoringOrder) {
+            // a row's bound never drops below remaining / total, so until that falls under the
+            // minimum ratio no row can be abandoned and the check is skipped
+            if (ScoringSchema.isText(schema.getField(f).getType()) && remaining / total < minimumRatio) {
+                if (alive == null) {
+                    alive = new int[to - from];
+                    for (int i = from; i < to; i++) {
+                        alive[aliveCount++] = rows == null ? i : rows[i];
+                    }
+                }
+                int kept = 0;
+                for (int i = 0; i < aliveCount; i++) {
+                    int row = alive[i];
+                    double bound = possible[row] + remaining;
+                    if (bound > 0 && (weighted[row] + remaining) / bound >= minimumRatio) {
+                        alive[kept++] = row;
+                    } else {
+                        scores[row] = Double.NEGATIVE_INFINITY;
+                    }
+                }
+                aliveCount = kept;
+            }
+
+            if (alive == null) accumulate(f, rows, from, to);
+            else if (schema.getField(f).getType() == ScoringSchema.FieldType.TEXT) {
+                aliveCount = accumulateText(f, alive, aliveCount, remaining, minimumRatio, scores);
+            } else accumulate(f, alive, 0, aliveCount);
+            remaining -= schema.getField(f).getWeight();
+        }
+
+        if (alive == null) {
+            finish(rows, from, to, scores);
+        } else {
+            finish(alive, 0, aliveCount, scores);
+        }
+    }
+
+    /**
+     * Scores the student against the pool rows listed in rows[from, to), or against rows
+     * [from, to) themselves when rows is null, one field column at a time in scoring order.
+     *
+     * @param rows ascending pool rows to score, or null for a contiguous range
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @param scores output indexed by pool row
+     */
+    void score(int[] rows, int from, int to, double[] scores) {
+        reset(rows, from, to);
+        for (int f : scoringOrder) {
+            accumulate(f, rows, from, to);
+        }
+        finish(rows, from, to, scores);
+    }
+
+    private void finish(int[] rows, int from, int to, double[] scores) {
+        for (int i = from; i < to; i++) {
+            int row = rows == null ? i : rows[i];
+            scores[row] = finalScore(weighted[row], possible[row]);
+        }
+    }
+
+    private void reset(int[] rows, int from, int to) {
+        if (weighted == null) {
+            weighted = new double[pool.size()];
+            possible = new double[pool.size()];
+        }
+        for (int i = from; i < to; i++) {
+            int row = rows == null ? i : rows[i];
+            weighted[row] = 0;
+            possible[row] = 0;
+        }
+    }
+
+    /**
+     * Adds the contribution of one field to the weighted and possible scores of the given rows.
+     */
+    private void accumulate(int f, int[] rows, int from, int to) {
+        int rank = schema.getField(f).getWeight();
+
+        switch (schema.getField(f).getType()) {
+            case DATE: {
+                int[] column = pool.dayColumn(f);
+                long studentDay = days[f];
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    int preceptorDay = column[row];
+                    if (preceptorDay == FieldLayout.NO_DATE) continue;
+                    long daysDiff = Math.abs(studentDay - preceptorDay);
+                    double similarity = Math.max(0, 100 - ((daysDiff * 100.0) / 365));
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+            case DATE_RANGE: {
+                int[] starts = pool.dayColumn(f);
+                int[] ends = pool.endDayColumn(f);
+                long studentStart = days[f];
+                long studentEnd = endDays[f];
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    if (starts[row] == FieldLayout.NO_DATE) continue;
+                    double similarity = overlapSimilarity(studentStart, studentEnd, starts[row], ends[row]);
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+            case PICKLIST: {
+                int[] column = pool.codeColumn(f);
+                int studentCode = codes[f];
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    int preceptorCode = column[row];
+                    if (preceptorCode == PreceptorPool.NO_VALUE) continue;
+                    double similarity = preceptorCode == studentCode ? 100 : 0;
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+            case MULTI_PICKLIST: {
+                int[] column = pool.codeColumn(f);
+                double[] overlap = optionOverlap[f];
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    int preceptorCode = column[row];
+                    if (preceptorCode == PreceptorPool.NO_VALUE) continue;
+                    double similarity = overlap[preceptorCode];
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+            case TEXT: {
+                int[] column = pool.codeColumn(f);
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    int preceptorCode = column[row];
+                    if (preceptorCode == PreceptorPool.NO_VALUE) continue;
+                    double similarity = textSimilarity(f, preceptorCode);
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+            case TFIDF_TEXT: {
+                int[] column = pool.codeColumn(f);
+                for (int i = from; i < to; i++) {
+                    int row = rows == null ? i : rows[i];
+                    int preceptorCode = column[row];
+                    if (preceptorCode == PreceptorPool.NO_VALUE) continue;
+                    double similarity = termSimilarity(f, preceptorCode);
+                    weighted[row] += (similarity / 100) * rank;
+                    possible[row] += rank;
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Adds the contribution of a TEXT field to the rows still alive, computing each edit distance
+     * only as far as the row needs. A row survives the next bound check only if
+     * (weighted + similarity * rank + remaining after this field) / (possible + remaining) stays
+     * at the minimum ratio, which gives the least similarity the row needs here and so the
+     * largest edit distance worth computing. Rows whose distance exceeds it are abandoned.
+     *
+     * @param remaining weight of this field and of every field not accumulated yet
+     * @return number of rows left in alive
+     */
+    private int accumulateText(int f, int[] alive, int aliveCount, double remaining, double minimumRatio,
+                               double[] scores) {
+        int rank = schema.getField(f).getWeight();
+        int[] column = pool.codeColumn(f);
+        PreceptorPool.Dictionary dictionary = pool.dictionary(f);
+        int kept = 0;
+        for (int i = 0; i < aliveCount; i++) {
+            int row = alive[i];
+            int preceptorCode = column[row];
+            if (preceptorCode != PreceptorPool.NO_VALUE) {
+                // slack so rounding in this bound never abandons a row the exact check would keep
+                double needed = 100 * (minimumRatio * (possible[row] + remaining) - weighted[row] - (remaining - rank))
+                        / rank - 1e-6;
+                double similarity;
+                int length = Math.max(text[f].length, dictionary.length(preceptorCode));
+                if (needed <= 0 || length == 0) {
+                    similarity = textSimilarity(f, preceptorCode);
+                } else {
+                    // similarities are rounded to one decimal, so allow 0.05 more before giving up
+                    long maxDistance = (long) Math.floor(length * (100 - needed + 0.05) / 100) + 1;
+                    similarity = maxDistance >= length
+                            ? textSimilarity(f, preceptorCode)
+                            : textSimilarity(f, preceptorCode, (int) Math.max(0, maxDistance));
+                    if (Double.isNaN(similarity)) {
+                        scores[row] = Double.NEGATIVE_INFINITY;
+                        continue;
+                    }
+                }
+                weighted[row] += (similarity / 100) * rank;
+                possible[row] += rank;
+            }
+            alive[kept++] = row;
+        }
+        return kept;
+    }
+
+    /**
+     * @return similarity of one field of one pool row, or NaN if the preceptor has no value
+     */
+    private double similarity(int f, int row) {
+        if (schema.getField(f).getType() == ScoringSchema.FieldType.DATE) {
+            int preceptorDay = pool.dayColumn(f)[row];
+            if (preceptorDay == FieldLayout.NO_DATE) return Double.NaN;
+            long daysDiff = Math.abs((long) days[f] - preceptorDay);
+            return Math.max(0, 100 - ((daysDiff * 100.0) / 365));
+        }
+        if (schema.getField(f).getType() == ScoringSchema.FieldType.DATE_RANGE) {
+            int preceptorStart = pool.dayColumn(f)[row];
+            if (preceptorStart == FieldLayout.NO_DATE) return Double.NaN;
+            return overlapSimilarity(days[f], endDays[f], preceptorStart, pool.endDayColumn(f)[row]);
+        }
+
+        int preceptorCode = pool.codeColumn(f)[row];
+        if (preceptorCode == PreceptorPool.NO_VALUE) return Double.NaN;
+        switch (schema.getField(f).getType()) {
+            case PICKLIST:
+                return preceptorCode == codes[f] ? 100 : 0;
+            case MULTI_PICKLIST:
+                return optionOverlap[f][preceptorCode];
+            case TFIDF_TEXT:
+                return termSimilarity(f, preceptorCode);
+            default:
+                return textSimilarity(f, preceptorCode);
+        }
+    }
+
+    /**
+     * Rebuilds the score of one pool row field by field, for tracing. This walks the same fields in
+     * the same scoring order as score(), so the explained score equals the scored one.
+     *
+     * @param row pool row to explain
+     * @return explanation of the pair score
+     */
+    MatchExplanation explain(int row) {
+        Preceptor preceptor = pool.getPreceptor(row);
+        MatchExplanation explanation = new MatchExplanation(student.getId(), preceptor.getId());
+        double totalWeightedScore = 0;
+        double totalPossibleScore = 0;
+
+        for (int f : scoringOrder) {
+            ScoringSchema.Field field = schema.getField(f);
+            double similarity = similarity(f, row);
+            if (Double.isNaN(similarity)) continue;
+            String preceptorValue;
+            if (field.getType() == ScoringSchema.FieldType.DATE) {
+                preceptorValue = String.valueOf(LocalDate.ofEpochDay(pool.dayColumn(f)[row]));
+            } else if (field.getType() == ScoringSchema.FieldType.DATE_RANGE) {
+                preceptorValue = window(pool.dayColumn(f)[row], pool.endDayColumn(f)[row]);
+            } else {
+                preceptorValue = pool.dictionary(f).value(pool.codeColumn(f)[row]);
+            }
+
+            explanation.addContribution(new MatchExplanation.FieldContribution(
+                    field.getName(), studentValues[f], preceptorValue, similarity, field.getWeight()));
+            totalWeightedScore += (similarity / 100) * field.getWeight();
+            totalPossibleScore += field.getWeight();
+        }
+
+        explanation.setScore(finalScore(totalWeightedScore, totalPossibleScore));
+        return explanation;
+    }
+
+    /**
+     * @return the similarity of a TEXT field value, or NaN if its edit distance exceeds
+     *         maxDistance
+     */
+    private double textSimilarity(int field, int code, int maxDistance) {
+        double similarity = textMemo[field][code];
+        if (!Double.isNaN(similarity)) return similarity;
+        // an earlier bounded run already showed the distance is larger
+        if (distanceFloor[field][code] > maxDistance) return Double.NaN;
+
+        PreceptorPool.Dictionary dictionary = pool.dictionary(field);
+        String fieldName = schema.getField(field).getName();
+        if (cache != null) {
+            similarity = cache.get(fieldName, lowerText[field], dictionary.lowerValue(code));
+            if (!Double.isNaN(similarity)) {
+                textMemo[field][code] = similarity;
+                return similarity;
+            }
+        }
+        char[] studentText = text[field];
+        similarity = FuzzyMatchingAlgorithm.lowercaseTextSimilarity(
+                studentText, 0, studentText.length,
+                dictionary.chars(), dictionary.offset(code), dictionary.length(code), maxDistance);
+        if (Double.isNaN(similarity)) {
+            distanceFloor[field][code] = maxDistance + 1;
+            return similarity;
+        }
+        if (cache != null) {
+            cache.put(fieldName, lowerText[field], dictionary.lowerValue(code), similarity);
+        }
+        textMemo[field][code] = similarity;
+        return similarity;
+    }
+
+    private double textSimilarity(int field, int code) {
+        double similarity = textMemo[field][code];
+        if (Double.isNaN(similarity)) {
+            PreceptorPool.Dictionary dictionary = pool.dictionary(field);
+            String fieldName = schema.getField(field).getName();
+            if (cache != null) {
+                similarity = cache.get(fieldName, lowerText[field], dictionary.lowerValue(code));
+            }
+            if (Double.isNaN(similarity)) {
+                char[] studentText = text[field];
+                similarity = FuzzyMatchingAlgorithm.lowercaseTextSimilarity(
+                        studentText, 0, studentText.length,
+                        dictionary.chars(), dictionary.offset(code), dictionary.length(code));
+                if (cache != null) {
+                    cache.put(fieldName, lowerText[field], dictionary.lowerValue(code), similarity);
+                }
+            }
+            textMemo[field][code] = similarity;
+        }
+        return similarity;
+    }
+
+    private double termSimilarity(int field, int code) {
+        double similarity = textMemo[field][code];
+        if (Double.isNaN(similarity)) {
+            // the vectors depend on the pool's term frequencies, so the shared cache is not used
+            similarity = pool.dictionary(field).termVectors().similarity(termQueries[field], code);
+            textMemo[field][code] = similarity;
+        }
+        return similarity;
+    }
+
+    /**
+     * Turns the accumulated weights of one pair into the final 0-100 score.
+     */
+    static double finalScore(double totalWeightedScore, double totalPossibleScore) {
+        if (totalPossibleScore == 0) return 0;
+
+        double percentScore = (totalWeightedScore / totalPossibleScore) * 100;
+        if (percentScore < 50) {
+            percentScore += 5;
+        }
+        return Math.round(percentScore * 10) / 10.0;
+    }
+
+    /**
+     * @param ratio upper bound of weighted over possible score of a pair
+     * @param minimumScore lowest score the caller keeps
+     * @return true if some pair whose ratio is at most this bound can reach minimumScore
+     */
+    static boolean canReach(double ratio, double minimumScore) {
+        double percentScore = ratio * 100 + EPSILON;
+        // scores just under 50 get +5, so anything at or above 50 can come from up to 55
+        double best = percentScore < 50 ? percentScore + 5 : Math.max(percentScore, 55);
+        return Math.round(best * 10) / 10.0 >= minimumScore;
+    }
+
+    /**
+     * canReach only grows with the ratio, so it flips once. Finding where lets the scoring loop
+     * compare ratios instead of rounding a bound for every pair.
+     *
+     * @param minimumScore lowest score the caller keeps
+     * @return the smallest ratio for which canReach holds, or infinity if none does
+     */
+    static double minimumRatio(double minimumScore) {
+        if (canReach(0, minimumScore)) return 0;
+        if (!canReach(1, minimumScore)) return Double.POSITIVE_INFINITY;
+        double low = 0;
+        double high = 1;
+        // bisect until low and high are adjacent doubles
+        while (true) {
+            double mid = (low + high) / 2;
+            if (mid <= low || mid >= high) return high;
+            if (canReach(mid, minimumScore)) high = mid;
+            else low = mid;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.List;
+
+/**
+ * StudentUpdateSink persists approved students, for example as one Salesforce DML update per call.
+ *
+ * A sink signals a failed write by throwing; ApprovalPipeline then retries the whole batch, so
+ * an update of the same students must be safe to repeat.
+ */
+@FunctionalInterface
+public interface StudentUpdateSink {
+
+    /**
+     * @param students students carrying their matched preceptor, score and status
+     */
+    void update(List<Student> students);
+}
@@ -0,0 +1,231 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TermVectors holds the TF-IDF vector of every distinct value of one TFIDF_TEXT field of a pool.
+ *
+ * This class encapsulates:
+ * - A term id for every lowercased word the pool's values contain, in first-seen order
+ * - The inverse document frequency of each term, counted over the pool rows, so words most
+ *   preceptors use ("care", "medicine") weigh less than the ones that set an answer apart
+ * - One sparse vector per dictionary code, its (term id, weight) entries sorted by term id and
+ *   scaled to unit length, all stored back to back in two flat arrays
+ *
+ * Values are tokenized once when the pool is built, and a student value once per probe, so
+ * scoring a pair is a merge of two sorted entry lists. Vectors are immutable once built.
+ */
+final class TermVectors {
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final double[] idf;
+    private final double unseenIdf;
+    private final int[] offsets;
+    private final int[] terms;
+    private final double[] weights;
+
+    /**
+     * @param dictionary distinct values of the field
+     * @param column dictionary code of every pool row, PreceptorPool.NO_VALUE when missing
+     */
+    TermVectors(PreceptorPool.Dictionary dictionary, int[] column) {
+        int codeCount = dictionary.size();
+        int[] rowsPerCode = new int[codeCount];
+        int documents = 0;
+        for (int code : column) {
+            if (code == PreceptorPool.NO_VALUE) continue;
+            rowsPerCode[code]++;
+            documents++;
+        }
+
+        // term counts of every value, and the number of rows holding each term
+        List<int[]> counts = new ArrayList<>(codeCount);
+        int[] documentFrequency = new int[16];
+        for (int code = 0; code < codeCount; code++) {
+            Map<Integer, Integer> valueCounts = new HashMap<>();
+            for (String word : splitTerms(dictionary.lowerValue(code))) {
+                Integer id = termIds.get(word);
+                if (id == null) {
+                    id = termIds.size();
+                    termIds.put(word, id);
+                    if (id == documentFrequency.length) {
+                        documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+                    }
+                }
+                Integer count = valueCounts.get(id);
+                valueCounts.put(id, count == null ? 1 : count + 1);
+            }
+            int[] entries = new int[valueCounts.size() * 2];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : valueCounts.entrySet()) {
+                entries[i++] = entry.getKey();
+                entries[i++] = entry.getValue();
+                documentFrequency[entry.getKey()] += rowsPerCode[code];
+            }
+            counts.add(entries);
+        }
+
+        // smoothed so a term every row holds still counts, as in a one-row pool
+        this.idf = new double[termIds.size()];
+        for (int term = 0; term < idf.length; term++) {
+            idf[term] = inverseFrequency(documents, documentFrequency[term]);
+        }
+        this.unseenIdf = inverseFrequency(documents, 0);
+
+        this.offsets = new int[codeCount + 1];
+        int entryCount = 0;
+        for (int code = 0; code < codeCount; code++) {
+            entryCount += counts.get(code).length / 2;
+            offsets[code + 1] = entryCount;
+        }
+        this.terms = new int[entryCount];
+        this.weights = new double[entryCount];
+        for (int code = 0; code < codeCount; code++) {
+            int[] entries = counts.get(code);
+            int from = offsets[code];
+            int length = entries.length / 2;
+            long[] sorted = new long[length];
+            for (int i = 0; i < length; i++) {
+                sorted[i] = ((long) entries[2 * i] << 32) | entries[2 * i + 1];
+            }
+            Arrays.sort(sorted);
+
+            double norm = 0;
+            for (int i = 0; i < length; i++) {
+                int term = (int) (sorted[i] >>> 32);
+                double weight = (int) sorted[i] * idf[term];
+                terms[from + i] = term;
+                weights[from + i] = weight;
+                norm += weight * weight;
+            }
+            norm = Math.sqrt(norm);
+            for (int i = 0; i < length; i++) {
+                weights[from + i] /= norm;
+            }
+        }
+    }
+
+    private static double inverseFrequency(int documents, int documentFrequency) {
+        return Math.log((1.0 + documents) / (1.0 + documentFrequency)) + 1;
+    }
+
+    /**
+     * @param lower lowercased value
+     * @return the words of the value, in order and with repeats, split at every char that is
+     *         not a letter or digit
+     */
+    static List<String> splitTerms(String lower) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Vectorizes a value from outside the pool against the pool's terms and frequencies. Words no
+     * preceptor used get the highest inverse frequency: they cannot match, but they still make the
+     * value less similar to everything in the pool.
+     *
+     * @param lower lowercased value
+     * @return the vector of the value
+     */
+    Query query(String lower) {
+        Map<Integer, Integer> valueCounts = new HashMap<>();
+        Map<String, Integer> unseenCounts = new HashMap<>();
+        List<String> words = splitTerms(lower);
+        for (String word : words) {
+            Integer id = termIds.get(word);
+            if (id != null) {
+                Integer count = valueCounts.get(id);
+                valueCounts.put(id, count == null ? 1 : count + 1);
+            } else {
+                Integer count = unseenCounts.get(word);
+                unseenCounts.put(word, count == null ? 1 : count + 1);
+            }
+        }
+
+        int[] queryTerms = new int[valueCounts.size()];
+        int i = 0;
+        for (int term : valueCounts.keySet()) {
+            queryTerms[i++] = term;
+        }
+        Arrays.sort(queryTerms);
+        double[] queryWeights = new double[queryTerms.length];
+        double norm = 0;
+        for (i = 0; i < queryTerms.length; i++) {
+            queryWeights[i] = valueCounts.get(queryTerms[i]) * idf[queryTerms[i]];
+            norm += queryWeights[i] * queryWeights[i];
+        }
+        for (int count : unseenCounts.values()) {
+            norm += (count * unseenIdf) * (count * unseenIdf);
+        }
+        norm = Math.sqrt(norm);
+        for (i = 0; i < queryWeights.length; i++) {
+            queryWeights[i] /= norm;
+        }
+        return new Query(queryTerms, queryWeights, !words.isEmpty());
+    }
+
+    /**
+     * Scores a vectorized value against one distinct pool value as the cosine of their vectors.
+     * Two values without a single word are equal, a value without words matches nothing else.
+     *
+     * @param query vector of the other value
+     * @param code dictionary code of the pool value
+     * @return similarity from 0-100, rounded to one decimal place
+     */
+    double similarity(Query query, int code) {
+        int from = offsets[code];
+        int to = offsets[code + 1];
+        if (!query.hasWords || from == to) {
+            return !query.hasWords && from == to ? 100 : 0;
+        }
+
+        // both entry lists are sorted by term id, so one merge finds every shared term
+        double dot = 0;
+        int[] queryTerms = query.terms;
+        double[] queryWeights = query.weights;
+        int i = 0;
+        int j = from;
+        while (i < queryTerms.length && j < to) {
+            int left = queryTerms[i];
+            int right = terms[j];
+            if (left == right) {
+                dot += queryWeights[i++] * weights[j++];
+            } else if (left < right) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Math.round(Math.min(1, dot) * 1000) / 10.0;
+    }
+
+    /**
+     * A value vectorized against the terms of a pool: the known terms sorted by id with their
+     * weights, scaled by the norm of the whole value.
+     */
+    static final class Query {
+        private final int[] terms;
+        private final double[] weights;
+        private final boolean hasWords;
+
+        private Query(int[] terms, double[] weights, boolean hasWords) {
+            this.terms = terms;
+            this.weights = weights;
+            this.hasWords = hasWords;
+        }
+    }
+}
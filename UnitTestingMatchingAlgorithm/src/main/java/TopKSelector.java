@@ -0,0 +1,111 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+/**
+ * TopKSelector keeps the best K pool rows offered to it in a bounded min-heap of row indexes.
+ *
+ * Rows are ranked by score (highest first) and then by preceptor id, the same order as
+ * FuzzyMatchingAlgorithm.PreceptorMatch. Offering a row costs O(log K) and no match objects are
+ * created for rows that are dropped.
+ */
+final class TopKSelector {
+    private final PreceptorPool pool;
+    private final int[] heapRows;
+    private final double[] heapScores;
+    private int size;
+
+    /**
+     * @param k maximum number of rows to keep, must be at least 1
+     * @param pool pool the rows belong to, used for the preceptor id tie-break
+     */
+    TopKSelector(int k, PreceptorPool pool) {
+        this.pool = pool;
+        this.heapRows = new int[k];
+        this.heapScores = new double[k];
+    }
+
+    /**
+     * Offers a row to the selector. The row is kept if the selector is not full yet or the row
+     * ranks above the current worst row.
+     */
+    void offer(int row, double score) {
+        if (size < heapRows.length) {
+            heapRows[size] = row;
+            heapScores[size] = score;
+            siftUp(size++);
+        } else if (ranksBelow(heapRows[0], heapScores[0], row, score)) {
+            heapRows[0] = row;
+            heapScores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Empties the heap, returning the kept rows best first. The selector can be reused afterwards.
+     *
+     * @param scoresOut receives the score of each returned row, may be null
+     * @return kept rows, best first
+     */
+    int[] drainBestFirst(double[] scoresOut) {
+        int[] rows = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            rows[i] = heapRows[0];
+            if (scoresOut != null) scoresOut[i] = heapScores[0];
+            size--;
+            heapRows[0] = heapRows[size];
+            heapScores[0] = heapScores[size];
+            siftDown(0);
+        }
+        return rows;
+    }
+
+    /**
+     * @return true if row a ranks below row b (lower score, or same score and later preceptor id)
+     */
+    private boolean ranksBelow(int rowA, double scoreA, int rowB, double scoreB) {
+        if (scoreA != scoreB) return scoreA < scoreB;
+        return compareIds(pool.getPreceptor(rowA).getId(), pool.getPreceptor(rowB).getId()) > 0;
+    }
+
+    static int compareIds(String a, String b) {
+        if (a == null) return b == null ? 0 : 1;
+        if (b == null) return -1;
+        return a.compareTo(b);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBelow(heapRows[i], heapScores[i], heapRows[parent], heapScores[parent])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < size && ranksBelow(heapRows[right], heapScores[right], heapRows[left], heapScores[left])) {
+                worst = right;
+            }
+            if (!ranksBelow(heapRows[worst], heapScores[worst], heapRows[i], heapScores[i])) break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int row = heapRows[i];
+        heapRows[i] = heapRows[j];
+        heapRows[j] = row;
+        double score = heapScores[i];
+        heapScores[i] = heapScores[j];
+        heapScores[j] = score;
+    }
+}
@@ -0,0 +1,35 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorApiKernel computes dot products with the JDK Vector API, as many lanes per instruction as
+ * the CPU's widest vector registers hold.
+ *
+ * Only compiled by the vector-api Maven profile, which targets Java 17 and adds the
+ * jdk.incubator.vector module; VectorSimilarity loads it by name and falls back to its scalar
+ * kernel when the class or the module is missing.
+ */
+final class VectorApiKernel implements VectorSimilarity.Kernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector left = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector right = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            sum = left.fma(right, sum);
+        }
+        double dot = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            dot += a[aOffset + i] * b[bOffset + i];
+        }
+        return dot;
+    }
+}
@@ -0,0 +1,184 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+/**
+ * VectorSimilarity computes cosine similarity between dense feature vectors, such as preceptor
+ * profiles encoded as fixed-length embeddings.
+ *
+ * This class encapsulates:
+ * - A dot product kernel picked once at startup: VectorApiKernel, built on the JDK Vector API,
+ *   when the build included it (the vector-api Maven profile) and the JVM runs with
+ *   --add-modules jdk.incubator.vector, and otherwise a scalar loop
+ * - cosine() for one pair of vectors
+ * - Matrix, the rows to score stored back to back in one double[] with their norms computed up
+ *   front, so scoring a query against every row is one dot product per row
+ *
+ * The kernels may add up products in a different order, so results can differ in the last bits
+ * between the two. A vector of norm 0 has similarity 0 with everything.
+ */
+public final class VectorSimilarity {
+
+    private static final Kernel KERNEL = loadKernel();
+
+    private VectorSimilarity() {
+    }
+
+    /**
+     * Dot product of two ranges of the same length.
+     */
+    interface Kernel {
+        double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+    }
+
+    private static Kernel loadKernel() {
+        try {
+            return (Kernel) Class.forName(VectorSimilarity.class.getPackage().getName() + ".VectorApiKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // not compiled in, or the incubator module is not available at runtime
+            return new ScalarKernel();
+        }
+    }
+
+    /**
+     * @return true if dot products run on the Vector API kernel
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    /**
+     * @param a first vector
+     * @param b second vector, as long as the first
+     * @return cosine of the angle between the vectors, from -1 to 1
+     */
+    public static double cosine(double[] a, double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Vectors must have the same length");
+        }
+        return cosine(KERNEL.dot(a, 0, b, 0, a.length), norm(a), norm(b));
+    }
+
+    /**
+     * @param vector
+     * @return the Euclidean length of the vector
+     */
+    public static double norm(double[] vector) {
+        return Math.sqrt(KERNEL.dot(vector, 0, vector, 0, vector.length));
+    }
+
+    private static double cosine(double dot, double normA, double normB) {
+        if (normA == 0 || normB == 0) return 0;
+        return dot / (normA * normB);
+    }
+
+    /**
+     * Four independent sums, so consecutive multiply-adds do not wait on each other.
+     */
+    private static final class ScalarKernel implements Kernel {
+        @Override
+        public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+            double sum0 = 0;
+            double sum1 = 0;
+            double sum2 = 0;
+            double sum3 = 0;
+            int i = 0;
+            for (; i + 3 < length; i += 4) {
+                sum0 += a[aOffset + i] * b[bOffset + i];
+                sum1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+                sum2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+                sum3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+            }
+            for (; i < length; i++) {
+                sum0 += a[aOffset + i] * b[bOffset + i];
+            }
+            return (sum0 + sum1) + (sum2 + sum3);
+        }
+    }
+
+    /**
+     * Fixed-length vectors stored row after row in one contiguous array, with the norm of every
+     * row precomputed. Immutable once built, so it can be scored from several threads at once.
+     */
+    public static final class Matrix {
+        private final double[] values;
+        private final int dimensions;
+        private final int rows;
+        private final double[] norms;
+
+        /**
+         * @param rows one vector per row, all of the same length
+         */
+        public Matrix(double[][] rows) {
+            this(flatten(rows), rows.length == 0 ? 0 : rows[0].length);
+        }
+
+        /**
+         * @param values the rows back to back, copied
+         * @param dimensions length of every row
+         */
+        public Matrix(double[] values, int dimensions) {
+            if (dimensions < 0 || (dimensions == 0 ? values.length != 0 : values.length % dimensions != 0)) {
+                throw new IllegalArgumentException("values must hold whole rows of " + dimensions + " dimensions");
+            }
+            this.values = values.clone();
+            this.dimensions = dimensions;
+            this.rows = dimensions == 0 ? 0 : values.length / dimensions;
+            this.norms = new double[rows];
+            for (int row = 0; row < rows; row++) {
+                int offset = row * dimensions;
+                norms[row] = Math.sqrt(KERNEL.dot(this.values, offset, this.values, offset, dimensions));
+            }
+        }
+
+        private static double[] flatten(double[][] rows) {
+            int dimensions = rows.length == 0 ? 0 : rows[0].length;
+            double[] values = new double[rows.length * dimensions];
+            for (int row = 0; row < rows.length; row++) {
+                if (rows[row].length != dimensions) {
+                    throw new IllegalArgumentException("Every row must have " + dimensions + " dimensions");
+                }
+                System.arraycopy(rows[row], 0, values, row * dimensions, dimensions);
+            }
+            return values;
+        }
+
+        /**
+         * @return number of rows
+         */
+        public int size() {
+            return rows;
+        }
+
+        /**
+         * @return length of every row
+         */
+        public int getDimensions() {
+            return dimensions;
+        }
+
+        /**
+         * @param query vector of the matrix's dimensions
+         * @return cosine of the query with every row, indexed by row
+         */
+        public double[] cosine(double[] query) {
+            double[] scores = new double[rows];
+            cosine(query, scores);
+            return scores;
+        }
+
+        /**
+         * @param query vector of the matrix's dimensions
+         * @param out receives the cosine of the query with every row, at least size() long
+         */
+        public void cosine(double[] query, double[] out) {
+            if (query.length != dimensions) {
+                throw new IllegalArgumentException("Query must have " + dimensions + " dimensions");
+            }
+            double queryNorm = norm(query);
+            for (int row = 0, offset = 0; row < rows; row++, offset += dimensions) {
+                out[row] = VectorSimilarity.cosine(KERNEL.dot(query, 0, values, offset, dimensions), queryNorm, norms[row]);
+            }
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package UnitTestingMatchingAlgorithm.src.main.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * VocabularyIndex finds the terms of a vocabulary that are close to a query by Levenshtein
+ * distance, without comparing the query against every term.
+ *
+ * This class encapsulates:
+ * - A trie over the sorted vocabulary, stored in flat arrays with the children of each node
+ *   next to each other
+ * - A lookup that walks the trie carrying one row of the edit distance matrix per depth, which
+ *   runs a Levenshtein automaton for the query over the whole term set at once: a shared prefix
+ *   is computed once for every term below it, and a branch is left as soon as the smallest value
+ *   of its row exceeds the distance still of interest
+ * - within(), every term within a distance, and nearest(), the k closest terms
+ *
+ * Results are sorted by distance, ties by the position of the term in the vocabulary, and
+ * duplicate terms are all kept. The index is immutable once built and can be shared by any
+ * number of threads. Comparison is case-sensitive, so the matcher builds its vocabularies from
+ * lowercased terms.
+ */
+public final class VocabularyIndex {
+
+    private static final int UNBOUNDED = Integer.MAX_VALUE - 1;
+    private static final int INITIAL_RADIUS = 2;
+
+    private static final ThreadLocal<Rows> ROWS = new ThreadLocal<Rows>() {
+        @Override
+        protected Rows initialValue() {
+            return new Rows();
+        }
+    };
+
+    private final String[] terms;
+    // term indexes sorted by term, so the terms below a node are one run
+    private final int[] sortedTerms;
+    private final char[] nodeChar;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] termsFrom;
+    private final int[] termsTo;
+
+    /**
+     * @param vocabulary terms to index; each term's position is its index in results
+     */
+    public VocabularyIndex(Collection<String> vocabulary) {
+        this.terms = vocabulary.toArray(new String[0]);
+        int size = terms.length;
+        this.sortedTerms = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (terms[i] == null) {
+                throw new IllegalArgumentException("Vocabulary terms must not be null");
+            }
+            sortedTerms[i] = i;
+        }
+        long[] keys = new long[size];
+
+        // build the trie breadth first; a node covers the run of sorted terms sharing its prefix
+        int capacity = Math.max(16, size);
+        char[] chars = new char[capacity];
+        int[] first = new int[capacity];
+        int[] children = new int[capacity];
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int[] runFrom = new int[capacity];
+        int[] runTo = new int[capacity];
+        int[] depth = new int[capacity];
+        runFrom[0] = 0;
+        runTo[0] = size;
+        int nodes = 1;
+
+        for (int node = 0; node < nodes; node++) {
+            int lo = runFrom[node];
+            int hi = runTo[node];
+            int d = depth[node];
+
+            // sort the run by the char at this depth, terms that end here first, ties by index;
+            // node by node this sorts the whole vocabulary without comparing whole strings
+            if (hi - lo > 1) {
+                for (int i = lo; i < hi; i++) {
+                    String term = terms[sortedTerms[i]];
+                    long next = term.length() == d ? 0 : term.charAt(d) + 1;
+                    keys[i] = next << 32 | sortedTerms[i];
+                }
+                Arrays.sort(keys, lo, hi);
+                for (int i = lo; i < hi; i++) {
+                    sortedTerms[i] = (int) keys[i];
+                }
+            }
+            int end = lo;
+            while (end < hi && terms[sortedTerms[end]].length() == d) {
+                end++;
+            }
+            from[node] = lo;
+            to[node] = end;
+
+            first[node] = nodes;
+            for (int start = end; start < hi; ) {
+                char c = terms[sortedTerms[start]].charAt(d);
+                int stop = start + 1;
+                while (stop < hi && terms[sortedTerms[stop]].charAt(d) == c) {
+                    stop++;
+                }
+                if (nodes == chars.length) {
+                    int grown = chars.length * 2;
+                    chars = Arrays.copyOf(chars, grown);
+                    first = Arrays.copyOf(first, grown);
+                    children = Arrays.copyOf(children, grown);
+                    from = Arrays.copyOf(from, grown);
+                    to = Arrays.copyOf(to, grown);
+                    runFrom = Arrays.copyOf(runFrom, grown);
+                    runTo = Arrays.copyOf(runTo, grown);
+                    depth = Arrays.copyOf(depth, grown);
+                }
+                chars[nodes] = c;
+                runFrom[nodes] = start;
+                runTo[nodes] = stop;
+                depth[nodes] = d + 1;
+                nodes++;
+                children[node]++;
+                start = stop;
+            }
+        }
+
+        this.nodeChar = Arrays.copyOf(chars, nodes);
+        this.firstChild = Arrays.copyOf(first, nodes);
+        this.childCount = Arrays.copyOf(children, nodes);
+        this.termsFrom = Arrays.copyOf(from, nodes);
+        this.termsTo = Arrays.copyOf(to, nodes);
+    }
+
+    /**
+     * @return number of terms in the vocabulary
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * @param index position of the term in the vocabulary
+     * @return the term
+     */
+    public String term(int index) {
+        return terms[index];
+    }
+
+    /**
+     * @param query text to look up
+     * @param maxDistance largest distance returned
+     * @return every term within maxDistance of the query, closest first
+     */
+    public List<Match> within(String query, int maxDistance) {
+        return nearest(query, 0, maxDistance);
+    }
+
+    /**
+     * @param query text to look up
+     * @param k number of terms to return
+     * @return the k terms closest to the query, closest first
+     */
+    public List<Match> nearest(String query, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        return nearest(query, k, UNBOUNDED);
+    }
+
+    /**
+     * @param query text to look up
+     * @param k number of terms to return, or 0 for every term within maxDistance
+     * @param maxDistance largest distance returned
+     * @return up to k terms within maxDistance of the query, closest first
+     */
+    public List<Match> nearest(String query, int k, int maxDistance) {
+        if (k < 0 || maxDistance < 0) {
+            throw new IllegalArgumentException("k and maxDistance must not be negative");
+        }
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+        int limit = Math.min(maxDistance, UNBOUNDED);
+        int capacity = k > 0 ? Math.min(k, terms.length) : terms.length;
+        Rows rows = ROWS.get();
+
+        // with k set, look close to the query first: a walk without a radius follows every branch
+        // until k terms happen to turn up, while most lookups find theirs within a couple of edits
+        Kept kept = new Kept(capacity);
+        if (k > 0 && limit > INITIAL_RADIUS) {
+            search(query, rows, kept, k, INITIAL_RADIUS);
+            if (kept.size < capacity) {
+                kept = new Kept(capacity);
+                search(query, rows, kept, k, limit);
+            }
+        } else {
+            search(query, rows, kept, k, limit);
+        }
+
+        List<Match> matches = new ArrayList<>(kept.size);
+        for (int i = 0; i < kept.size; i++) {
+            matches.add(new Match(terms[kept.terms[i]], kept.terms[i], kept.distances[i]));
+        }
+        return matches;
+    }
+
+    /**
+     * Walks the trie depth first, keeping the terms within radius.
+     */
+    private void search(String query, Rows rows, Kept kept, int k, int radius) {
+        int m = query.length();
+        int[] first = rows.row(0, m + 1);
+        for (int j = 0; j <= m; j++) {
+            first[j] = j;
+        }
+        radius = keep(kept, 0, first[m], radius, k);
+
+        int[] stack = new int[Math.max(16, childCount[0])];
+        int[] stackDepth = new int[stack.length];
+        int top = 0;
+        for (int child = firstChild[0] + childCount[0] - 1; child >= firstChild[0]; child--) {
+            stack[top] = child;
+            stackDepth[top++] = 1;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            int d = stackDepth[top];
+            int[] previous = rows.row(d - 1, m + 1);
+            int[] row = rows.row(d, m + 1);
+            char c = nodeChar[node];
+
+            row[0] = d;
+            int smallest = d;
+            for (int j = 1; j <= m; j++) {
+                int cost = query.charAt(j - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1), previous[j - 1] + cost);
+                row[j] = value;
+                if (value < smallest) smallest = value;
+            }
+
+            radius = keep(kept, node, row[m], radius, k);
+            // every term below extends this row, so none can get closer than its smallest value,
+            // and a term more than radius chars longer than the query is out of reach
+            if (smallest > radius || childCount[node] == 0 || d - m >= radius) continue;
+            if (top + childCount[node] > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount[node]));
+                stackDepth = Arrays.copyOf(stackDepth, stack.length);
+            }
+            for (int child = firstChild[node] + childCount[node] - 1; child >= firstChild[node]; child--) {
+                stack[top] = child;
+                stackDepth[top++] = d + 1;
+            }
+        }
+    }
+
+    /**
+     * Offers the terms ending at a node.
+     *
+     * @return the radius for the rest of the lookup
+     */
+    private int keep(Kept kept, int node, int distance, int radius, int k) {
+        if (distance > radius) return radius;
+        for (int i = termsFrom[node]; i < termsTo[node]; i++) {
+            if (!kept.offer(sortedTerms[i], distance)) break;
+        }
+        if (k > 0 && kept.size == kept.capacity) {
+            // from now on a term has to be at least as close as the worst one kept
+            return Math.min(radius, kept.distances[kept.size - 1]);
+        }
+        return radius;
+    }
+
+    /**
+     * Matrix rows of a lookup, one per trie depth reached, owned by one thread and reused by
+     * its later lookups. A lookup never goes deeper than query length + radius, so rows are
+     * only added as deep as the walks actually go.
+     */
+    private static final class Rows {
+        private int[][] rows = new int[16][];
+
+        /**
+         * @return the row of a depth, at least width long
+         */
+        int[] row(int depth, int width) {
+            if (depth >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(depth + 1, rows.length * 2));
+            }
+            int[] row = rows[depth];
+            if (row == null || row.length < width) {
+                row = new int[Math.max(width, row == null ? 16 : row.length * 2)];
+                rows[depth] = row;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * The best terms found so far by (distance, index), the worst at the end.
+     */
+    private static final class Kept {
+        private final int capacity;
+        private int[] terms;
+        private int[] distances;
+        private int size;
+
+        private Kept(int capacity) {
+            this.capacity = capacity;
+            this.terms = new int[Math.min(capacity, 16)];
+            this.distances = new int[terms.length];
+        }
+
+        /**
+         * @return false if the term did not make the list, and so neither will a later term of
+         *         the same node, which has the same distance and a higher index
+         */
+        boolean offer(int term, int distance) {
+            if (size == capacity && compare(distance, term, distances[size - 1], terms[size - 1]) >= 0) {
+                return false;
+            }
+            if (size == terms.length && size < capacity) {
+                terms = Arrays.copyOf(terms, (int) Math.min(capacity, 2L * size));
+                distances = Arrays.copyOf(distances, terms.length);
+            }
+            int position = size < capacity ? size++ : size - 1;
+            while (position > 0 && compare(distance, term, distances[position - 1], terms[position - 1]) < 0) {
+                terms[position] = terms[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            terms[position] = term;
+            distances[position] = distance;
+            return true;
+        }
+
+        private static int compare(int distance, int term, int otherDistance, int otherTerm) {
+            return distance != otherDistance ? Integer.compare(distance, otherDistance) : Integer.compare(term, otherTerm);
+        }
+    }
+
+    /**
+     * @param text text to normalize
+     * @param maxDistance largest distance at which a term still replaces the text
+     * @return the closest vocabulary term within maxDistance, the earliest on ties, or the text
+     *         itself if no term is that close
+     */
+    public String canonical(String text, int maxDistance) {
+        List<Match> closest = nearest(text, 1, maxDistance);
+        return closest.isEmpty() ? text : closest.get(0).getTerm();
+    }
+
+    /**
+     * A vocabulary term found by a lookup.
+     */
+    public static final class Match {
+        private final String term;
+        private final int index;
+        private final int distance;
+
+        Match(String term, int index, int distance) {
+            this.term = term;
+            this.index = index;
+            this.distance = distance;
+        }
+
+        /**
+         * @return the term
+         */
+        public String getTerm() {
+            return term;
+        }
+
+        /**
+         * @return position of the term in the vocabulary
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return edit distance between the term and the query
+         */
+        public int getDistance() {
+            return distance;
+        }
+    }
+}
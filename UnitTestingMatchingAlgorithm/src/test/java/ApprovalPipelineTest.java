@@ -0,0 +1,177 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.ApprovalPipeline;
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.InMemoryStudentSink;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import UnitTestingMatchingAlgorithm.src.main.java.StudentUpdateSink;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+public class ApprovalPipelineTest {
+
+    private static FuzzyMatchingAlgorithm.ApproveMatchRequest approval(int i) {
+        return new FuzzyMatchingAlgorithm.ApproveMatchRequest("ST" + i, "PR" + (i % 7), 80.0 + i % 20);
+    }
+
+    /**
+     * Tests that concurrent approvals are written once each, in batches no larger than the limit.
+     * This test verifies:
+     * 1. Every future completes with the approved student record
+     * 2. No sink call carries more than 200 students
+     * 3. Every approval reaches the sink exactly once
+     */
+    @Test
+    public void testConcurrentApprovalsAreBatched() throws Exception {
+        InMemoryStudentSink sink = new InMemoryStudentSink();
+        MatchingConfig config = new MatchingConfig();
+        config.setStudentUpdateSink(sink);
+
+        ConcurrentLinkedQueue<CompletableFuture<Student>> futures = new ConcurrentLinkedQueue<>();
+        try (ApprovalPipeline pipeline = new ApprovalPipeline(config, 200, 300, 3, 1)) {
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 250;
+                Thread producer = new Thread(() -> {
+                    try {
+                        for (int i = offset; i < offset + 250; i++) {
+                            futures.add(pipeline.submit(approval(i)));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            pipeline.flush().get();
+        }
+
+        assertEquals(1000, futures.size());
+        for (CompletableFuture<Student> future : futures) {
+            Student student = future.getNow(null);
+            assertNotNull(student);
+            assertEquals("Approved", student.getMatchStatus());
+        }
+        Set<String> written = new HashSet<>();
+        for (List<Student> batch : sink.getBatches()) {
+            assertTrue(batch.size() <= 200, "Batch of " + batch.size());
+            for (Student student : batch) {
+                assertTrue(written.add(student.getId()), student.getId() + " written twice");
+            }
+        }
+        assertEquals(1000, written.size());
+    }
+
+    /**
+     * Tests that approvals queued while a write is in progress are coalesced into one batch.
+     * This test verifies:
+     * 1. The first approval is written on its own while the sink holds the writer
+     * 2. Every approval queued behind it goes out in a single sink call
+     */
+    @Test
+    public void testApprovalsQueuedDuringWriteAreCoalesced() throws Exception {
+        InMemoryStudentSink stored = new InMemoryStudentSink();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StudentUpdateSink sink = students -> {
+            // hold the writer inside its first call until the test has queued the rest
+            if (writing.getCount() > 0) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            stored.update(students);
+        };
+        MatchingConfig config = new MatchingConfig();
+        config.setStudentUpdateSink(sink);
+
+        try (ApprovalPipeline pipeline = new ApprovalPipeline(config, 200, 300, 3, 1)) {
+            pipeline.submit(approval(0));
+            writing.await();
+            for (int i = 1; i <= 50; i++) {
+                pipeline.submit(approval(i));
+            }
+            release.countDown();
+            pipeline.flush().get();
+        }
+
+        List<List<Student>> batches = stored.getBatches();
+        assertEquals(2, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(50, batches.get(1).size(), "Approvals queued during a write should share one batch");
+    }
+
+    /**
+     * Tests retries of failed batches.
+     * This test verifies:
+     * 1. A batch failing fewer times than the attempt limit is still written
+     * 2. A batch failing every attempt completes its futures with the sink failure
+     * 3. A closed pipeline rejects new approvals
+     */
+    @Test
+    public void testFailedBatchesAreRetried() throws Exception {
+        InMemoryStudentSink sink = new InMemoryStudentSink();
+        MatchingConfig config = new MatchingConfig();
+        config.setStudentUpdateSink(sink);
+        ApprovalPipeline pipeline = new ApprovalPipeline(config, 200, 1000, 3, 1);
+
+        // one approval, so the writer cannot split it into batches and the call count is exact
+        sink.setFailures(2);
+        CompletableFuture<Student> recovered = pipeline.submit(approval(1));
+        pipeline.flush().get();
+        assertEquals("ST1", recovered.get().getId());
+        assertEquals(3, sink.getCallCount());
+        assertEquals(1, sink.getStudents().size());
+
+        sink.setFailures(3);
+        CompletableFuture<Student> lost = pipeline.submit(approval(3));
+        pipeline.flush().get();
+        CompletionException failure = assertThrows(CompletionException.class, lost::join);
+        assertEquals("Simulated update failure", failure.getCause().getMessage());
+        assertEquals(1, sink.getStudents().size());
+
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(approval(4)));
+    }
+
+    /**
+     * Tests a sink that throws an Error instead of an exception.
+     * This test verifies:
+     * 1. The approvals of the failing batch and the flush behind them fail instead of hanging
+     * 2. The pipeline closes itself, so later approvals are rejected at once
+     */
+    @Test
+    public void testSinkErrorClosesPipeline() throws Exception {
+        MatchingConfig config = new MatchingConfig();
+        config.setStudentUpdateSink(students -> {
+            throw new AssertionError("Simulated sink error");
+        });
+        ApprovalPipeline pipeline = new ApprovalPipeline(config, 200, 1000, 3, 1);
+
+        CompletableFuture<Student> lost = pipeline.submit(approval(1));
+        CompletionException failure = assertThrows(CompletionException.class, lost::join);
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertEquals("Simulated sink error", failure.getCause().getCause().getMessage());
+
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(approval(2)));
+        assertThrows(IllegalStateException.class, pipeline::flush);
+        pipeline.close();
+    }
+}
@@ -0,0 +1,95 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.AvailabilityIndex;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AvailabilityIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    private static List<Preceptor> randomPreceptors(Random random, int count) {
+        List<Preceptor> preceptors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Preceptor preceptor = new Preceptor("PR" + i, "Dr. " + i);
+            // some windows missing a date, some entered backwards
+            if (random.nextInt(10) > 0) {
+                LocalDate start = BASE.plusDays(random.nextInt(730));
+                preceptor.setFieldValue("startDate", start);
+                if (random.nextInt(10) > 0) {
+                    preceptor.setFieldValue("endDate", start.plusDays(random.nextInt(200) - 20));
+                }
+            }
+            preceptors.add(preceptor);
+        }
+        return preceptors;
+    }
+
+    private static long[] window(Preceptor preceptor) {
+        LocalDate start = (LocalDate) preceptor.getFieldValue("startDate");
+        LocalDate end = (LocalDate) preceptor.getFieldValue("endDate");
+        if (start == null || end == null) return null;
+        return new long[] {
+                Math.min(start.toEpochDay(), end.toEpochDay()), Math.max(start.toEpochDay(), end.toEpochDay())
+        };
+    }
+
+    private static int[] toArray(List<Integer> rows) {
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = rows.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Tests interval queries against a linear scan of the pool.
+     * This test verifies:
+     * 1. overlapping() returns exactly the rows whose window shares a day with the query
+     * 2. availableOn() returns exactly the rows whose window contains the day
+     * 3. startingBetween() returns exactly the rows whose window starts in the range
+     * 4. Rows missing a date are reported by missingRows() and never returned by a query
+     */
+    @Test
+    public void testQueriesMatchLinearScan() {
+        Random random = new Random(14);
+        PreceptorPool pool = new PreceptorPool(randomPreceptors(random, 2000));
+        AvailabilityIndex index = pool.availabilityIndex();
+        assertSame(index, pool.availabilityIndex(), "The index should be built once per pool");
+
+        List<Integer> missing = new ArrayList<>();
+        for (int row = 0; row < pool.size(); row++) {
+            if (window(pool.getPreceptor(row)) == null) missing.add(row);
+        }
+        assertArrayEquals(toArray(missing), index.missingRows());
+
+        for (int query = 0; query < 300; query++) {
+            LocalDate start = BASE.plusDays(random.nextInt(800) - 30);
+            LocalDate end = start.plusDays(random.nextInt(120));
+
+            List<Integer> overlapping = new ArrayList<>();
+            List<Integer> availableOnStart = new ArrayList<>();
+            List<Integer> startingBetween = new ArrayList<>();
+            for (int row = 0; row < pool.size(); row++) {
+                long[] window = window(pool.getPreceptor(row));
+                if (window == null) continue;
+                if (window[0] <= end.toEpochDay() && window[1] >= start.toEpochDay()) overlapping.add(row);
+                if (window[0] <= start.toEpochDay() && window[1] >= start.toEpochDay()) availableOnStart.add(row);
+                if (window[0] >= start.toEpochDay() && window[0] <= end.toEpochDay()) startingBetween.add(row);
+            }
+
+            assertArrayEquals(toArray(overlapping), index.overlapping(start, end), "overlapping " + start + " to " + end);
+            assertArrayEquals(toArray(availableOnStart), index.availableOn(start), "availableOn " + start);
+            assertArrayEquals(toArray(startingBetween), index.startingBetween(start, end), "startingBetween " + start + " to " + end);
+        }
+
+        assertEquals(0, index.overlapping(BASE.plusDays(5), BASE).length, "An empty query window matches nothing");
+    }
+}
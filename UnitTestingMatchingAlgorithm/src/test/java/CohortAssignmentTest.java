@@ -0,0 +1,125 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.CohortAssignment;
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CohortAssignmentTest {
+
+    private static FuzzyMatchingAlgorithm.MatchResult result(String studentId, Object... preceptorScores) {
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches = new ArrayList<>();
+        for (int i = 0; i < preceptorScores.length; i += 2) {
+            String preceptorId = (String) preceptorScores[i];
+            matches.add(new FuzzyMatchingAlgorithm.PreceptorMatch(
+                    preceptorId, preceptorId, (Double) preceptorScores[i + 1], null));
+        }
+        return new FuzzyMatchingAlgorithm.MatchResult(studentId, studentId, matches);
+    }
+
+    private static double total(List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals) {
+        double total = 0;
+        for (FuzzyMatchingAlgorithm.ApproveMatchRequest approval : approvals) {
+            total += approval.getMatchScore();
+        }
+        return total;
+    }
+
+    /**
+     * Best total score over every way of giving each student one of its candidates or nothing.
+     */
+    private static double bruteForce(double[][] scores, int[] capacities, int student, int[] load) {
+        if (student == scores.length) return 0;
+        double best = bruteForce(scores, capacities, student + 1, load);
+        for (int p = 0; p < capacities.length; p++) {
+            if (Double.isNaN(scores[student][p]) || load[p] == capacities[p]) continue;
+            load[p]++;
+            best = Math.max(best, scores[student][p] + bruteForce(scores, capacities, student + 1, load));
+            load[p]--;
+        }
+        return best;
+    }
+
+    /**
+     * Tests that a popular preceptor is not over-assigned.
+     * This test verifies:
+     * 1. Two students preferring the same single-seat preceptor do not both get it
+     * 2. The student who loses less by moving is the one moved
+     */
+    @Test
+    public void testCapacityMovesCheaperStudent() {
+        List<FuzzyMatchingAlgorithm.MatchResult> results = new ArrayList<>();
+        results.add(result("ST001", "PR001", 95.0, "PR002", 90.0));
+        results.add(result("ST002", "PR001", 92.0, "PR003", 70.0));
+
+        List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals = CohortAssignment.assign(results, 1);
+
+        assertEquals(2, approvals.size());
+        assertEquals("ST001", approvals.get(0).getStudentId());
+        assertEquals("PR002", approvals.get(0).getPreceptorId());
+        assertEquals(90.0, approvals.get(0).getMatchScore(), 0.0);
+        assertEquals("ST002", approvals.get(1).getStudentId());
+        assertEquals("PR001", approvals.get(1).getPreceptorId());
+    }
+
+    /**
+     * Tests the assignment against an exhaustive search on small random cohorts.
+     * This test verifies:
+     * 1. The total score equals the best possible total
+     * 2. No preceptor exceeds its capacity and no student is assigned twice
+     * 3. Every approval is one of the student's candidates, with its score
+     */
+    @Test
+    public void testTotalScoreIsOptimal() {
+        Random random = new Random(15);
+        for (int round = 0; round < 300; round++) {
+            int studentCount = 1 + random.nextInt(7);
+            int preceptorCount = 1 + random.nextInt(4);
+            double[][] scores = new double[studentCount][preceptorCount];
+            int[] capacities = new int[preceptorCount];
+            Map<String, Integer> capacityById = new HashMap<>();
+            for (int p = 0; p < preceptorCount; p++) {
+                capacities[p] = random.nextInt(3);
+                capacityById.put("PR" + p, capacities[p]);
+            }
+
+            List<FuzzyMatchingAlgorithm.MatchResult> results = new ArrayList<>();
+            for (int s = 0; s < studentCount; s++) {
+                List<Object> candidates = new ArrayList<>();
+                for (int p = 0; p < preceptorCount; p++) {
+                    scores[s][p] = Double.NaN;
+                    if (random.nextInt(4) == 0) continue;
+                    scores[s][p] = random.nextInt(1001) / 10.0;
+                    candidates.add("PR" + p);
+                    candidates.add(scores[s][p]);
+                }
+                results.add(result("ST" + s, candidates.toArray()));
+            }
+
+            List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals =
+                    CohortAssignment.assign(results, capacityById, 1);
+
+            int[] load = new int[preceptorCount];
+            boolean[] assigned = new boolean[studentCount];
+            for (FuzzyMatchingAlgorithm.ApproveMatchRequest approval : approvals) {
+                int s = Integer.parseInt(approval.getStudentId().substring(2));
+                int p = Integer.parseInt(approval.getPreceptorId().substring(2));
+                assertFalse(assigned[s], "Student assigned twice in round " + round);
+                assigned[s] = true;
+                assertEquals(scores[s][p], approval.getMatchScore(), 0.0);
+                load[p]++;
+            }
+            for (int p = 0; p < preceptorCount; p++) {
+                assertTrue(load[p] <= capacities[p], "Capacity exceeded in round " + round);
+            }
+            assertEquals(bruteForce(scores, capacities, 0, new int[preceptorCount]), total(approvals), 1e-6,
+                    "Total score in round " + round);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Cohorts builds random students and preceptors for the tests that check two ways of scoring the
+ * same records against each other.
+ *
+ * Values come from the small vocabularies below, a share of them is left empty to cover missing
+ * values, and a few preceptors have no availability window. A smaller version of the benchmarks'
+ * CohortGenerator: callers pass their own seeded Random, so a test can mix records with its own
+ * random choices and still replay them.
+ */
+final class Cohorts {
+
+    // specialties share words, so TF-IDF scores depend on how often each word occurs in the pool
+    static final String[] SPECIALTIES = {"Nursing", "Medicine", "Pediatrics", "Surgery", "Family Practice",
+            "Family Medicine", "Internal Medicine", "Pediatric Surgery"};
+    static final String[] AVAILABILITY = {"Full-time", "Part-time"};
+    static final String[] POPULATIONS = {"Children", "Adults", "Elderly", "Children;Adults", "Adults; Elderly"};
+    static final String[] SKILLS = {"CPR Certified", "First Aid", "Wound Care", "Pediatric Advanced Life Support"};
+    static final String[] ACADEMIC_YEARS = {"Second Year", "Third Year", "Fourth Year"};
+    static final String[] EDUCATION_LEVELS = {"Undergraduate", "Graduate"};
+
+    /**
+     * Text and picklist fields every record may get, in the order they are drawn.
+     */
+    static final String[] FIELDS = {"specialtyEntering", "specialtyInterest", "availability", "interestPopulations",
+            "specialSkills", "academicYear", "educationLevel"};
+    private static final String[][] VALUES = {SPECIALTIES, SPECIALTIES, AVAILABILITY, POPULATIONS, SKILLS,
+            ACADEMIC_YEARS, EDUCATION_LEVELS};
+
+    private Cohorts() {
+    }
+
+    /**
+     * @param random source of the values
+     * @param id student id
+     * @return a student named "Student " + id with random answers
+     */
+    static Student student(Random random, String id) {
+        Student student = new Student(id, "Student " + id);
+        fill(random, student);
+        return student;
+    }
+
+    /**
+     * @param random source of the values
+     * @param id preceptor id
+     * @return a preceptor named "Dr. " + id with random answers
+     */
+    static Preceptor preceptor(Random random, String id) {
+        Preceptor preceptor = new Preceptor(id, "Dr. " + id);
+        fill(random, preceptor);
+        return preceptor;
+    }
+
+    /**
+     * Sets random answers and a rotation window on a student.
+     */
+    static void fill(Random random, Student student) {
+        fill(random, student::setFieldValue, true);
+    }
+
+    /**
+     * Sets random answers on a preceptor, and an availability window on nine in ten of them.
+     */
+    static void fill(Random random, Preceptor preceptor) {
+        fill(random, preceptor::setFieldValue, random.nextInt(10) > 0);
+    }
+
+    private interface FieldSetter {
+        void set(String fieldName, Object value);
+    }
+
+    private static void fill(Random random, FieldSetter record, boolean dated) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            // leave some fields empty to cover missing values
+            record.set(FIELDS[i], random.nextInt(8) == 0 ? null : VALUES[i][random.nextInt(VALUES[i].length)]);
+        }
+        if (dated) {
+            LocalDate start = LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365));
+            record.set("startDate", start);
+            record.set("endDate", start.plusDays(60 + random.nextInt(60)));
+        }
+    }
+}
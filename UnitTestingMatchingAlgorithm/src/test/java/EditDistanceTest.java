@@ -0,0 +1,104 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.EditDistance;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class EditDistanceTest {
+
+    /**
+     * The full-matrix Levenshtein distance that FuzzyMatchingAlgorithm used before the shared
+     * kernel, kept here as the reference implementation.
+     */
+    private static int referenceDistance(String s, String t) {
+        int m = s.length();
+        int n = t.length();
+
+        int[][] d = new int[m + 1][n + 1];
+
+        for (int i = 0; i <= m; i++) {
+            d[i][0] = i;
+        }
+
+        for (int j = 0; j <= n; j++) {
+            d[0][j] = j;
+        }
+
+        for (int j = 1; j <= n; j++) {
+            for (int i = 1; i <= m; i++) {
+                int cost = (s.charAt(i - 1) == t.charAt(j - 1)) ? 0 : 1;
+                d[i][j] = Math.min(
+                        Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                        d[i - 1][j - 1] + cost
+                );
+            }
+        }
+
+        return d[m][n];
+    }
+
+    static String randomText(Random random, int maxLength, String alphabet) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Tests the kernel on known pairs.
+     * This test verifies:
+     * 1. Identical and empty strings
+     * 2. Classic examples (kitten/sitting, puppy/puppies)
+     * 3. Bounded calls return maxDistance + 1 once the bound is exceeded
+     */
+    @Test
+    public void testKnownDistances() {
+        assertEquals(0, EditDistance.distance("", ""));
+        assertEquals(4, EditDistance.distance("", "test"));
+        assertEquals(0, EditDistance.distance("graduate", "graduate"));
+        assertEquals(3, EditDistance.distance("kitten", "sitting"));
+        assertEquals(3, EditDistance.distance("puppy", "puppies"));
+        assertEquals(1, EditDistance.distance("test", "text"));
+
+        assertEquals(3, EditDistance.distance("kitten", "sitting", 3));
+        assertEquals(3, EditDistance.distance("kitten", "sitting", 2), "Exceeded bound should return maxDistance + 1");
+        assertEquals(1, EditDistance.distance("a", "abcdef", 0), "Length gap alone should exceed the bound");
+    }
+
+    /**
+     * Differential test of the automatically selected engine against the reference DP.
+     * This test verifies, on random strings:
+     * 1. Short strings (single word bit-parallel engine) match exactly
+     * 2. Strings longer than 64 chars (blocked bit-parallel engine) match exactly
+     * 3. Non-Latin chars are handled like any other char
+     * 4. Bounded calls agree with the reference for every bound
+     */
+    @Test
+    public void testBitParallelMatchesReferenceDistance() {
+        Random random = new Random(20250401L);
+        String[] alphabets = {"ab", "abcde", "abcdefghijklmnopqrstuvwxyz ", "a\u00e9\u4e2d\u0394b"};
+        int[] maxLengths = {8, 64, 65, 130, 300};
+
+        for (int maxLength : maxLengths) {
+            for (String alphabet : alphabets) {
+                for (int i = 0; i < 300; i++) {
+                    String s = randomText(random, maxLength, alphabet);
+                    String t = randomText(random, maxLength, alphabet);
+                    int expected = referenceDistance(s, t);
+
+                    assertEquals(expected, EditDistance.distance(s, t),
+                            "Distance mismatch for '" + s + "' and '" + t + "'");
+
+                    int bound = random.nextInt(maxLength + 2);
+                    int expectedBounded = expected <= bound ? expected : bound + 1;
+                    assertEquals(expectedBounded, EditDistance.distance(s, t, bound),
+                            "Bounded distance mismatch for '" + s + "' and '" + t + "' with bound " + bound);
+                }
+            }
+        }
+    }
+}
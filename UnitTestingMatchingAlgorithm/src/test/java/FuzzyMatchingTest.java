@@ -1,7 +1,13 @@
 package UnitTestingMatchingAlgorithm.src.test.java;
 
 import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchExplanation;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchTracer;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
 import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.ScoringSchema;
+import UnitTestingMatchingAlgorithm.src.main.java.SimilarityCache;
 import UnitTestingMatchingAlgorithm.src.main.java.Student;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,7 +15,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public class FuzzyMatchingTest {
 
@@ -342,4 +354,555 @@ public class FuzzyMatchingTest {
 
         System.out.println("--- Finished Match Approval Test ---\n");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that slot-backed field storage keeps the setFieldValue/getFieldValue contract.
+     * This test verifies:
+     * 1. Text fields come back exactly as they were set
+     * 2. Date fields come back as equal LocalDate values
+     * 3. Fields outside the layout are still stored and returned
+     * 4. Setting a field to null clears it
+     * 5. A text field set to a non-String value returns that value and scores as its String form
+     */
+    @Test
+    public void testFieldValueCompatibility() {
+        Student student = new Student("ST002", "Jane Roe");
+        student.setFieldValue("specialtyInterest", "Pediatrics");
+        student.setFieldValue("startDate", LocalDate.of(2025, 6, 1));
+        student.setFieldValue("customField", 42);
+
+        assertEquals("Pediatrics", student.getFieldValue("specialtyInterest"));
+        assertEquals(LocalDate.of(2025, 6, 1), student.getFieldValue("startDate"));
+        assertEquals(42, student.getFieldValue("customField"));
+        assertEquals("none", student.getFieldValue("endDate", "none"));
+
+        student.setFieldValue("specialtyInterest", null);
+        student.setFieldValue("startDate", null);
+        assertNull(student.getFieldValue("specialtyInterest"), "Cleared text field should be null");
+        assertNull(student.getFieldValue("startDate"), "Cleared date field should be null");
+
+        Student numericYear = new Student("ST003", "Sam Poe");
+        numericYear.setFieldValue("academicYear", 3);
+        assertEquals(3, numericYear.getFieldValue("academicYear"));
+        Preceptor preceptor = new Preceptor("PR009", "Dr. Year");
+        preceptor.setFieldValue("academicYear", "3");
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateMatchScore(numericYear, preceptor), 0.0);
+        numericYear.setFieldValue("academicYear", "Third Year");
+        assertEquals("Third Year", numericYear.getFieldValue("academicYear"));
+    }
+
+    /**
+     * Tests that scoring against a shared PreceptorPool gives the same results as scoring
+     * against the preceptor list directly.
+     *
+     * @see FuzzyMatchingAlgorithm#calculateMatches(List)
+     */
+    @Test
+    public void testSharedPoolMatchesPreceptorList() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+
+        PreceptorPool pool = new PreceptorPool(testPreceptors);
+        List<FuzzyMatchingAlgorithm.MatchRequest> listRequests = new ArrayList<>();
+        listRequests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, testPreceptors, 0.0));
+        List<FuzzyMatchingAlgorithm.MatchRequest> poolRequests = new ArrayList<>();
+        poolRequests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, pool, 0.0));
+
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> listMatches =
+                FuzzyMatchingAlgorithm.calculateMatches(listRequests).get(0).getMatches();
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> poolMatches =
+                FuzzyMatchingAlgorithm.calculateMatches(poolRequests).get(0).getMatches();
+
+        assertEquals(listMatches.size(), poolMatches.size(), "Pool and list should return the same number of matches");
+        for (int i = 0; i < listMatches.size(); i++) {
+            assertEquals(listMatches.get(i).getPreceptorId(), poolMatches.get(i).getPreceptorId());
+            assertEquals(listMatches.get(i).getScore(), poolMatches.get(i).getScore(), 0.0);
+        }
+        assertEquals(100.0, poolMatches.get(0).getScore(), 0.0, "Identical answers should score 100");
+    }
+
+    /**
+     * Tests that the parallel matcher returns the same results, in request order, as the
+     * sequential matcher. The split threshold is lowered so preceptor splitting is exercised too.
+     *
+     * @see FuzzyMatchingAlgorithm#calculateMatchesParallel(List, java.util.concurrent.Executor, MatchingConfig)
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        MatchingConfig config = new MatchingConfig();
+        config.setParallelism(4);
+        config.setPreceptorSplitThreshold(2);
+
+        List<Preceptor> smallPool = testPreceptors.subList(0, 1);
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Student student = Student.createSampleStudent();
+            student.setId("ST" + i);
+            student.setFieldValue("startDate", LocalDate.of(2025, 1, 1).plusDays(i * 7));
+            requests.add(new FuzzyMatchingAlgorithm.MatchRequest(student, i % 2 == 0 ? testPreceptors : smallPool, 0.0));
+        }
+
+        ForkJoinPool executor = new ForkJoinPool(4);
+        try {
+            List<FuzzyMatchingAlgorithm.MatchResult> sequential = FuzzyMatchingAlgorithm.calculateMatches(requests, config);
+            List<FuzzyMatchingAlgorithm.MatchResult> parallel =
+                    FuzzyMatchingAlgorithm.calculateMatchesParallel(requests, executor, config);
+
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).getStudentId(), parallel.get(i).getStudentId(), "Results should keep request order");
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> expected = sequential.get(i).getMatches();
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> actual = parallel.get(i).getMatches();
+                assertEquals(expected.size(), actual.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(expected.get(j).getPreceptorId(), actual.get(j).getPreceptorId());
+                    assertEquals(expected.get(j).getScore(), actual.get(j).getScore(), 0.0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that maxResults keeps only the best matches and that equal scores are ordered by
+     * preceptor id. This test verifies:
+     * 1. No more than maxResults matches are returned
+     * 2. The returned matches are the highest scoring ones
+     * 3. Ties are broken by preceptor id, regardless of pool order
+     */
+    @Test
+    public void testMaxResultsKeepsBestMatches() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+
+        List<Preceptor> preceptors = new ArrayList<>(testPreceptors);
+        Preceptor twin = new Preceptor("PR000", "Dr. Twin Match");
+        for (String field : new String[] {"specialtyEntering", "specialtyInterest", "startDate", "endDate",
+                "availability", "interestPopulations", "specialSkills", "academicYear", "educationLevel",
+                "educationalProgram", "providerRestrictions"}) {
+            twin.setFieldValue(field, testPreceptors.get(0).getFieldValue(field));
+        }
+        preceptors.add(twin);
+
+        FuzzyMatchingAlgorithm.MatchRequest request = new FuzzyMatchingAlgorithm.MatchRequest(testStudent, preceptors, 0.0);
+        request.setMaxResults(3);
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(request);
+
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                FuzzyMatchingAlgorithm.calculateMatches(requests).get(0).getMatches();
+
+        assertEquals(3, matches.size(), "Only maxResults matches should be returned");
+        assertEquals("PR000", matches.get(0).getPreceptorId(), "Equal scores should be ordered by preceptor id");
+        assertEquals("PR001", matches.get(1).getPreceptorId(), "Equal scores should be ordered by preceptor id");
+        assertEquals("PR002", matches.get(2).getPreceptorId(), "Poorest match should be dropped");
+    }
+
+    /**
+     * Tests that the similarity cache is filled by one run and hit by the next, and that it
+     * respects its size bound. This test verifies:
+     * 1. The first run only misses, the second run only hits
+     * 2. Both runs produce the same scores
+     * 3. A tiny cache evicts entries instead of growing
+     */
+    @Test
+    public void testSimilarityCacheHitsAcrossRuns() {
+        SimilarityCache cache = new SimilarityCache(1000, 4);
+        MatchingConfig config = new MatchingConfig();
+        config.setSimilarityCache(cache);
+
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, testPreceptors, 0.0));
+
+        List<FuzzyMatchingAlgorithm.MatchResult> first = FuzzyMatchingAlgorithm.calculateMatches(requests, config);
+        long misses = cache.getMissCount();
+        assertTrue(misses > 0, "First run should fill the cache");
+        assertEquals(0, cache.getHitCount(), "First run should not find anything cached");
+
+        List<FuzzyMatchingAlgorithm.MatchResult> second = FuzzyMatchingAlgorithm.calculateMatches(requests, config);
+        assertEquals(misses, cache.getMissCount(), "Second run should not miss");
+        assertEquals(misses, cache.getHitCount(), "Second run should hit every lookup");
+        for (int i = 0; i < first.get(0).getMatches().size(); i++) {
+            assertEquals(first.get(0).getMatches().get(i).getScore(), second.get(0).getMatches().get(i).getScore(), 0.0);
+        }
+
+        SimilarityCache tiny = new SimilarityCache(1, 1);
+        tiny.put("field", "a", "b", 50.0);
+        tiny.put("field", "a", "c", 25.0);
+        assertEquals(1, tiny.size(), "Cache should stay within its bound");
+        assertEquals(1, tiny.getEvictionCount());
+        assertTrue(Double.isNaN(tiny.get("field", "a", "b")), "Least recently used entry should be evicted");
+        assertEquals(25.0, tiny.get("field", "a", "c"), 0.0);
+    }
+
+    /**
+     * Tests that a sampled tracer explains one pair in N and that explanations agree with the
+     * scores returned by the matcher. This test verifies:
+     * 1. With 1-in-2 sampling, two of the three pairs are explained
+     * 2. Each explanation lists the fields that contributed, with their schema weights and
+     *    similarities, and the final score of the pair
+     * 3. The contributions add up to the explained score
+     */
+    @Test
+    public void testSampledTracerExplainsPairs() {
+        final List<MatchExplanation> explanations = new ArrayList<>();
+        MatchTracer collecting = new MatchTracer() {
+            @Override
+            public boolean shouldExplain(Student student, Preceptor preceptor) {
+                return true;
+            }
+
+            @Override
+            public void explain(MatchExplanation explanation) {
+                explanations.add(explanation);
+            }
+
+            @Override
+            public void event(String message) {
+            }
+        };
+
+        MatchingConfig config = new MatchingConfig();
+        config.setTracer(MatchTracer.sampled(collecting, 2));
+
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, testPreceptors, 0.0));
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, config).get(0).getMatches();
+
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < ScoringSchema.DEFAULT.size(); i++) {
+            ScoringSchema.Field field = ScoringSchema.DEFAULT.getField(i);
+            weights.put(field.getName(), field.getWeight());
+        }
+
+        assertEquals(2, explanations.size(), "1-in-2 sampling should explain two of three pairs");
+        for (MatchExplanation explanation : explanations) {
+            assertEquals(testStudent.getId(), explanation.getStudentId());
+            // providerRestrictions only counts when the student answered "Yes"
+            assertEquals(10, explanation.getContributions().size(), "Every answered field should contribute");
+
+            Set<String> fields = new HashSet<>();
+            double weighted = 0;
+            double possible = 0;
+            for (MatchExplanation.FieldContribution contribution : explanation.getContributions()) {
+                assertTrue(fields.add(contribution.getField()), "Each field should contribute once");
+                assertEquals(weights.get(contribution.getField()), Integer.valueOf(contribution.getWeight()),
+                        "Weight of " + contribution.getField());
+                assertTrue(contribution.getSimilarity() >= 0 && contribution.getSimilarity() <= 100,
+                        "Similarity of " + contribution.getField());
+                assertNotNull(contribution.getStudentValue(), "Student value of " + contribution.getField());
+                assertNotNull(contribution.getPreceptorValue(), "Preceptor value of " + contribution.getField());
+                weighted += contribution.getWeightedScore();
+                possible += contribution.getWeight();
+            }
+            assertFalse(fields.contains("providerRestrictions"));
+
+            double percentScore = weighted / possible * 100;
+            if (percentScore < 50) percentScore += 5;
+            assertEquals(Math.round(percentScore * 10) / 10.0, explanation.getScore(), 0.1,
+                    "Contributions should add up to the score");
+            for (FuzzyMatchingAlgorithm.PreceptorMatch match : matches) {
+                if (match.getPreceptorId().equals(explanation.getPreceptorId())) {
+                    assertEquals(match.getScore(), explanation.getScore(), 0.0, "Explanation should match the score");
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests option overlap scoring of multi-select picklists. This test verifies:
+     * 1. Selections with the same options score like an exact match, regardless of order and spacing
+     * 2. Partially overlapping selections get partial credit (shared options over all options)
+     * 3. Options no preceptor picked still count against the overlap
+     */
+    @Test
+    public void testMultiSelectPicklistOverlap() {
+        testStudent.setFieldValue("interestPopulations", "Children;Adults");
+        Preceptor sameOptions = testPreceptors.get(0);
+        sameOptions.setFieldValue("interestPopulations", "Adults; Children");
+
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateMatchScore(testStudent, sameOptions), 0.0,
+                "Same options in another order should fully match");
+
+        // 1 of 3 options shared: interestPopulations earns 4 * 1/3 of its 4 weight points
+        sameOptions.setFieldValue("interestPopulations", "Children;Elderly");
+        assertEquals(93.5, FuzzyMatchingAlgorithm.calculateMatchScore(testStudent, sameOptions), 0.0,
+                "Partial overlap should get partial credit");
+
+        testStudent.setFieldValue("interestPopulations", "Children;Veterans");
+        sameOptions.setFieldValue("interestPopulations", "Children");
+        assertEquals(95.1, FuzzyMatchingAlgorithm.calculateMatchScore(testStudent, sameOptions), 0.0,
+                "An option unknown to the pool should still count in the union");
+    }
+
+    /**
+     * Tests that the blocking stage skips preceptors that cannot reach the minimum score without
+     * changing the results. This test verifies:
+     * 1. Results with blocking equal the results of a full scan
+     * 2. A preceptor with a different availability and dates a year away is never scored
+     * 3. The pruning counters account for every pair
+     */
+    @Test
+    public void testBlockingMatchesFullScan() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+
+        List<Preceptor> preceptors = new ArrayList<>(testPreceptors);
+        Preceptor farAway = new Preceptor("PR004", "Dr. Next Year");
+        farAway.setFieldValue("specialtyInterest", "Pediatrics");
+        farAway.setFieldValue("startDate", LocalDate.of(2026, 6, 1));
+        farAway.setFieldValue("endDate", LocalDate.of(2026, 8, 30));
+        farAway.setFieldValue("availability", "Part-time");
+        preceptors.add(farAway);
+
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, preceptors, 80.0));
+
+        MatchingConfig fullScan = new MatchingConfig();
+        MatchingConfig blocking = new MatchingConfig();
+        blocking.setBlockingEnabled(true);
+
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> expected =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, fullScan).get(0).getMatches();
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> actual =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, blocking).get(0).getMatches();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPreceptorId(), actual.get(i).getPreceptorId());
+            assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 0.0);
+        }
+
+        assertEquals(4, blocking.getBlockingStats().getPairCount());
+        assertTrue(blocking.getBlockingStats().getPrunedPairCount() >= 1, "PR004 should never be scored");
+        assertEquals(0, fullScan.getBlockingStats().getPairCount(), "Blocking is off by default");
+    }
+
+    /**
+     * Tests that abandoning pairs below the minimum score keeps exactly the matches and scores
+     * of a full scan. This test verifies, for thresholds around the +5 adjustment:
+     * 1. Every pair scoring at least the threshold is returned
+     * 2. Returned scores are identical to the ones calculateMatchScores computes
+     */
+    @Test
+    public void testEarlyTerminationKeepsExactScores() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        PreceptorPool pool = new PreceptorPool(testPreceptors);
+        double[] fullScan = FuzzyMatchingAlgorithm.calculateMatchScores(testStudent, pool);
+
+        for (double minimumScore : new double[] {20.0, 49.9, 50.0, 54.9, 55.0, 80.0, 99.9}) {
+            List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+            requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, pool, minimumScore));
+            List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                    FuzzyMatchingAlgorithm.calculateMatches(requests, new MatchingConfig()).get(0).getMatches();
+
+            int expected = 0;
+            for (int row = 0; row < pool.size(); row++) {
+                if (fullScan[row] >= minimumScore) expected++;
+            }
+            assertEquals(expected, matches.size(), "Matches at threshold " + minimumScore);
+            for (FuzzyMatchingAlgorithm.PreceptorMatch match : matches) {
+                int row = testPreceptors.indexOf(match.getPreceptor());
+                assertEquals(fullScan[row], match.getScore(), 0.0, "Score of " + match.getPreceptorId());
+            }
+        }
+    }
+
+    /**
+     * Tests that the bounded edit distance of the pruning path keeps exactly the scores of a full
+     * scan. This test verifies, for random text with a few typos against thresholds around the
+     * +5 adjustment:
+     * 1. Every pair scoring at least the threshold is returned
+     * 2. Returned scores are identical to the ones calculateMatchScores computes
+     */
+    @Test
+    public void testBoundedTextDistanceKeepsExactScores() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        String[] fields = {"specialtyEntering", "specialtyInterest", "academicYear", "educationLevel", "educationalProgram"};
+        String[] values = {"Family Practice", "Pediatrics", "Internal Medicine", "Third Year", "Bachelor of Nursing"};
+        Random random = new Random(6);
+
+        List<Preceptor> preceptors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Preceptor preceptor = new Preceptor("PR" + i, "Dr. " + i);
+            for (String field : fields) {
+                if (random.nextInt(10) > 0) {
+                    preceptor.setFieldValue(field, typo(random, values[random.nextInt(values.length)]));
+                }
+            }
+            preceptors.add(preceptor);
+        }
+        PreceptorPool pool = new PreceptorPool(preceptors);
+
+        for (int s = 0; s < 20; s++) {
+            Student student = new Student("S" + s, "Student " + s);
+            for (String field : fields) {
+                student.setFieldValue(field, typo(random, values[random.nextInt(values.length)]));
+            }
+            double[] fullScan = FuzzyMatchingAlgorithm.calculateMatchScores(student, pool);
+            for (double minimumScore : new double[] {30.0, 49.9, 55.0, 70.0, 85.0}) {
+                List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+                requests.add(new FuzzyMatchingAlgorithm.MatchRequest(student, pool, minimumScore));
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                        FuzzyMatchingAlgorithm.calculateMatches(requests, new MatchingConfig()).get(0).getMatches();
+
+                int expected = 0;
+                for (int row = 0; row < pool.size(); row++) {
+                    if (fullScan[row] >= minimumScore) expected++;
+                }
+                assertEquals(expected, matches.size(), "Matches of " + student.getId() + " at threshold " + minimumScore);
+                for (FuzzyMatchingAlgorithm.PreceptorMatch match : matches) {
+                    int row = preceptors.indexOf(match.getPreceptor());
+                    assertEquals(fullScan[row], match.getScore(), 0.0, "Score of " + match.getPreceptorId());
+                }
+            }
+        }
+    }
+
+    private static String typo(Random random, String value) {
+        StringBuilder text = new StringBuilder(value);
+        for (int edits = random.nextInt(4); edits > 0; edits--) {
+            text.setCharAt(random.nextInt(text.length()), (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Tests the rotation overlap score of the ROTATION_OVERLAP schema.
+     * This test verifies:
+     * 1. A preceptor covering the whole rotation gets full credit for dates
+     * 2. Partial coverage gets the covered share of the rotation days
+     * 3. A window that misses the rotation gets no date credit, and blocking skips it
+     */
+    @Test
+    public void testRotationOverlapScore() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+
+        List<Preceptor> preceptors = new ArrayList<>(testPreceptors);
+        Preceptor nextYear = new Preceptor("PR004", "Dr. Next Year");
+        for (String field : new String[] {"specialtyEntering", "specialtyInterest", "availability",
+                "interestPopulations", "specialSkills", "academicYear", "educationLevel", "educationalProgram"}) {
+            nextYear.setFieldValue(field, testPreceptors.get(0).getFieldValue(field));
+        }
+        nextYear.setFieldValue("startDate", LocalDate.of(2026, 6, 1));
+        nextYear.setFieldValue("endDate", LocalDate.of(2026, 8, 30));
+        preceptors.add(nextYear);
+
+        PreceptorPool pool = new PreceptorPool(preceptors, ScoringSchema.ROTATION_OVERLAP);
+        double[] scores = FuzzyMatchingAlgorithm.calculateMatchScores(testStudent, pool);
+        assertEquals(100.0, scores[0], 0.0, "Same window should fully match");
+        // PR002 covers 77 of the 91 rotation days and has a different skill: (41 - 4 - 8 * 14/91) / 41
+        assertEquals(87.2, scores[1], 0.0, "Partial coverage should get partial credit");
+        // everything but the 8 rotation points matches: 33 / 41
+        assertEquals(80.5, scores[3], 0.0, "A window a year later should get no date credit");
+
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, pool, 85.0));
+        MatchingConfig blocking = new MatchingConfig();
+        blocking.setBlockingEnabled(true);
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, blocking).get(0).getMatches();
+
+        assertEquals(2, matches.size());
+        assertEquals("PR001", matches.get(0).getPreceptorId());
+        assertEquals("PR002", matches.get(1).getPreceptorId());
+        assertEquals(scores[1], matches.get(1).getScore(), 0.0);
+        assertTrue(blocking.getBlockingStats().getPrunedPairCount() >= 1, "PR004 should never be scored");
+    }
+
+    private static Map<String, Integer> wordCounts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) counts.merge(word, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Dense TF-IDF cosine of two texts, word frequencies taken over the given documents.
+     */
+    private static double referenceTfidfSimilarity(String left, String right, List<String> documents) {
+        Map<String, Integer> leftCounts = wordCounts(left);
+        Map<String, Integer> rightCounts = wordCounts(right);
+        Set<String> words = new HashSet<>(leftCounts.keySet());
+        words.addAll(rightCounts.keySet());
+        double dot = 0;
+        double leftNorm = 0;
+        double rightNorm = 0;
+        for (String word : words) {
+            int frequency = 0;
+            for (String document : documents) {
+                if (wordCounts(document).containsKey(word)) frequency++;
+            }
+            double idf = Math.log((1.0 + documents.size()) / (1.0 + frequency)) + 1;
+            double l = leftCounts.getOrDefault(word, 0) * idf;
+            double r = rightCounts.getOrDefault(word, 0) * idf;
+            dot += l * r;
+            leftNorm += l * l;
+            rightNorm += r * r;
+        }
+        double cosine = dot / Math.sqrt(leftNorm * rightNorm);
+        return Math.round(cosine * 1000) / 10.0;
+    }
+
+    /**
+     * Tests the TF-IDF cosine scoring of TFIDF_TEXT fields.
+     * This test verifies:
+     * 1. Scores equal a dense TF-IDF cosine computed over the preceptor pool
+     * 2. The same words in another order and case are a perfect match
+     * 3. The TFIDF schema returns the same matches and scores with and without pruning
+     */
+    @Test
+    public void testTfidfTextScore() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        ScoringSchema interestOnly = new ScoringSchema(new ScoringSchema.Field[] {
+                new ScoringSchema.Field("specialtyInterest", 1, ScoringSchema.FieldType.TFIDF_TEXT)
+        });
+
+        List<String> interests = new ArrayList<>();
+        interests.add("Pediatric emergency medicine");
+        interests.add("Adult emergency medicine");
+        interests.add("Family medicine");
+        interests.add("Pediatric surgery, pediatric oncology");
+        interests.add("Medicine - family practice");
+        List<Preceptor> preceptors = new ArrayList<>();
+        for (int i = 0; i < interests.size(); i++) {
+            Preceptor preceptor = new Preceptor("PR" + i, "Dr. Preceptor " + i);
+            preceptor.setFieldValue("specialtyInterest", interests.get(i));
+            preceptors.add(preceptor);
+        }
+        PreceptorPool pool = new PreceptorPool(preceptors, interestOnly);
+
+        Student student = new Student("ST100", "Pat Lee");
+        student.setFieldValue("specialtyInterest", "pediatric medicine and research");
+        double[] scores = FuzzyMatchingAlgorithm.calculateMatchScores(student, pool);
+        for (int row = 0; row < interests.size(); row++) {
+            double similarity = referenceTfidfSimilarity(student.getFieldValue("specialtyInterest").toString(),
+                    interests.get(row), interests);
+            double expected = Math.round((similarity < 50 ? similarity + 5 : similarity) * 10) / 10.0;
+            assertEquals(expected, scores[row], 0.0, "Score against " + interests.get(row));
+        }
+
+        student.setFieldValue("specialtyInterest", "FAMILY MEDICINE");
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateMatchScores(student, pool)[2], 0.0);
+        student.setFieldValue("specialtyInterest", "medicine family");
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateMatchScores(student, pool)[2], 0.0,
+                "Word order should not matter");
+
+        PreceptorPool fullPool = new PreceptorPool(testPreceptors, ScoringSchema.TFIDF);
+        double[] fullScan = FuzzyMatchingAlgorithm.calculateMatchScores(testStudent, fullPool);
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        requests.add(new FuzzyMatchingAlgorithm.MatchRequest(testStudent, fullPool, 60.0));
+        MatchingConfig blocking = new MatchingConfig();
+        blocking.setBlockingEnabled(true);
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, blocking).get(0).getMatches();
+        int expected = 0;
+        for (double score : fullScan) {
+            if (score >= 60.0) expected++;
+        }
+        assertEquals(expected, matches.size());
+        for (FuzzyMatchingAlgorithm.PreceptorMatch match : matches) {
+            assertEquals(fullScan[testPreceptors.indexOf(match.getPreceptor())], match.getScore(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchStateStore;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.ScoringSchema;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class MatchStateStoreTest {
+
+    private static void assertMatchesFullRun(MatchStateStore store, Map<String, Student> students,
+                                             Map<String, Preceptor> preceptors, double minimumScore, int maxResults,
+                                             MatchingConfig config) {
+        PreceptorPool pool = new PreceptorPool(new ArrayList<>(preceptors.values()), config.getSchema());
+        for (Student student : students.values()) {
+            FuzzyMatchingAlgorithm.MatchRequest request =
+                    new FuzzyMatchingAlgorithm.MatchRequest(student, pool, minimumScore);
+            request.setMaxResults(maxResults);
+            List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+            requests.add(request);
+            List<FuzzyMatchingAlgorithm.PreceptorMatch> expected =
+                    FuzzyMatchingAlgorithm.calculateMatches(requests, config).get(0).getMatches();
+            List<FuzzyMatchingAlgorithm.PreceptorMatch> actual = store.getMatches(student.getId());
+
+            assertEquals(expected.size(), actual.size(), "Matches of " + student.getId());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getPreceptorId(), actual.get(i).getPreceptorId());
+                assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 0.0);
+            }
+        }
+        assertEquals(students.size(), store.getResults().size());
+    }
+
+    /**
+     * Applies random upserts and removals to a fresh store, checking it against a full run
+     * after each one.
+     */
+    private static void assertChangesMatchFullRun(Random random, MatchingConfig config, int maxResults) {
+        double minimumScore = 50.0;
+        MatchStateStore store = new MatchStateStore(minimumScore, maxResults, config);
+        Map<String, Student> students = new LinkedHashMap<>();
+        Map<String, Preceptor> preceptors = new LinkedHashMap<>();
+
+        for (int i = 0; i < 15; i++) {
+            Preceptor preceptor = Cohorts.preceptor(random, "PR" + i);
+            preceptors.put(preceptor.getId(), preceptor);
+            store.upsertPreceptor(preceptor);
+        }
+        for (int i = 0; i < 10; i++) {
+            Student student = Cohorts.student(random, "ST" + i);
+            students.put(student.getId(), student);
+            store.upsertStudent(student);
+        }
+        assertMatchesFullRun(store, students, preceptors, minimumScore, maxResults, config);
+
+        for (int change = 0; change < 60; change++) {
+            switch (random.nextInt(4)) {
+                case 0: {
+                    Preceptor preceptor = Cohorts.preceptor(random, "PR" + random.nextInt(20));
+                    preceptors.put(preceptor.getId(), preceptor);
+                    store.upsertPreceptor(preceptor);
+                    break;
+                }
+                case 1: {
+                    String id = "PR" + random.nextInt(20);
+                    assertEquals(preceptors.remove(id) != null, store.removePreceptor(id));
+                    break;
+                }
+                case 2: {
+                    Student student = Cohorts.student(random, "ST" + random.nextInt(14));
+                    students.put(student.getId(), student);
+                    store.upsertStudent(student);
+                    break;
+                }
+                default: {
+                    String id = "ST" + random.nextInt(14);
+                    assertEquals(students.remove(id) != null, store.removeStudent(id));
+                    break;
+                }
+            }
+            assertMatchesFullRun(store, students, preceptors, minimumScore, maxResults, config);
+        }
+
+        List<Preceptor> current = new ArrayList<>(preceptors.values());
+        PreceptorPool pool = new PreceptorPool(current, config.getSchema());
+        for (Student student : students.values()) {
+            double[] scores = FuzzyMatchingAlgorithm.calculateMatchScores(student, pool);
+            for (int row = 0; row < current.size(); row++) {
+                assertEquals(scores[row], store.getScore(student.getId(), current.get(row).getId()), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Tests that a store patched by single changes always equals a full run.
+     * This test verifies:
+     * 1. Student and preceptor upserts, replacements and removals keep every match list exact
+     * 2. Full top lists are refilled when a listed preceptor drops out
+     * 3. Pair scores are available for any current student and preceptor
+     */
+    @Test
+    public void testIncrementalChangesMatchFullRun() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        Random random = new Random(17);
+        for (int maxResults : new int[] {0, 3}) {
+            assertChangesMatchFullRun(random, new MatchingConfig(), maxResults);
+        }
+    }
+
+    /**
+     * Tests a store whose schema scores text by TF-IDF.
+     * This test verifies:
+     * 1. A preceptor change, which moves the term weights of the whole pool, leaves every match
+     *    list and pair score equal to scoring against the current pool
+     */
+    @Test
+    public void testTfidfChangesMatchFullRun() {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        Random random = new Random(24);
+        MatchingConfig config = new MatchingConfig();
+        config.setSchema(ScoringSchema.TFIDF);
+        for (int maxResults : new int[] {0, 3}) {
+            assertChangesMatchFullRun(random, config, maxResults);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorSnapshot;
+import UnitTestingMatchingAlgorithm.src.main.java.ScoringSchema;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class PreceptorSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a pool read back from a snapshot scores like the pool it was written from.
+     * This test verifies:
+     * 1. Ids, names and schema fields of every preceptor are restored
+     * 2. Every student gets the same matches and scores from both pools, for date and date range
+     *    schemas
+     * 3. Writing again replaces the previous snapshot
+     */
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        Random random = new Random(20);
+        List<Preceptor> preceptors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Preceptor preceptor = new Preceptor("PR" + i, i % 50 == 0 ? null : "Dr. Preceptor " + i);
+            Cohorts.fill(random, preceptor);
+            preceptors.add(preceptor);
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            students.add(Cohorts.student(random, "ST" + i));
+        }
+
+        Path file = directory.resolve("preceptors.snapshot");
+        for (ScoringSchema schema : Arrays.asList(ScoringSchema.DEFAULT, ScoringSchema.ROTATION_OVERLAP, ScoringSchema.TFIDF)) {
+            PreceptorPool original = new PreceptorPool(preceptors, schema);
+            PreceptorSnapshot.write(original, file);
+            PreceptorPool restored = PreceptorSnapshot.read(file, schema);
+
+            assertEquals(original.size(), restored.size());
+            for (int row = 0; row < original.size(); row++) {
+                Preceptor expected = original.getPreceptor(row);
+                Preceptor actual = restored.getPreceptor(row);
+                assertEquals(expected.getId(), actual.getId());
+                assertEquals(expected.getName(), actual.getName());
+                for (String field : new String[] {"specialtyEntering", "interestPopulations", "startDate", "endDate"}) {
+                    assertEquals(expected.getFieldValue(field), actual.getFieldValue(field), field + " of row " + row);
+                }
+            }
+
+            for (Student student : students) {
+                assertArrayEquals(FuzzyMatchingAlgorithm.calculateMatchScores(student, original),
+                        scores(student, restored, original.size()), 0.0);
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> expected = matches(student, original);
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> actual = matches(student, restored);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getPreceptorId(), actual.get(i).getPreceptorId());
+                    assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 0.0);
+                }
+            }
+        }
+        assertEquals(0, Files.list(directory).filter(path -> !path.equals(file)).count());
+    }
+
+    private static double[] scores(Student student, PreceptorPool pool, int size) {
+        double[] scores = FuzzyMatchingAlgorithm.calculateMatchScores(student, pool);
+        assertEquals(size, scores.length);
+        return scores;
+    }
+
+    private static List<FuzzyMatchingAlgorithm.PreceptorMatch> matches(Student student, PreceptorPool pool) {
+        FuzzyMatchingAlgorithm.MatchRequest request = new FuzzyMatchingAlgorithm.MatchRequest(student, pool, 50.0);
+        request.setMaxResults(10);
+        MatchingConfig config = new MatchingConfig();
+        config.setSchema(pool.getSchema());
+        return FuzzyMatchingAlgorithm.calculateMatches(Arrays.asList(request), config).get(0).getMatches();
+    }
+
+    /**
+     * Tests that unusable snapshot files are rejected.
+     * This test verifies:
+     * 1. A file that is not a snapshot fails with an IOException
+     * 2. A truncated snapshot, one whose string lengths overrun their table, and one whose row
+     *    count is negative or does not match its ids and names fail with an IOException
+     * 3. A snapshot written for another schema fails with an IllegalArgumentException
+     */
+    @Test
+    public void testInvalidSnapshotsAreRejected() throws IOException {
+        Path file = directory.resolve("preceptors.snapshot");
+        Files.write(file, "Id,Name\nPR001,Dr. Smith\n".getBytes("US-ASCII"));
+        assertThrows(IOException.class, () -> PreceptorSnapshot.read(file));
+
+        PreceptorSnapshot.write(new PreceptorPool(Preceptor.createSamplePreceptors()), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(IOException.class, () -> PreceptorSnapshot.read(file));
+
+        // the name of the first field is a one-entry table right after the four header ints
+        PreceptorSnapshot.write(new PreceptorPool(Preceptor.createSamplePreceptors()), file);
+        bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(24, 1000);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> PreceptorSnapshot.read(file));
+
+        // the row count is the third header int
+        for (int rows : new int[] {-1, 4, 2}) {
+            PreceptorSnapshot.write(new PreceptorPool(Preceptor.createSamplePreceptors()), file);
+            bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(8, rows);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> PreceptorSnapshot.read(file), "Snapshot of " + rows + " rows");
+        }
+
+        PreceptorSnapshot.write(new PreceptorPool(Preceptor.createSamplePreceptors()), file);
+        assertEquals(3, PreceptorSnapshot.read(file).size());
+        assertThrows(IllegalArgumentException.class, () -> PreceptorSnapshot.read(file, ScoringSchema.ROTATION_OVERLAP));
+    }
+}
@@ -0,0 +1,158 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.MatchingConfig;
+import UnitTestingMatchingAlgorithm.src.main.java.Preceptor;
+import UnitTestingMatchingAlgorithm.src.main.java.PreceptorPool;
+import UnitTestingMatchingAlgorithm.src.main.java.RecordLoader;
+import UnitTestingMatchingAlgorithm.src.main.java.Student;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class RecordLoaderTest {
+
+    /**
+     * Tests reading records from CSV.
+     * This test verifies:
+     * 1. Quoted values keep their commas, quotes and line breaks, and CRLF line ends are accepted
+     * 2. Dates are stored as dates, empty values stay unset and unknown fields are still kept
+     * 3. Repeated answers share one String instance
+     * 4. A loaded record scores like the same record built with setFieldValue
+     */
+    @Test
+    public void testLoadCsv() throws Exception {
+        String csv = "\uFEFFId,Name,specialtyEntering,specialSkills,startDate,endDate,availability,region\r\n"
+                + "ST001,\"Doe, John\",Nursing,\"CPR \"\"Certified\"\"\",2025-06-01,2025-08-30,Full-time,North\r\n"
+                + "\r\n"
+                + "ST002,Jane Roe,Nursing,\"Line one\nLine two\",2025-07-01T00:00:00.000Z,,Full-time,\n";
+        List<Student> students = RecordLoader.loadStudents(new StringReader(csv), RecordLoader.Format.CSV);
+
+        assertEquals(2, students.size());
+        Student first = students.get(0);
+        Student second = students.get(1);
+        assertEquals("ST001", first.getId());
+        assertEquals("Doe, John", first.getName());
+        assertEquals("CPR \"Certified\"", first.getFieldValue("specialSkills"));
+        assertEquals("Line one\nLine two", second.getFieldValue("specialSkills"));
+        assertEquals(LocalDate.of(2025, 6, 1), first.getFieldValue("startDate"));
+        assertEquals(LocalDate.of(2025, 7, 1), second.getFieldValue("startDate"));
+        assertNull(second.getFieldValue("endDate"));
+        assertEquals("North", first.getFieldValue("region"));
+        assertNull(second.getFieldValue("region"));
+        assertSame(first.getFieldValue("availability"), second.getFieldValue("availability"));
+
+        Student built = new Student("ST001", "Doe, John");
+        built.setFieldValue("specialtyEntering", "Nursing");
+        built.setFieldValue("specialSkills", "CPR \"Certified\"");
+        built.setFieldValue("startDate", LocalDate.of(2025, 6, 1));
+        built.setFieldValue("endDate", LocalDate.of(2025, 8, 30));
+        built.setFieldValue("availability", "Full-time");
+        for (Preceptor preceptor : Preceptor.createSamplePreceptors()) {
+            assertEquals(FuzzyMatchingAlgorithm.calculateMatchScore(built, preceptor),
+                    FuzzyMatchingAlgorithm.calculateMatchScore(first, preceptor), 0.0);
+        }
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                RecordLoader.loadStudents(new StringReader("Id,Name\nST1,\"Open\n"), RecordLoader.Format.CSV));
+        assertTrue(error.getMessage().startsWith("Line 3"), error.getMessage());
+    }
+
+    /**
+     * Tests reading records from JSON Lines.
+     * This test verifies:
+     * 1. Nested values such as the Salesforce attributes object are skipped
+     * 2. Escapes are decoded, nulls leave the field unset and numbers are kept as text
+     * 3. Malformed lines are reported with their line number
+     */
+    @Test
+    public void testLoadJsonLines() throws Exception {
+        String jsonl = "{\"attributes\": {\"type\": \"Preceptor__c\", \"url\": \"/x/{y}\"}, \"Id\": \"PR001\","
+                + " \"Name\": \"Dr. \\\"Q\\\" Smith\", \"specialtyEntering\": \"Nursing\", \"startDate\": \"2025-06-01\","
+                + " \"endDate\": null, \"academicYear\": 3, \"tags\": [\"a\", [\"b\"]]}\n"
+                + "\n"
+                + "{\"Id\":\"PR002\",\"Name\":\"Caf\\u00e9\",\"specialtyEntering\":\"Nursing\"}\n";
+        List<Preceptor> preceptors = RecordLoader.loadPreceptors(new StringReader(jsonl), RecordLoader.Format.JSONL);
+
+        assertEquals(2, preceptors.size());
+        Preceptor first = preceptors.get(0);
+        assertEquals("PR001", first.getId());
+        assertEquals("Dr. \"Q\" Smith", first.getName());
+        assertEquals("Caf\u00e9", preceptors.get(1).getName());
+        assertEquals(LocalDate.of(2025, 6, 1), first.getFieldValue("startDate"));
+        assertNull(first.getFieldValue("endDate"));
+        assertEquals("3", first.getFieldValue("academicYear"));
+        assertNull(first.getFieldValue("tags"));
+        assertNull(first.getFieldValue("attributes"));
+        assertSame(first.getFieldValue("specialtyEntering"), preceptors.get(1).getFieldValue("specialtyEntering"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                RecordLoader.loadPreceptors(new StringReader("{\"Id\":\"PR1\"}\n{\"Id\" \"PR2\"}\n"),
+                        RecordLoader.Format.JSONL));
+        assertTrue(error.getMessage().startsWith("Line 2"), error.getMessage());
+    }
+
+    /**
+     * Tests matching students while they are read.
+     * This test verifies:
+     * 1. Streamed results equal a calculateMatches run over the fully loaded file
+     * 2. Results arrive in file order, across chunk boundaries, with and without an executor
+     */
+    @Test
+    public void testStreamMatchesEqualsFullRun() throws Exception {
+        FuzzyMatchingAlgorithm.TESTING_MODE = false;
+        Random random = new Random(19);
+        StringBuilder csv = new StringBuilder("id,name,startDate,endDate");
+        for (String field : Cohorts.FIELDS) {
+            csv.append(',').append(field);
+        }
+        csv.append('\n');
+        for (int i = 0; i < 2 * RecordLoader.DEFAULT_CHUNK_SIZE + 37; i++) {
+            Student student = Cohorts.student(random, "ST" + i);
+            csv.append(student.getId()).append(',').append(student.getName()).append(',')
+                    .append(student.getFieldValue("startDate")).append(',').append(student.getFieldValue("endDate"));
+            for (String field : Cohorts.FIELDS) {
+                Object value = student.getFieldValue(field);
+                csv.append(',').append(value == null ? "" : value);
+            }
+            csv.append('\n');
+        }
+        PreceptorPool pool = new PreceptorPool(Preceptor.createSamplePreceptors());
+
+        List<FuzzyMatchingAlgorithm.MatchRequest> requests = new ArrayList<>();
+        for (Student student : RecordLoader.loadStudents(new StringReader(csv.toString()), RecordLoader.Format.CSV)) {
+            FuzzyMatchingAlgorithm.MatchRequest request = new FuzzyMatchingAlgorithm.MatchRequest(student, pool, 40.0);
+            request.setMaxResults(2);
+            requests.add(request);
+        }
+        List<FuzzyMatchingAlgorithm.MatchResult> expected =
+                FuzzyMatchingAlgorithm.calculateMatches(requests, new MatchingConfig());
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            List<FuzzyMatchingAlgorithm.MatchResult> streamed = new ArrayList<>();
+            int count = parallel
+                    ? RecordLoader.streamMatches(new StringReader(csv.toString()), RecordLoader.Format.CSV, pool, 40.0,
+                            2, new MatchingConfig(), ForkJoinPool.commonPool(), streamed::add)
+                    : RecordLoader.streamMatches(new StringReader(csv.toString()), RecordLoader.Format.CSV, pool, 40.0,
+                            2, new MatchingConfig(), streamed::add);
+
+            assertEquals(expected.size(), count);
+            assertEquals(expected.size(), streamed.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStudentId(), streamed.get(i).getStudentId());
+                List<FuzzyMatchingAlgorithm.PreceptorMatch> matches = streamed.get(i).getMatches();
+                assertEquals(expected.get(i).getMatches().size(), matches.size());
+                for (int m = 0; m < matches.size(); m++) {
+                    assertEquals(expected.get(i).getMatches().get(m).getPreceptorId(), matches.get(m).getPreceptorId());
+                    assertEquals(expected.get(i).getMatches().get(m).getScore(), matches.get(m).getScore(), 0.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.StableMatching;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class StableMatchingTest {
+
+    private static FuzzyMatchingAlgorithm.MatchResult result(String studentId, double[] scores) {
+        List<FuzzyMatchingAlgorithm.PreceptorMatch> matches = new ArrayList<>();
+        for (int p = 0; p < scores.length; p++) {
+            if (Double.isNaN(scores[p])) continue;
+            matches.add(new FuzzyMatchingAlgorithm.PreceptorMatch("PR" + p, "PR" + p, scores[p], null));
+        }
+        Collections.sort(matches);
+        return new FuzzyMatchingAlgorithm.MatchResult(studentId, studentId, matches);
+    }
+
+    /**
+     * Tests that preceptor-side preferences decide who keeps a contested seat.
+     * This test verifies:
+     * 1. With shared scores, the student scoring higher keeps the seat
+     * 2. With separate preceptor scores, the student the preceptor prefers keeps it instead
+     */
+    @Test
+    public void testPreceptorPreferencesDecideContestedSeat() {
+        List<FuzzyMatchingAlgorithm.MatchResult> results = new ArrayList<>();
+        results.add(result("ST001", new double[] {95.0, 80.0}));
+        results.add(result("ST002", new double[] {90.0, 85.0}));
+
+        List<FuzzyMatchingAlgorithm.ApproveMatchRequest> shared = StableMatching.match(results, 1);
+        assertEquals("PR0", shared.get(0).getPreceptorId());
+        assertEquals("PR1", shared.get(1).getPreceptorId());
+
+        List<FuzzyMatchingAlgorithm.MatchResult> preceptorScores = new ArrayList<>();
+        preceptorScores.add(result("ST001", new double[] {60.0, 60.0}));
+        preceptorScores.add(result("ST002", new double[] {70.0, 70.0}));
+        List<FuzzyMatchingAlgorithm.ApproveMatchRequest> separate =
+                StableMatching.match(results, preceptorScores, Collections.<String, Integer>emptyMap(), 1);
+        assertEquals("ST001", separate.get(0).getStudentId());
+        assertEquals("PR1", separate.get(0).getPreceptorId());
+        assertEquals(80.0, separate.get(0).getMatchScore(), 0.0, "Approvals carry the student-side score");
+        assertEquals("ST002", separate.get(1).getStudentId());
+        assertEquals("PR0", separate.get(1).getPreceptorId());
+    }
+
+    /**
+     * Tests random cohorts for stability.
+     * This test verifies:
+     * 1. No preceptor exceeds its capacity and only mutually listed pairs are matched
+     * 2. No student and preceptor both strictly prefer each other to their outcome
+     */
+    @Test
+    public void testMatchingIsStable() {
+        Random random = new Random(16);
+        for (int round = 0; round < 200; round++) {
+            int studentCount = 1 + random.nextInt(30);
+            int preceptorCount = 1 + random.nextInt(10);
+            double[][] studentSide = new double[studentCount][preceptorCount];
+            double[][] preceptorSide = new double[studentCount][preceptorCount];
+            int[] capacities = new int[preceptorCount];
+            Map<String, Integer> capacityById = new HashMap<>();
+            for (int p = 0; p < preceptorCount; p++) {
+                capacities[p] = random.nextInt(4);
+                capacityById.put("PR" + p, capacities[p]);
+            }
+            List<FuzzyMatchingAlgorithm.MatchResult> results = new ArrayList<>();
+            List<FuzzyMatchingAlgorithm.MatchResult> preceptorScores = new ArrayList<>();
+            for (int s = 0; s < studentCount; s++) {
+                for (int p = 0; p < preceptorCount; p++) {
+                    boolean listed = random.nextInt(3) > 0;
+                    studentSide[s][p] = listed ? random.nextInt(1001) / 10.0 : Double.NaN;
+                    preceptorSide[s][p] = listed && random.nextInt(5) > 0 ? random.nextInt(1001) / 10.0 : Double.NaN;
+                }
+                results.add(result("ST" + s, studentSide[s]));
+                preceptorScores.add(result("ST" + s, preceptorSide[s]));
+            }
+
+            List<FuzzyMatchingAlgorithm.ApproveMatchRequest> approvals =
+                    StableMatching.match(results, preceptorScores, capacityById, 1);
+
+            int[] matched = new int[studentCount];
+            Arrays.fill(matched, -1);
+            int[] load = new int[preceptorCount];
+            for (FuzzyMatchingAlgorithm.ApproveMatchRequest approval : approvals) {
+                int s = Integer.parseInt(approval.getStudentId().substring(2));
+                int p = Integer.parseInt(approval.getPreceptorId().substring(2));
+                assertEquals(-1, matched[s], "Student matched twice in round " + round);
+                assertFalse(Double.isNaN(preceptorSide[s][p]), "Pair not acceptable to preceptor in round " + round);
+                matched[s] = p;
+                load[p]++;
+            }
+
+            for (int p = 0; p < preceptorCount; p++) {
+                assertTrue(load[p] <= capacities[p], "Capacity exceeded in round " + round);
+                double weakestHeld = Double.POSITIVE_INFINITY;
+                for (int s = 0; s < studentCount; s++) {
+                    if (matched[s] == p) weakestHeld = Math.min(weakestHeld, preceptorSide[s][p]);
+                }
+                for (int s = 0; s < studentCount; s++) {
+                    if (Double.isNaN(preceptorSide[s][p]) || matched[s] == p || capacities[p] == 0) continue;
+                    boolean studentPrefers = matched[s] < 0 || studentSide[s][p] > studentSide[s][matched[s]];
+                    boolean preceptorPrefers = load[p] < capacities[p] || preceptorSide[s][p] > weakestHeld;
+                    assertFalse(studentPrefers && preceptorPrefers,
+                            "ST" + s + " and PR" + p + " block the matching in round " + round);
+                }
+            }
+        }
+    }
+}
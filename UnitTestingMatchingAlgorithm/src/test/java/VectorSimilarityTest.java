@@ -0,0 +1,76 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.VectorSimilarity;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class VectorSimilarityTest {
+
+    /**
+     * The cosine similarity of the Algorithms sketch, kept here as the reference implementation.
+     */
+    private static double referenceCosine(double[] vectorA, double[] vectorB) {
+        double dotProduct = 0.0;
+        double normA = 0.0;
+        double normB = 0.0;
+        for (int i = 0; i < vectorA.length; i++) {
+            dotProduct += vectorA[i] * vectorB[i];
+            normA += Math.pow(vectorA[i], 2);
+            normB += Math.pow(vectorB[i], 2);
+        }
+        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static double[] randomVector(Random random, int dimensions) {
+        double[] vector = new double[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+
+    /**
+     * Tests cosine similarity of single pairs and of a query against a matrix.
+     * This test verifies:
+     * 1. cosine() agrees with the reference for lengths around every lane count
+     * 2. Matrix.cosine() returns the same value as cosine() for every row
+     * 3. Zero vectors score 0 and mismatched lengths are rejected
+     * 4. The Vector API kernel is in use exactly when the build asks for it (the vector-api
+     *    profile sets vector.kernel.expected)
+     */
+    @Test
+    public void testCosineMatchesReference() {
+        assertEquals(Boolean.getBoolean("vector.kernel.expected"), VectorSimilarity.isVectorized(),
+                "Vector API kernel in use");
+        Random random = new Random(25);
+        for (int dimensions = 0; dimensions <= 40; dimensions++) {
+            double[] a = randomVector(random, dimensions);
+            double[] b = randomVector(random, dimensions);
+            double expected = dimensions == 0 ? 0 : referenceCosine(a, b);
+            assertEquals(expected, VectorSimilarity.cosine(a, b), 1e-12, "Cosine of " + dimensions + " dimensions");
+        }
+
+        double[][] rows = new double[500][];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = randomVector(random, 37);
+        }
+        rows[7] = new double[37];
+        VectorSimilarity.Matrix matrix = new VectorSimilarity.Matrix(rows);
+        assertEquals(500, matrix.size());
+        assertEquals(37, matrix.getDimensions());
+
+        double[] query = randomVector(random, 37);
+        double[] scores = matrix.cosine(query);
+        for (int row = 0; row < rows.length; row++) {
+            assertEquals(VectorSimilarity.cosine(query, rows[row]), scores[row], 1e-12, "Row " + row);
+        }
+        assertEquals(0.0, scores[7], 0.0);
+        assertEquals(1.0, matrix.cosine(rows[3])[3], 1e-12);
+
+        assertThrows(IllegalArgumentException.class, () -> VectorSimilarity.cosine(new double[2], new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> matrix.cosine(new double[36]));
+        assertThrows(IllegalArgumentException.class, () -> new VectorSimilarity.Matrix(new double[10], 3));
+    }
+}
@@ -0,0 +1,99 @@
+package UnitTestingMatchingAlgorithm.src.test.java;
+
+import UnitTestingMatchingAlgorithm.src.main.java.EditDistance;
+import UnitTestingMatchingAlgorithm.src.main.java.FuzzyMatchingAlgorithm;
+import UnitTestingMatchingAlgorithm.src.main.java.VocabularyIndex;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class VocabularyIndexTest {
+
+    /**
+     * Tests lookups against a scan of the whole vocabulary.
+     * This test verifies:
+     * 1. nearest() returns the same terms, distances and order as sorting every term by
+     *    (distance, index) and keeping the first k within maxDistance
+     * 2. Duplicate terms and the empty term are all found
+     * 3. within() returns every term within the distance
+     */
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(23);
+        for (int round = 0; round < 200; round++) {
+            List<String> vocabulary = new ArrayList<>();
+            int size = random.nextInt(60);
+            for (int i = 0; i < size; i++) {
+                vocabulary.add(EditDistanceTest.randomText(random, 9, "abcd"));
+            }
+            VocabularyIndex index = new VocabularyIndex(vocabulary);
+            assertEquals(size, index.size());
+
+            String query = EditDistanceTest.randomText(random, 9, "abcd");
+            int k = random.nextInt(6);
+            int maxDistance = random.nextInt(6) == 5 ? Integer.MAX_VALUE : random.nextInt(5);
+
+            List<int[]> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int distance = EditDistance.distance(query, vocabulary.get(i));
+                if (distance <= maxDistance) expected.add(new int[]{distance, i});
+            }
+            expected.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+            if (k > 0 && expected.size() > k) expected = expected.subList(0, k);
+
+            List<VocabularyIndex.Match> actual = index.nearest(query, k, maxDistance);
+            assertEquals(expected.size(), actual.size(), "Result count for query " + query);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)[1], actual.get(i).getIndex());
+                assertEquals(expected.get(i)[0], actual.get(i).getDistance());
+                assertEquals(vocabulary.get(expected.get(i)[1]), actual.get(i).getTerm());
+            }
+            if (k == 0) {
+                assertEquals(actual.size(), index.within(query, maxDistance).size());
+            }
+        }
+
+        VocabularyIndex empty = new VocabularyIndex(Collections.<String>emptyList());
+        assertTrue(empty.nearest("a", 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> empty.nearest("a", 0));
+        assertThrows(IllegalArgumentException.class, () -> new VocabularyIndex(Arrays.asList("a", null)));
+    }
+
+    /**
+     * Tests normalizing free text against a canonical vocabulary.
+     * This test verifies:
+     * 1. A misspelled term is replaced by the closest vocabulary term
+     * 2. Text with no term within the distance is kept as it is
+     * 3. The similarity overload compares the canonical terms, and leaves empty text empty
+     * 4. A term far longer than the query does not make the lookup walk or allocate its length
+     */
+    @Test
+    public void testCanonicalTerms() {
+        VocabularyIndex specialties = new VocabularyIndex(
+                Arrays.asList("pediatrics", "family practice", "surgery", "psychiatry"));
+
+        assertEquals("pediatrics", specialties.canonical("pediatrcs", 2));
+        assertEquals("family practice", specialties.canonical("famly practise", 2));
+        assertEquals("dermatology", specialties.canonical("dermatology", 2));
+        assertEquals("surgery", specialties.nearest("surgury", 1).get(0).getTerm());
+
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateTextSimilarity("Pediatrcs", "PEDIATRICS", specialties, 2));
+        assertTrue(FuzzyMatchingAlgorithm.calculateTextSimilarity("Pediatrcs", "Surgery", specialties, 2) < 50.0);
+
+        VocabularyIndex shortTerms = new VocabularyIndex(Arrays.asList("ob", "ent"));
+        assertEquals(0.0, FuzzyMatchingAlgorithm.calculateTextSimilarity("", "OB", shortTerms, 2));
+        assertEquals(0.0, FuzzyMatchingAlgorithm.calculateTextSimilarity(null, "Ent", shortTerms, 3));
+        assertEquals(100.0, FuzzyMatchingAlgorithm.calculateTextSimilarity(null, "", shortTerms, 3));
+
+        char[] longTerm = new char[1 << 20];
+        Arrays.fill(longTerm, 'a');
+        VocabularyIndex withLongTerm = new VocabularyIndex(Arrays.asList(new String(longTerm), "surgery"));
+        assertEquals("surgery", withLongTerm.nearest("surgury", 1).get(0).getTerm());
+        assertTrue(withLongTerm.within("aaa", 2).isEmpty());
+    }
+}
@@ -2,25 +2,37 @@ package WebApp.src.main.java;
 
 public class FuzzyMatch {
 
-    // Uses Levenshtein Distance
+    // Uses Levenshtein Distance, keeping only two rows of the matrix
     public static int levenshteinDistance(String text, String pattern){
-        int[][] doubleArray = new int[text.length() + 1][pattern.length()+1];
+        return levenshteinDistance(text, pattern, Integer.MAX_VALUE);
+    }
 
-        for(int i =0; i<=(text.length()); i++){
-            for( int j = 0; j<= pattern.length(); j++){
-                if (i == 0){
-                    doubleArray[i][j] = j;
-                }
-                else if(j ==0){
-                    doubleArray[i][j] = i;
-                }
-                else{
-                    doubleArray[i][j] = Math.min(Math.min(doubleArray[i-1][j-1] + (text.charAt(i-1) == pattern.charAt(j-1)?0:1), doubleArray[i-1][j] + 1), doubleArray[i][j-1]+1);
-                }
+    // Levenshtein Distance that gives up once it is sure to exceed maxDistance, returns maxDistance + 1 in that case
+    public static int levenshteinDistance(String text, String pattern, int maxDistance){
+        if (Math.abs(text.length() - pattern.length()) > maxDistance){
+            return maxDistance + 1;
+        }
+        int[] previous = new int[pattern.length() + 1];
+        int[] current = new int[pattern.length() + 1];
 
+        for(int j = 0; j <= pattern.length(); j++){
+            previous[j] = j;
+        }
+        for(int i = 1; i <= text.length(); i++){
+            current[0] = i;
+            int rowMinimum = current[0];
+            for(int j = 1; j <= pattern.length(); j++){
+                current[j] = Math.min(Math.min(previous[j-1] + (text.charAt(i-1) == pattern.charAt(j-1)?0:1), previous[j] + 1), current[j-1]+1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if(rowMinimum > maxDistance){
+                return maxDistance + 1;
             }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
-        return doubleArray[text.length()][pattern.length()];
+        return previous[pattern.length()] <= maxDistance ? previous[pattern.length()] : maxDistance + 1;
     }
 
     // Calculates the ratio of similarities between the two strings